@@ -0,0 +1,36 @@
+package com.haseeb.registration;
+
+import java.util.Random;
+
+//shared data generation for the benchmarks, everything is seeded so runs are comparable
+final class BenchData {
+    private BenchData() { }
+
+    //drops every message, so the benchmarks measure the backend and not string building
+    static final LogSink QUIET = (template, a, b, c) -> { };
+
+    //zero padded so code order == number order, like a real catalog loaded CSC101, CSC102, ...
+    static String courseCode(int i) {
+        return String.format("CSC%07d", i);
+    }
+
+    static String studentId(int i) {
+        return String.format("2024-%07d", i);
+    }
+
+    static BackendSystem backend(int courses, int students, int capacity) {
+        BackendSystem b = new BackendSystem(QUIET, null);
+        for (int i = 0; i < courses; i++) b.addCourse(courseCode(i), "Course " + i, 1 + i % 4, capacity);
+        for (int i = 0; i < students; i++) b.addStudent(studentId(i), "Student " + i);
+        return b;
+    }
+
+    //random requests, a few courses are much hotter than the rest (like a real registration rush)
+    static void queueRandom(BackendSystem b, int requests, int courses, int students, long seed) {
+        Random r = new Random(seed);
+        for (int i = 0; i < requests; i++) {
+            int c = r.nextInt(4) == 0 ? r.nextInt(Math.min(courses, 10)) : r.nextInt(courses);
+            b.queueRequest(studentId(r.nextInt(students)), courseCode(c));
+        }
+    }
+}
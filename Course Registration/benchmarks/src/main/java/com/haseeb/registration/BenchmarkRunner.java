@@ -0,0 +1,15 @@
+package com.haseeb.registration;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+//entry point of benchmarks.jar: same command line as plain JMH, but always adds the GC profiler
+//so every result also shows allocation rate (gc.alloc.rate / gc.alloc.rate.norm)
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build()).run();
+    }
+}
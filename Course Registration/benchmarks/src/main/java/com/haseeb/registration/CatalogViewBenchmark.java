@@ -0,0 +1,55 @@
+package com.haseeb.registration;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//what a table refresh pulls out of the backend: getAllCourses in each sort mode,
+//and one screen of student rows the way StudentTableModel builds them
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CatalogViewBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private BackendSystem backend;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int students = Math.max(100, size / 10);
+        backend = BenchData.backend(size, students, 40);
+        BenchData.queueRandom(backend, Math.min(size, 200_000), size, students, 5); //so seat counts differ
+        backend.processQueue();
+    }
+
+    //only getAllCourses depends on the sort mode, so it gets its own parameter state
+    @State(Scope.Benchmark)
+    public static class Sort {
+        @Param({"1", "2", "3"})
+        public int sortMode;
+    }
+
+    @Benchmark
+    public List<Course> getAllCourses(Sort sort) {
+        return backend.getAllCourses(sort.sortMode);
+    }
+
+    //30 visible rows, scrolled to the middle of the directory
+    @Benchmark
+    public void studentPage(Blackhole bh) {
+        int from = backend.getStudentCount() / 2;
+        for (int i = from; i < from + 30; i++) {
+            Student s = backend.getStudentSortedAt(i);
+            bh.consume(s.id);
+            bh.consume(s.name());
+            bh.consume(backend.getRegisteredCourses(s).toString());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.haseeb.registration;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//CourseBST insert (whole catalog, sorted vs shuffled input) and search
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CourseBSTBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"SORTED", "RANDOM"})
+    public String order;
+
+    private Course[] courses;
+    private String[] lookups;
+    private CourseBST tree;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        courses = new Course[size];
+        for (int i = 0; i < size; i++) courses[i] = new Course(BenchData.courseCode(i), "Course " + i, 3, 30);
+        if (order.equals("RANDOM")) {
+            List<Course> l = Arrays.asList(courses);
+            Collections.shuffle(l, new Random(42));
+        }
+        tree = new CourseBST();
+        for (Course c : courses) tree.insert(c);
+
+        lookups = new String[Math.min(size, 1 << 16)];
+        Random r = new Random(7);
+        for (int i = 0; i < lookups.length; i++) lookups[i] = BenchData.courseCode(r.nextInt(size));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CourseBST insertAll() {
+        CourseBST t = new CourseBST();
+        for (Course c : courses) t.insert(c);
+        return t;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Course search() {
+        String code = lookups[next++ & (lookups.length - 1)];
+        return tree.search(code);
+    }
+}
@@ -0,0 +1,39 @@
+package com.haseeb.registration;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//time to drain a full queue, each measured call processes "size" requests
+//the backend is rebuilt and refilled before every iteration, that part isn't timed
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ProcessQueueBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"1", "8"})
+    public int workers;
+
+    private BackendSystem backend;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        int courses = Math.max(100, size / 100);
+        int students = Math.max(100, size / 5);
+        backend = BenchData.backend(courses, students, 60);
+        BenchData.queueRandom(backend, size, courses, students, 11);
+    }
+
+    @Benchmark
+    public BackendSystem processQueue() {
+        if (workers == 1) backend.processQueue();
+        else backend.processQueueParallel(workers);
+        return backend;
+    }
+}
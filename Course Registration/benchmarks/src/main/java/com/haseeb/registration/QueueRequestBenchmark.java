@@ -0,0 +1,53 @@
+package com.haseeb.registration;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//cost of queueRequest (student lookup + course lookup + enqueue) against a catalog and roster of "size"
+//the queue is drained between invocations (untimed) so it doesn't grow for the whole run
+//every course has no seats and no waitlist, so draining answers FULL and nobody ends up enrolled or
+//waiting: the same pairs go through the whole enqueue path again next time instead of stopping at
+//queueRequest's "already enrolled" check
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueueRequestBenchmark {
+
+    private static final int BATCH = 10_000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private BackendSystem backend;
+    private String[] studentIds, courseCodes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        backend = BenchData.backend(size, size, 0);
+        backend.setWaitlistLimit(0);
+        Random r = new Random(3);
+        studentIds = new String[BATCH];
+        courseCodes = new String[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            studentIds[i] = BenchData.studentId(r.nextInt(size));
+            courseCodes[i] = BenchData.courseCode(r.nextInt(size));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void drain() {
+        backend.processQueue();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BackendSystem queueRequest() {
+        for (int i = 0; i < BATCH; i++) backend.queueRequest(studentIds[i], courseCodes[i]);
+        return backend;
+    }
+}
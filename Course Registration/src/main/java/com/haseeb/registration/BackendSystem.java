@@ -0,0 +1,1378 @@
+package com.haseeb.registration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+//Controls everything
+//every public method locks the backend, so the GUI thread and a background batch can share it
+public class BackendSystem {
+    //students who can wait for a full course at once, per course (see setWaitlistLimit)
+    public static final int DEFAULT_WAITLIST_LIMIT = 20;
+    //most credits one student can be enrolled in at once (see setCreditLimit)
+    public static final int DEFAULT_CREDIT_LIMIT = 18;
+    //requests that can wait at once before queueRequest starts shedding or refusing (see RequestScheduler)
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 20;
+
+    private CourseBST courseTree; //binary search tree
+    private CourseIndex creditIndex = new CourseIndex(c -> c.credits, false); //for sort mode 2
+    private CourseIndex seatIndex = new CourseIndex(Course::getAvailable, true); //for sort mode 3, most free seats first
+    private EnrollmentIndex enrollments = new EnrollmentIndex(); //who is in what, both ways
+    private WaitlistIndex waitlists = new WaitlistIndex(); //who waits for a seat in what
+    private Catalog catalog; //students, their load and the prerequisite graph, shared by the shards of a ShardedBackend
+    private StudentLoad load; //the catalog's: when each student already has class and how many credits they carry
+    private EligibilityIndex eligibility; //the catalog's: prerequisite closures, completed courses
+    private CourseSearchIndex search = new CourseSearchIndex(); //search box: code trie + name trigrams
+    private int waitlistLimit = DEFAULT_WAITLIST_LIMIT;
+    private int creditLimit = DEFAULT_CREDIT_LIMIT;
+    private StudentStore studentDatabase; //the catalog's: packed ids, names in one byte arena
+    private int studentsIndexed; //students in the store that the indexes here have room for
+    private final boolean shard; //one of a ShardedBackend's engines, see the constructor
+    private RequestScheduler requestQueue = new PriorityScheduler(DEFAULT_QUEUE_CAPACITY); //bounded, priority classes
+    private final LongSet pending = new LongSet(); //(student, course) pairs with a request in the queue, see pairKey
+    private LogSink logger; //templates + args, formatted only when someone reads them
+    private ExecutorService workerPool;
+    private int poolSize;
+    private RegistrationJournal journal; //null = memory only, nothing survives a restart
+    private long nextSeq;
+    //latest committed version for lock-free readers, and what changed since it was published
+    private volatile RegistrationSnapshot published = RegistrationSnapshot.EMPTY;
+    private final BitSet unpublishedCourses = new BitSet(), unpublishedStudents = new BitSet();
+    private final Map<String, Integer> courseNumbers = new ConcurrentHashMap<>(); //code -> Course.idx, for snapshots
+    //bumped whenever the queue changes, and its length then; both readable without the lock
+    private volatile long queueVersion;
+    private volatile int queueSize;
+    private final RegistrationMetrics metrics;
+
+    public BackendSystem(Consumer<String> logger) {
+        this(LogSink.of(logger), null);
+    }
+
+    public BackendSystem(Consumer<String> logger, Path dataDir) {
+        this(LogSink.of(logger), dataDir);
+    }
+
+    //with a data directory every change is journaled there, and the saved state is loaded on startup
+    public BackendSystem(LogSink logger, Path dataDir) {
+        this(logger, dataDir, new Catalog(), null, false);
+    }
+
+    //one shard of a ShardedBackend: the catalog (students, their load and lock stripes, prerequisites) is
+    //shared with the other shards and only ever changed by the ShardedBackend, this engine only has the
+    //courses it owns. The metrics are shared too. Its journal has its own courses and everything about
+    //them, students and completed courses are in the catalog's. It starts out empty instead of with the sample data
+    BackendSystem(LogSink logger, Path dataDir, Catalog catalog, RegistrationMetrics metrics) {
+        this(logger, dataDir, catalog, metrics, true);
+    }
+
+    private BackendSystem(LogSink logger, Path dataDir, Catalog catalog, RegistrationMetrics metrics, boolean shard) {
+        this.courseTree = new CourseBST();
+        this.logger = logger;
+        this.shard = shard;
+        useCatalog(catalog);
+        this.metrics = metrics != null ? metrics : new RegistrationMetrics(this::getQueueSize, () -> snapshot().getCourses());
+        boolean recovered = dataDir != null && recover(dataDir);
+        this.catalog.resolve(); //a shard's links to later shards' courses wait for the last shard's turn
+        if (!recovered && !shard) seedData();
+        queueChanged(); //whatever recovery put back
+        unpublishedCourses.set(0, enrollments.courseTotal()); //whatever recovery put back
+        unpublishedStudents.set(0, studentDatabase.size());
+        publish();
+    }
+
+    private void useCatalog(Catalog c) {
+        catalog = c;
+        studentDatabase = c.students;
+        load = c.load;
+        eligibility = c.eligibility;
+        studentsIndexed = 0;
+        indexStudents(); //a shard opened after others (or after the catalog) has students already
+    }
+
+    //loads the latest snapshot and replays the journal tail on top of it
+    //returns false if there was nothing saved yet
+    private boolean recover(Path dataDir) {
+        Map<Long, RegistrationRequest> unanswered = new LinkedHashMap<>(); //queued requests without a result yet
+        Map<Long, RegistrationRequest> polled = new LinkedHashMap<>(); //taken off the queue, result still to come
+        boolean[] inStep = {true}; //the queue is still being replayed the way it ran, see replayDequeue
+        try {
+            journal = new RegistrationJournal(dataDir, this::journalFailed);
+            boolean found = journal.recover(new RegistrationJournal.Replay() {
+                public void course(String code, String name, int credits, int capacity, String meets) {
+                    insertCourse(new Course(code, name, credits, capacity, MeetingTimes.parse(meets)));
+                }
+                public void student(String id, String name) {
+                    insertStudent(id, name);
+                }
+                public void enrollment(String studentId, String courseCode) {
+                    applyEnrollment(findStudent(studentId), courseTree.search(courseCode));
+                }
+                public void request(long seq, String studentId, String courseCode, int priority) {
+                    RegistrationRequest req = new RegistrationRequest(studentId, courseCode);
+                    req.seq = seq;
+                    req.priority = priority;
+                    unanswered.put(seq, req);
+                    if (inStep[0]) requestQueue.restore(req);
+                    nextSeq = Math.max(nextSeq, seq + 1);
+                }
+                public void bundleRequest(long seq, String studentId, List<String> courseCodes, int priority) {
+                    RegistrationRequest req = new RegistrationRequest(studentId, courseCodes.get(0));
+                    req.bundle = courseCodes;
+                    req.seq = seq;
+                    req.priority = priority;
+                    unanswered.put(seq, req);
+                    if (inStep[0]) requestQueue.restore(req);
+                    nextSeq = Math.max(nextSeq, seq + 1);
+                }
+                public void result(long seq, String studentId, String courseCode, int outcome) {
+                    RegistrationRequest req = unanswered.remove(seq);
+                    if (req != null && inStep[0] && polled.remove(seq) == null) inStep[0] = replayDequeue(req, outcome, polled);
+                    if (outcome == Outcome.SUCCESS.ordinal() && req != null && req.bundle != null) {
+                        for (String code : req.bundle) applyEnrollment(findStudent(studentId), courseTree.search(code));
+                    } else if (outcome == Outcome.SUCCESS.ordinal()) {
+                        applyEnrollment(findStudent(studentId), courseTree.search(courseCode));
+                    } else if (outcome == Outcome.WAITLISTED.ordinal()) {
+                        waitlisted(courseCode, studentId);
+                    }
+                }
+                public void drop(String studentId, String courseCode, String promotedId) {
+                    Student student = findStudent(studentId);
+                    Course course = courseTree.search(courseCode);
+                    if (student != null && course != null) applyDrop(student, course, promotedId); //promotes whoever it did live
+                }
+                public void waitlisted(String courseCode, String studentId) {
+                    Student student = findStudent(studentId);
+                    Course course = courseTree.search(courseCode);
+                    if (student != null && course != null) waitlists.offer(student, course, Integer.MAX_VALUE);
+                }
+                public void prerequisites(String courseCode, List<String> prerequisiteCodes) {
+                    Course course = courseTree.search(courseCode);
+                    if (course != null) catalog.prerequisites(course, prerequisiteCodes); //may be on a shard not loaded yet
+                }
+                public void completed(String studentId, String courseCode) {
+                    catalog.completed(studentId, courseCode);
+                }
+                public void creditLimit(int credits) {
+                    creditLimit = credits;
+                }
+            });
+            //the queue is left exactly as it was when replay kept step. Otherwise it's rebuilt: requests polled
+            //by a batch a crash cut short go first, then the queue as it stood, or if replay lost step (the
+            //queue ran under another scheduler) whatever is unanswered in the order it was queued
+            List<RegistrationRequest> line = new ArrayList<>(unanswered.size());
+            boolean rebuild = !inStep[0] || !polled.isEmpty();
+            if (inStep[0]) line.addAll(polled.values());
+            line.addAll(inStep[0] ? requestQueue.toList() : unanswered.values());
+            if (rebuild) requestQueue.clear();
+            long now = System.nanoTime();
+            for (RegistrationRequest req : line) { //already accepted once, so capacity doesn't apply
+                req.queuedAt = now;
+                req.key = req.bundle != null ? bundleKey(findStudent(req.studentId))
+                        : pairKey(findStudent(req.studentId), courseTree.search(req.courseCode));
+                if (rebuild) requestQueue.restore(req);
+                if (req.bundle == null) pending.add(req.key);
+            }
+            if (found) {
+                logger.log("Restored " + courseTree.size() + " courses, " + studentDatabase.size()
+                        + " students and " + requestQueue.size() + " queued requests from " + dataDir);
+            }
+            return found;
+        } catch (IOException | RuntimeException e) {
+            logger.log("Error: could not load saved data from {} ({}). Running in memory only.", dataDir, e.getMessage());
+            journal = null;
+            courseTree = new CourseBST();
+            creditIndex = new CourseIndex(c -> c.credits, false);
+            seatIndex = new CourseIndex(Course::getAvailable, true);
+            enrollments = new EnrollmentIndex();
+            waitlists = new WaitlistIndex();
+            useCatalog(new Catalog()); //a shard's ShardedBackend notices (isPersistent) and starts every shard over
+            creditLimit = DEFAULT_CREDIT_LIMIT;
+            search = new CourseSearchIndex();
+            courseNumbers.clear();
+            requestQueue.clear();
+            pending.clear();
+            return false;
+        }
+    }
+
+    //takes an answered request off the queue being replayed the way it left it live: shed to make room,
+    //or polled (a batch journals its results in any order, so whatever was polled before it waits in
+    //polled for its own result). Same offers, polls and sheds in the same order leave the same line behind.
+    //false if the request isn't where it should be (the queue ran under another scheduler)
+    private boolean replayDequeue(RegistrationRequest req, int outcome, Map<Long, RegistrationRequest> polled) {
+        if (outcome == Outcome.SHED.ordinal()) return requestQueue.shedFor(req.priority - 1) == req;
+        for (RegistrationRequest next; (next = requestQueue.poll()) != req; ) {
+            if (next == null) return false;
+            polled.put(next.seq, next);
+        }
+        return true;
+    }
+
+    //used when replaying saved state: enroll without any checks or logging
+    private void applyEnrollment(Student student, Course course) {
+        if (student == null || course == null || !enrollments.enroll(student, course)) return;
+        load.take(student, course);
+        course.enrolled++;
+        seatIndex.update(course, course.getAvailable() + 1);
+    }
+
+    //flushes the journal after a batch and takes a snapshot once enough has been written
+    private void commitBatch() {
+        if (journal == null) return;
+        try {
+            journal.sync();
+            if (journal.snapshotDue()) {
+                journal.snapshot(out -> {
+                    out.creditLimit(creditLimit);
+                    for (Course c : courseTree.toList()) out.course(c.code, c.name, c.credits, c.capacity, c.meets.toString());
+                    for (Course c : courseTree.toList()) {
+                        if (!c.prerequisites.isEmpty()) out.prerequisites(c.code, c.prerequisites);
+                    }
+                    for (int i = 0; i < studentDatabase.size(); i++) {
+                        Student s = studentAt(i);
+                        if (shard) { //the student is in the catalog's journal, only their seats here are ours
+                            if (enrollments.courseCount(s) > 0) out.enrolled(s.id, enrollments.coursesOf(s));
+                            continue;
+                        }
+                        out.student(s.id, s.name(), enrollments.coursesOf(s));
+                        int[] passed = eligibility.completedNumbers(i);
+                        if (passed.length > 0) out.completed(s.id, catalog.codes(passed));
+                    }
+                    for (RegistrationRequest r : requestQueue.toList()) {
+                        if (r.bundle != null) out.bundleRequest(r.seq, r.studentId, r.bundle, r.priority);
+                        else out.request(r.seq, r.studentId, r.courseCode, r.priority);
+                    }
+                    for (Course c : courseTree.toList()) {
+                        if (waitlists.size(c) > 0) out.waitlist(c.code, waitlistIds(c));
+                    }
+                });
+            }
+        } catch (IOException e) {
+            logger.log("Error: could not save to journal ({})", e.getMessage());
+        }
+    }
+
+    //called once, from whichever thread's write failed: nothing from here on reaches the disk, and every
+    //journaled change after it throws
+    private void journalFailed(IOException e) {
+        metrics.journalFailures.increment();
+        logger.log("Error: could not write to journal, nothing from now on is saved ({})", e);
+    }
+
+    //makes sure everything is on disk, call before exiting
+    public synchronized void close() {
+        metrics.unregisterMBean();
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.log("Error: could not close journal ({})", e.getMessage());
+        }
+    }
+
+    //Pre-inserting data
+    private void seedData() {
+        addCourse("CSC215", "Data Structures and Algorithms", 3, 40, "MW 09:00-10:15");
+        addCourse("COM202", "Business and Professional Speech", 3, 30, "TR 11:00-12:15");
+        addCourse("CSC211", "Computer Organisation and Assembly Language", 3, 5, "MW 10:30-11:45");
+        addCourse("MTH204", "Linear Algebra", 3, 50, "TR 09:00-10:15");
+        addCourse("REL101", "Islamic Studies", 3, 20, "F 14:00-15:30");
+        addStudent("20241-35751", "Muhammad Haseeb Haroon");
+        addStudent("20241-12345", "Abdul Samad");
+        addStudent("20241-54321", "Mohammad Arslan");
+        logger.log("System initialized with seed data.");
+    }
+
+    //validates before inserting course
+    //returns false if the code is taken
+    public synchronized boolean addCourse(String code, String name, int credits, int cap) {
+        return addCourse(code, name, credits, cap, "");
+    }
+
+    //meets: weekly meeting times like "MW 09:00-10:15; F 13:00-14:00", blank = no fixed time (see MeetingTimes)
+    //returns false if the code is taken or the meeting times don't parse
+    public synchronized boolean addCourse(String code, String name, int credits, int cap, String meets) {
+        return addCourse(code, name, credits, cap, meets, List.of());
+    }
+
+    //prerequisites: codes of courses a student has to have completed first (see addCompletedCourse),
+    //their own prerequisites are required too. They have to be in the catalog already
+    //returns false if the code is taken, the meeting times don't parse or a prerequisite doesn't exist
+    public synchronized boolean addCourse(String code, String name, int credits, int cap, String meets, List<String> prerequisites) {
+        Course course;
+        try {
+            course = new Course(code, name, credits, cap, MeetingTimes.parse(meets));
+        } catch (IllegalArgumentException e) {
+            logger.log("Error: {}", e.getMessage());
+            return false;
+        }
+        if (!RegistrationJournal.fits(course.code, name)) { //checked before anything changes, see RegistrationJournal.fits
+            logger.log("Error: Course code or name is too long ({} bytes at most).", RegistrationJournal.MAX_STRING_BYTES);
+            return false;
+        }
+        List<Course> needs = catalog.findAll(prerequisites);
+        if (needs == null) {
+            logger.log("Error: Prerequisites of {} must already be in the catalog ({}).", code, prerequisites);
+            return false;
+        }
+        if (!insertCourse(course)) { //if course exists
+            logger.log("Error: Course {} already exists.", code);
+            return false;
+        }
+        linkPrerequisites(course, needs);
+        if (journal != null) {
+            journal.addCourse(course.code, name, credits, cap, course.meets.toString());
+            if (!needs.isEmpty()) journal.prerequisites(course.code, course.prerequisites);
+        }
+        publish();
+        logger.log("Course added: {}", code);
+        return true;
+    }
+
+    //puts the course in the tree and every index, false if the code is taken
+    private boolean insertCourse(Course course) {
+        if (!courseTree.insert(course)) return false;
+        indexCourse(course);
+        return true;
+    }
+
+    //every index but the tree (a bulk import builds the tree in one go)
+    private void indexCourse(Course course) {
+        creditIndex.add(course);
+        seatIndex.add(course);
+        enrollments.addCourse(course);
+        waitlists.addCourse(course);
+        catalog.addCourse(course);
+        search.add(course);
+        courseNumbers.put(course.code, course.idx);
+        unpublishedCourses.set(course.idx);
+    }
+
+    //the closures are rebuilt lazily, right before the next batch (or drop) needs them
+    //(on a shard the ShardedBackend rebuilds them before anything else can run)
+    private void linkPrerequisites(Course course, List<Course> needs) {
+        if (needs.isEmpty()) return;
+        catalog.link(course, needs);
+        unpublishedCourses.set(course.idx);
+    }
+
+    private List<String> codesOf(int[] courseNumbers) {
+        List<String> l = new ArrayList<>(courseNumbers.length);
+        for (int c : courseNumbers) l.add(enrollments.courseAt(c).code);
+        Collections.sort(l);
+        return l;
+    }
+
+    //returns false if the id is taken
+    public synchronized boolean addStudent(String id, String name) {
+        if (!RegistrationJournal.fits(id, name)) { //checked before anything changes, see RegistrationJournal.fits
+            logger.log("Error: Student ID or name is too long ({} bytes at most).", RegistrationJournal.MAX_STRING_BYTES);
+            return false;
+        }
+        if (!insertStudent(id, name)) { //if student id already exists
+            logger.log("Error: Student {} already exists.", id);
+            return false;
+        }
+        if (studentJournal() != null) studentJournal().addStudent(id, name);
+        publish();
+        logger.log("Student registered: {} ({})", name, id);
+        return true;
+    }
+
+    //puts the student in the catalog and every index, false if the id is taken
+    private boolean insertStudent(String id, String name) {
+        if (catalog.addStudent(id, name) < 0) return false;
+        indexStudents();
+        return true;
+    }
+
+    //makes room in the indexes here for students the catalog got since the last time
+    private boolean indexStudents() {
+        if (studentsIndexed == studentDatabase.size()) return false;
+        for (int i = studentsIndexed; i < studentDatabase.size(); i++) {
+            Student student = studentAt(i);
+            enrollments.addStudent(student);
+            waitlists.addStudent(student);
+        }
+        studentsIndexed = studentDatabase.size();
+        return true;
+    }
+
+    //a ShardedBackend added students to the catalog through another shard, they show up here too
+    synchronized void studentsAdded() {
+        if (indexStudents()) publish();
+    }
+
+    //students and completed courses go in the catalog's journal when the catalog is shared (null = not saved)
+    private RegistrationJournal studentJournal() {
+        return shard ? catalog.journal : journal;
+    }
+
+    //student number for the id, -1 if there is none (the same on every shard, see ShardedBackend)
+    synchronized int findStudentNumber(String id) {
+        return studentDatabase.find(id);
+    }
+
+    //false if it was given a data directory but couldn't use it and runs in memory only
+    synchronized boolean isPersistent() {
+        return journal != null;
+    }
+
+    //handle for the student with this id, null if there is none
+    //(safe from the worker threads too, the store is only written under the backend lock)
+    private Student findStudent(String id) {
+        int idx = studentDatabase.find(id);
+        return idx < 0 ? null : new Student(id, idx, studentDatabase);
+    }
+
+    private Student studentAt(int idx) {
+        return new Student(studentDatabase.id(idx), idx, studentDatabase);
+    }
+
+    //does NOT register the student, only puts them in "line" or queue
+    //validates inputs, then adds them to our custom queue RegistrationRequest
+    //returns false if the request was not queued
+    public boolean queueRequest(String studentId, String courseCode) {
+        return queueRequest(studentId, courseCode, RequestScheduler.PRIORITY_NORMAL);
+    }
+
+    //priority: RequestScheduler.PRIORITY_HIGH (e.g. seniors), PRIORITY_NORMAL or PRIORITY_LOW
+    //useless requests stop here instead of costing a slot and a processing step later:
+    //a course the student already has (or is waiting for) is answered straight away, and
+    //the same student + course queued again while the first one is still waiting is coalesced
+    //into it (returns true, the pending request stands for both)
+    //admission control: once the queue is at capacity, a queued request of a lower class is shed
+    //to make room, and if there is none the new request is refused
+    public synchronized boolean queueRequest(String studentId, String courseCode, int priority) {
+        long start = System.nanoTime();
+        Student student = findStudent(studentId);
+        if (student == null) {
+            metrics.rejected.increment();
+            logger.log("Error: Student ID {} not found.", studentId);
+            return false;
+        }
+        Course course = courseTree.search(courseCode);
+        if (course == null) {
+            metrics.rejected.increment();
+            logger.log("Error: Course {} not found.", courseCode);
+            return false;
+        }
+        if (priority < 0 || priority >= RequestScheduler.PRIORITY_CLASSES) {
+            metrics.rejected.increment();
+            logger.log("Error: Invalid priority {}.", priority);
+            return false;
+        }
+        if (enrollments.isEnrolled(student, course) || waitlists.isWaitlisted(student, course)) {
+            metrics.shortCircuited.increment();
+            logger.log("Not queued: {} is already {} {}.", studentId,
+                    enrollments.isEnrolled(student, course) ? "enrolled in" : "waitlisted for", course.code);
+            return false;
+        }
+        long key = pairKey(student, course);
+        if (pending.contains(key)) {
+            metrics.coalesced.increment();
+            logger.log("Already queued: {} -> {}", studentId, course.code);
+            metrics.queueLatency.record(System.nanoTime() - start);
+            return true;
+        }
+        if (!makeRoom(priority, studentId, courseCode)) return false;
+        RegistrationRequest req = new RegistrationRequest(studentId, course.code); //always the upper case code
+        req.seq = nextSeq++;
+        req.priority = priority;
+        req.queuedAt = start;
+        req.key = key;
+        requestQueue.offer(req);
+        pending.add(key);
+        queueChanged();
+        if (journal != null) journal.request(req.seq, studentId, course.code, priority);
+        logger.log("Request queued: {} -> {}", studentId, courseCode);
+        metrics.queued.increment();
+        metrics.queueLatency.record(System.nanoTime() - start);
+        return true;
+    }
+
+    //admission control for both kinds of request: true if there is room, shedding a queued request
+    //of a lower class if it has to, false (and the new request is refused) if there is none
+    private boolean makeRoom(int priority, String studentId, String courseCode) {
+        if (!requestQueue.isFull()) return true;
+        RegistrationRequest shed = requestQueue.shedFor(priority);
+        if (shed == null) {
+            metrics.refused.increment();
+            logger.log("Error: Queue is full ({} waiting), request {} -> {} refused.", requestQueue.size(), studentId, courseCode);
+            return false;
+        }
+        metrics.shed.increment();
+        if (shed.bundle == null) pending.remove(shed.key);
+        if (journal != null) journal.result(shed.seq, shed.studentId, shed.courseCode, Outcome.SHED.ordinal());
+        logger.log("Queue is full: dropped {} -> {} to make room.", shed.studentId, shed.bundle == null ? shed.courseCode : String.join(" + ", shed.bundle));
+        return true;
+    }
+
+    //several courses in one request, all or nothing: when its turn comes the student either gets a seat
+    //in every one of them or in none (e.g. a lecture and its lab), see registerBundle
+    //a full course fails the whole bundle, bundles never wait on a waitlist
+    //validated like queueRequest, except that bundles are never coalesced with anything;
+    //a bundle of one course is just a normal request
+    public boolean queueBundle(String studentId, List<String> courseCodes) {
+        return queueBundle(studentId, courseCodes, RequestScheduler.PRIORITY_NORMAL);
+    }
+
+    public synchronized boolean queueBundle(String studentId, List<String> courseCodes, int priority) {
+        long start = System.nanoTime();
+        Student student = findStudent(studentId);
+        if (student == null) {
+            metrics.rejected.increment();
+            logger.log("Error: Student ID {} not found.", studentId);
+            return false;
+        }
+        Set<Course> courses = new LinkedHashSet<>(); //the same course twice is the same seat
+        for (String code : courseCodes) {
+            Course course = courseTree.search(code);
+            if (course == null) {
+                metrics.rejected.increment();
+                logger.log("Error: Course {} not found.", code);
+                return false;
+            }
+            courses.add(course);
+        }
+        if (courses.isEmpty()) {
+            metrics.rejected.increment();
+            logger.log("Error: Bundle for {} has no courses.", studentId);
+            return false;
+        }
+        if (courses.size() == 1) return queueRequest(studentId, courses.iterator().next().code, priority);
+        if (priority < 0 || priority >= RequestScheduler.PRIORITY_CLASSES) {
+            metrics.rejected.increment();
+            logger.log("Error: Invalid priority {}.", priority);
+            return false;
+        }
+        List<String> codes = new ArrayList<>(courses.size()); //always the upper case codes
+        for (Course course : courses) {
+            if (enrollments.isEnrolled(student, course) || waitlists.isWaitlisted(student, course)) { //the bundle can't succeed
+                metrics.shortCircuited.increment();
+                logger.log("Not queued: {} is already {} {}.", studentId,
+                        enrollments.isEnrolled(student, course) ? "enrolled in" : "waitlisted for", course.code);
+                return false;
+            }
+            codes.add(course.code);
+        }
+        String label = String.join(" + ", codes);
+        if (!makeRoom(priority, studentId, label)) return false;
+        RegistrationRequest req = new RegistrationRequest(studentId, codes.get(0));
+        req.bundle = Collections.unmodifiableList(codes);
+        req.seq = nextSeq++;
+        req.priority = priority;
+        req.queuedAt = start;
+        req.key = bundleKey(student);
+        requestQueue.offer(req);
+        queueChanged();
+        if (journal != null) journal.bundleRequest(req.seq, studentId, codes, priority);
+        logger.log("Bundle queued: {} -> {}", studentId, label);
+        metrics.queued.increment();
+        metrics.queueLatency.record(System.nanoTime() - start);
+        return true;
+    }
+
+    //swaps the scheduling policy, whatever is waiting moves over in its current order
+    public synchronized void setScheduler(RequestScheduler scheduler) {
+        for (RegistrationRequest r : requestQueue.toList()) scheduler.restore(r);
+        requestQueue = scheduler;
+        queueChanged();
+    }
+
+
+    public synchronized void processQueue() {
+        if (requestQueue.isEmpty()) {
+            logger.log("Queue is empty. No actions taken.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        logger.log("\n--- PROCESSING BATCH ---");
+        processChunk(requestQueue.size(), 1);
+        logger.log("--- BATCH COMPLETE ---\n");
+        metrics.batchLatency.record(System.nanoTime() - start);
+    }
+
+    //same result as processQueue(), but the batch is split by course across worker threads
+    //every request for one course goes to the same worker in queue order, so each course
+    //still sees its requests FIFO and ends up exactly as the serial version would leave it
+    public synchronized void processQueueParallel(int workers) {
+        if (requestQueue.isEmpty()) {
+            logger.log("Queue is empty. No actions taken.");
+            return;
+        }
+        workers = Math.max(1, workers);
+
+        long start = System.nanoTime();
+        logger.log("\n--- PROCESSING BATCH ({} workers) ---", workers);
+        processChunk(requestQueue.size(), workers);
+        logger.log("--- BATCH COMPLETE ---\n");
+        metrics.batchLatency.record(System.nanoTime() - start);
+    }
+
+    //progress of a chunked batch, a new object is handed out after every chunk
+    static class BatchProgress {
+        final int total, processed, succeeded;
+        final boolean cancelled;
+        BatchProgress(int total, int processed, int succeeded, boolean cancelled) {
+            this.total = total; this.processed = processed; this.succeeded = succeeded; this.cancelled = cancelled;
+        }
+        int failed() { return processed - succeeded; }
+        boolean done() { return processed >= total; }
+    }
+
+    //meant to run on a background thread: processes as many requests as are queued right now,
+    //chunkSize at a time, and reports progress after each chunk
+    //the backend is only locked per chunk, so the UI can keep reading and queueing in between;
+    //requests queued meanwhile take their turn in the scheduler like any other, so a high priority
+    //one can still make it into this batch (the batch size stays the same)
+    //if cancelled, the rest simply stays queued (run again to resume)
+    //(the batch latency metric is the wall time of the whole call, pauses between chunks included)
+    public BatchProgress processQueueInChunks(int chunkSize, int workers, BooleanSupplier cancelled, Consumer<BatchProgress> progress) {
+        long start = System.nanoTime();
+        int total;
+        synchronized (this) {
+            total = requestQueue.size();
+            if (total == 0) {
+                logger.log("Queue is empty. No actions taken.");
+                return new BatchProgress(0, 0, 0, false);
+            }
+            logger.log("\n--- PROCESSING BATCH ({} requests) ---", total);
+        }
+        int processed = 0, succeeded = 0;
+        while (processed < total) {
+            if (cancelled.getAsBoolean()) {
+                logger.log("--- BATCH CANCELLED ({} requests left in queue) ---\n", total - processed);
+                BatchProgress p = new BatchProgress(total, processed, succeeded, true);
+                metrics.batchLatency.record(System.nanoTime() - start);
+                progress.accept(p);
+                return p;
+            }
+            int n = Math.min(chunkSize, total - processed);
+            synchronized (this) {
+                n = Math.min(n, requestQueue.size()); //another batch running at the same time may have taken some
+                if (n > 0) succeeded += processChunk(n, workers);
+            }
+            if (n == 0) { //nothing left for us, the other batch did the rest
+                total = processed;
+                break;
+            }
+            processed += n;
+            progress.accept(new BatchProgress(total, processed, succeeded, false));
+        }
+        logger.log("--- BATCH COMPLETE ---\n");
+        metrics.batchLatency.record(System.nanoTime() - start);
+        return new BatchProgress(total, processed, succeeded, false);
+    }
+
+    //takes the first n requests off the queue and registers them, returns how many succeeded
+    private int processChunk(int n, int workers) {
+        eligibility.refresh(); //no-op unless a course with prerequisites was added since the last chunk
+        Map<Course, Integer> seatsBefore = new HashMap<>(); //free seats of every course touched in this chunk
+        try {
+            return workers > 1 ? runParallel(n, workers, seatsBefore) : runSerial(n, seatsBefore);
+        } finally { //a journal that failed meanwhile throws from the next append, what got done still shows
+            updateSeatIndex(seatsBefore);
+            queueChanged();
+            commitBatch();
+            publish();
+        }
+    }
+
+    private int runSerial(int n, Map<Course, Integer> seatsBefore) {
+        int succeeded = 0;
+        for (int k = 0; k < n; k++) {
+            RegistrationRequest req = requestQueue.poll(); //dequeues element
+            metrics.queueWait.record(System.nanoTime() - req.queuedAt);
+            Student student = findStudent(req.studentId); //separates the *student* from the dequeued element
+            if (req.bundle != null) {
+                Course[] bundle = bundleCourses(req, courseTree::search);
+                for (Course c : bundle) seatsBefore.putIfAbsent(c, c.getAvailable());
+                long t0 = System.nanoTime();
+                Outcome outcome = registerBundle(student, bundle);
+                metrics.requestLatency.record(System.nanoTime() - t0);
+                if (finishBundle(req, student, bundle, outcome)) succeeded++;
+                continue;
+            }
+            pending.remove(req.key);
+            Course course = courseTree.search(req.courseCode); //separates the *course* from the dequeued element
+            seatsBefore.putIfAbsent(course, course.getAvailable());
+            long t0 = System.nanoTime();
+            Outcome outcome = register(student, course);
+            metrics.requestLatency.record(System.nanoTime() - t0);
+            metrics.outcome(outcome);
+            if (outcome == Outcome.SUCCESS) { markChanged(student, course); succeeded++; }
+            else if (outcome == Outcome.WAITLISTED) markChanged(student, course);
+            if (journal != null) journal.result(req.seq, req.studentId, req.courseCode, outcome.ordinal());
+            logger.log("Processing {} for {}... {}", student.name(), course.code, outcome.label);
+        }
+        return succeeded;
+    }
+
+    private int runParallel(int n, int workers, Map<Course, Integer> seatsBefore) {
+        //partition: one search per course instead of one per request
+        Map<String, Course> courses = new HashMap<>();
+        RegistrationRequest[] chunk = new RegistrationRequest[n];
+        //one student asking for two courses that meet at the same time: whichever is processed first wins,
+        //so those two courses are grouped onto the same worker, which sees both in queue order like serial does
+        //same for a student who could go over the credit limit with everything they ask for in this chunk:
+        //all their courses are grouped, so the ones that still fit are the ones serial would have let in
+        Map<Course, Course> grouped = new HashMap<>(); //union-find, course -> parent, roots aren't in it
+        Map<String, List<Course>> timedAsks = new HashMap<>(); //student -> courses with meeting times asked for
+        LongIntMap creditsAsked = new LongIntMap(n); //student number -> credits of every course asked for
+        for (int k = 0; k < n; k++) {
+            RegistrationRequest req = requestQueue.poll();
+            metrics.queueWait.record(System.nanoTime() - req.queuedAt);
+            chunk[k] = req;
+            if (req.bundle != null) { //its courses always go to one worker together, see registerBundle
+                Course[] bundle = bundleCourses(req, code -> courses.computeIfAbsent(code, courseTree::search));
+                for (Course course : bundle) {
+                    seatsBefore.putIfAbsent(course, course.getAvailable());
+                    union(grouped, bundle[0], course);
+                    askTimed(grouped, timedAsks, req.studentId, course);
+                    creditsAsked.add(req.key >>> 32, course.credits);
+                }
+                continue;
+            }
+            pending.remove(req.key);
+            Course course = courses.computeIfAbsent(req.courseCode, courseTree::search);
+            seatsBefore.putIfAbsent(course, course.getAvailable());
+            askTimed(grouped, timedAsks, req.studentId, course);
+            creditsAsked.add(req.key >>> 32, course.credits);
+        }
+        Map<Integer, Course> overLimit = new HashMap<>(); //student number -> first course they asked for
+        for (RegistrationRequest req : chunk) {
+            int s = (int) (req.key >>> 32);
+            if (load.credits(s) + creditsAsked.get(s, 0) <= creditLimit) continue; //everything fits, no order needed
+            Course first = overLimit.putIfAbsent(s, courses.get(req.courseCode));
+            if (first != null) union(grouped, first, courses.get(req.courseCode));
+        }
+        List<List<RegistrationRequest>> parts = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) parts.add(new ArrayList<>());
+        for (RegistrationRequest req : chunk) {
+            Course group = grouped.isEmpty() ? courses.get(req.courseCode) : root(grouped, courses.get(req.courseCode));
+            parts.get(Math.floorMod(group.code.hashCode(), workers)).add(req);
+        }
+
+        parts.removeIf(List::isEmpty);
+        ExecutorService pool = workerPool(workers);
+        List<Future<Outcome[]>> results = new ArrayList<>(parts.size());
+        for (List<RegistrationRequest> part : parts) {
+            results.add(pool.submit(() -> {
+                //outcomes are handed back so the logger and journal are only ever called from this thread
+                Outcome[] outcomes = new Outcome[part.size()];
+                for (int i = 0; i < outcomes.length; i++) {
+                    RegistrationRequest req = part.get(i);
+                    long t0 = System.nanoTime();
+                    outcomes[i] = req.bundle == null ? register(findStudent(req.studentId), courses.get(req.courseCode))
+                            : registerBundle(findStudent(req.studentId), bundleCourses(req, courses::get));
+                    metrics.requestLatency.record(System.nanoTime() - t0);
+                }
+                return outcomes;
+            }));
+        }
+
+        int succeeded = 0;
+        boolean interrupted = false;
+        for (int p = 0; p < parts.size(); p++) {
+            Outcome[] outcomes;
+            try {
+                outcomes = results.get(p).get();
+            } catch (InterruptedException e) {
+                interrupted = true; //the workers keep going anyway, so wait for them and record everything
+                p--;
+                continue;
+            } catch (ExecutionException e) {
+                logger.log("Error while processing batch: {}", e.getCause());
+                continue;
+            }
+            List<RegistrationRequest> part = parts.get(p);
+            for (int i = 0; i < outcomes.length; i++) {
+                RegistrationRequest req = part.get(i);
+                Student student = findStudent(req.studentId);
+                if (req.bundle != null) {
+                    if (finishBundle(req, student, bundleCourses(req, courses::get), outcomes[i])) succeeded++;
+                    continue;
+                }
+                metrics.outcome(outcomes[i]);
+                if (outcomes[i] == Outcome.SUCCESS) { markChanged(student, courses.get(req.courseCode)); succeeded++; }
+                else if (outcomes[i] == Outcome.WAITLISTED) markChanged(student, courses.get(req.courseCode));
+                if (journal != null) journal.result(req.seq, req.studentId, req.courseCode, outcomes[i].ordinal());
+                logger.log("Processing {} for {}... {}", student.name(), req.courseCode, outcomes[i].label);
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return succeeded;
+    }
+
+    //groups course with whatever else the student asked for earlier in the chunk that meets at the same time
+    private static void askTimed(Map<Course, Course> grouped, Map<String, List<Course>> timedAsks, String studentId, Course course) {
+        if (course.meets.isEmpty()) return;
+        List<Course> asked = timedAsks.computeIfAbsent(studentId, id -> new ArrayList<>(2));
+        for (Course other : asked) {
+            if (other != course && other.meets.overlaps(course.meets)) union(grouped, other, course);
+        }
+        asked.add(course);
+    }
+
+    private static Course root(Map<Course, Course> parent, Course c) {
+        for (Course p = parent.get(c); p != null; p = parent.get(c)) c = p;
+        return c;
+    }
+
+    private static void union(Map<Course, Course> parent, Course a, Course b) {
+        Course ra = root(parent, a), rb = root(parent, b);
+        if (ra != rb) parent.put(ra, rb);
+    }
+
+    //one long per (student, course), both numbers come from EnrollmentIndex
+    private static long pairKey(Student student, Course course) {
+        return (long) student.idx << 32 | course.idx;
+    }
+
+    //the same for a bundle: the student number on top like pairKey, no course number (never in pending)
+    private static long bundleKey(Student student) {
+        return (long) student.idx << 32 | 0xFFFFFFFFL;
+    }
+
+    private static Course[] bundleCourses(RegistrationRequest req, Function<String, Course> lookup) {
+        Course[] bundle = new Course[req.bundle.size()];
+        for (int i = 0; i < bundle.length; i++) bundle[i] = lookup.apply(req.bundle.get(i));
+        return bundle;
+    }
+
+    //metrics, changes, journal and log for a processed bundle, returns true if it succeeded
+    private boolean finishBundle(RegistrationRequest req, Student student, Course[] bundle, Outcome outcome) {
+        metrics.outcome(outcome);
+        if (outcome == Outcome.SUCCESS) for (Course c : bundle) markChanged(student, c);
+        if (journal != null) journal.result(req.seq, req.studentId, req.courseCode, outcome.ordinal());
+        logger.log("Processing {} for {}... {}", student.name(), String.join(" + ", req.bundle), outcome.label);
+        return outcome == Outcome.SUCCESS;
+    }
+
+    private void markChanged(Student student, Course course) {
+        unpublishedStudents.set(student.idx);
+        unpublishedCourses.set(course.idx);
+    }
+
+    //makes everything changed since the last version visible to snapshot() readers as one new version
+    //only the changed courses and students are rebuilt, the rest is shared with the previous version
+    //(called at the end of every change, always under the backend lock)
+    private void publish() {
+        RegistrationSnapshot last = published;
+        PersistentArray<RegistrationSnapshot.CourseState> courses = last.courses.update(enrollments.courseTotal(),
+                unpublishedCourses, c -> {
+                    Course course = enrollments.courseAt(c);
+                    return new RegistrationSnapshot.CourseState(course, waitlists.line(course));
+                });
+        PersistentArray<RegistrationSnapshot.Holdings> holdings = last.holdings.update(studentDatabase.size(),
+                unpublishedStudents, s -> {
+                    int[] enrolled = enrollments.courseNumbers(s), waiting = waitlists.coursesOf(s);
+                    return enrolled.length == 0 && waiting.length == 0 ? null : new RegistrationSnapshot.Holdings(enrolled, waiting);
+                });
+        unpublishedCourses.clear();
+        unpublishedStudents.clear();
+        published = new RegistrationSnapshot(last.getVersion() + 1, courses, holdings, courseNumbers,
+                studentDatabase.frozen(last.students), last);
+    }
+
+    //the latest committed state, without locking or waiting for a batch to finish
+    //it never changes afterwards, take a new one to see newer changes
+    public RegistrationSnapshot snapshot() {
+        return published;
+    }
+
+    //moves each touched course to its new free-seats bucket once per batch,
+    //always on the calling thread so the index never needs locking
+    private void updateSeatIndex(Map<Course, Integer> seatsBefore) {
+        for (Map.Entry<Course, Integer> e : seatsBefore.entrySet()) {
+            seatIndex.update(e.getKey(), e.getValue());
+        }
+    }
+
+    //the actual registration step, shared by both processing modes
+    //seats: a course is only ever handled by one worker, so enrolled++ has a single writer
+    //student: different workers can touch the same student (different courses),
+    //so the duplicate check + add happen under that student's lock stripe
+    //(the roster and the waitlist are per course, so they have a single writer like the seat count)
+    //a full course puts the student on its waitlist instead, as long as the waitlist has room
+    //a student who couldn't take the course anyway (see blocked) is refused either way
+    private Outcome register(Student student, Course course) {
+        if (course.isFull()) {
+            synchronized (lockFor(student)) {
+                if (enrollments.isEnrolled(student, course)) return Outcome.ALREADY_ENROLLED;
+                if (waitlists.isWaitlisted(student, course)) return Outcome.ALREADY_WAITLISTED;
+                Outcome blocked = blocked(student, course);
+                if (blocked != null) return blocked;
+                return waitlists.offer(student, course, waitlistLimit) ? Outcome.WAITLISTED : Outcome.FULL;
+            }
+        }
+        synchronized (lockFor(student)) {
+            Outcome blocked = blocked(student, course);
+            if (blocked != null) { //a course clashes with itself too
+                return enrollments.isEnrolled(student, course) ? Outcome.ALREADY_ENROLLED : blocked;
+            }
+            if (!enrollments.enroll(student, course)) { //adds to the student's courses and the roster
+                return Outcome.ALREADY_ENROLLED;
+            }
+            load.take(student, course);
+        }
+        course.enrolled++; //student enrolled, hence one less space in the course
+        return Outcome.SUCCESS;
+    }
+
+    //all or nothing: every course of the bundle is checked first and seats are only taken once all of
+    //them have room and nothing blocks any of them (clashes and credits count the bundle's own courses
+    //too), so a failed bundle never held a seat somebody else could have had, nothing to give back
+    //no seat can go in between the checks and the enrolling: every course of a bundle is handled by the
+    //same worker (runParallel groups them), which is the only one changing their seat counts, and the
+    //student's lock stripe is the only lock taken, so there is no lock order that could deadlock
+    private Outcome registerBundle(Student student, Course[] bundle) {
+        synchronized (lockFor(student)) {
+            int credits = load.credits(student.idx);
+            for (int i = 0; i < bundle.length; i++) {
+                Course course = bundle[i];
+                if (enrollments.isEnrolled(student, course)) return Outcome.ALREADY_ENROLLED;
+                if (course.isFull()) return Outcome.FULL;
+                Outcome blocked = blocked(student, course);
+                if (blocked != null) return blocked;
+                for (int j = 0; j < i; j++) if (bundle[j].meets.overlaps(course.meets)) return Outcome.TIME_CONFLICT;
+                credits += course.credits;
+            }
+            if (credits > creditLimit) return Outcome.CREDIT_LIMIT;
+            for (Course course : bundle) {
+                enrollments.enroll(student, course);
+                load.take(student, course);
+            }
+        }
+        for (Course course : bundle) course.enrolled++;
+        return Outcome.SUCCESS;
+    }
+
+    //why the student can't take the course right now, null if nothing stands in the way
+    //all three are lookups in precomputed bitmaps/totals: 7 ANDs for the timetable, one AND per 64
+    //prerequisite courses for the whole prerequisite chain, one add for the credits
+    //(caller holds the student's lock stripe)
+    private Outcome blocked(Student student, Course course) {
+        if (load.conflicts(student, course)) return Outcome.TIME_CONFLICT;
+        if (!eligibility.hasPrerequisites(student, course)) return Outcome.MISSING_PREREQUISITE;
+        if (load.credits(student.idx) + course.credits > creditLimit) return Outcome.CREDIT_LIMIT;
+        return null;
+    }
+
+    private Object lockFor(Student student) {
+        return catalog.studentLocks[Math.floorMod(student.idx, catalog.studentLocks.length)];
+    }
+
+    // --- DROPS & WAITLISTS ---
+
+    //takes the student out of the course, or out of its waitlist if they were only waiting
+    //a freed seat goes straight to the front of the waitlist, no re-queueing or queue scan involved
+    public synchronized boolean dropCourse(String studentId, String courseCode) {
+        Student student = findStudent(studentId);
+        if (student == null) {
+            logger.log("Error: Student ID {} not found.", studentId);
+            return false;
+        }
+        Course course = courseTree.search(courseCode);
+        if (course == null) {
+            logger.log("Error: Course {} not found.", courseCode);
+            return false;
+        }
+        boolean enrolled = enrollments.isEnrolled(student, course);
+        if (!enrolled && !waitlists.isWaitlisted(student, course)) {
+            logger.log("Error: {} is not registered or waitlisted for {}.", studentId, course.code);
+            return false;
+        }
+
+        Student promoted = applyDrop(student, course, null);
+        if (journal != null) journal.drop(studentId, course.code, promoted == null ? "" : promoted.id);
+        publish();
+        if (enrolled) {
+            metrics.drops.increment();
+            logger.log("Dropped: {} from {}", studentId, course.code);
+        } else {
+            logger.log("Left waitlist: {} for {}", studentId, course.code);
+        }
+        if (promoted != null) {
+            metrics.promotions.increment();
+            logger.log("Promoted from waitlist: {} -> {}", promoted.id, course.code);
+        }
+        return true;
+    }
+
+    //shared by dropCourse and journal replay, returns the student who got the freed seat (or null)
+    //(loads are only touched under the student's stripe: on a shard, other shards may be processing right now)
+    //promotedId: null = decide who gets the seat now; replay passes who got it live ("" = nobody), since the
+    //state it was decided on may not be back yet (a shard replays before the other shards have)
+    private Student applyDrop(Student student, Course course, String promotedId) {
+        eligibility.refresh();
+        if (waitlists.remove(student, course)) { //was only waiting
+            markChanged(student, course);
+            return null;
+        }
+        if (!enrollments.unenroll(student, course)) return null;
+        synchronized (lockFor(student)) {
+            load.release(student, course);
+        }
+        int seatsBefore = course.getAvailable();
+        course.enrolled--;
+        markChanged(student, course);
+        Student next = null;
+        if (!course.isFull()) {
+            //whoever can't take it anymore (enrolled in something at the same time while waiting,
+            //or up to the credit limit now) loses their spot to the next in line
+            while (next == null) {
+                int s = waitlists.poll(course);
+                if (s < 0) break;
+                Student candidate = studentAt(s);
+                markChanged(candidate, course);
+                synchronized (lockFor(candidate)) {
+                    if (promotedId == null ? blocked(candidate, course) != null : !candidate.id.equals(promotedId)) continue;
+                    enrollments.enroll(candidate, course);
+                    load.take(candidate, course);
+                }
+                next = candidate;
+                course.enrolled++;
+            }
+        }
+        seatIndex.update(course, seatsBefore);
+        return next;
+    }
+
+    //caps every course's waitlist at limit students from now on (0 turns waitlisting off)
+    //students already waiting keep their spot
+    public synchronized void setWaitlistLimit(int limit) {
+        waitlistLimit = Math.max(0, limit);
+    }
+
+    // --- PREREQUISITES & CREDITS ---
+
+    //most credits a student can be enrolled in at once, from the next processed request on
+    //(nobody is dropped for being over a lower limit, they just can't add more)
+    public synchronized void setCreditLimit(int credits) {
+        creditLimit = Math.max(0, credits);
+        if (journal != null) journal.creditLimit(creditLimit); //promotions on replay have to see the same limit
+    }
+
+    public synchronized int getCreditLimit() {
+        return creditLimit;
+    }
+
+    //records a course the student passed in an earlier term, it counts for prerequisites
+    //(not for the credit load, that's only what they're enrolled in now)
+    //returns false for an unknown student or course, or if it was recorded already
+    public synchronized boolean addCompletedCourse(String studentId, String courseCode) {
+        Student student = findStudent(studentId);
+        if (student == null) {
+            logger.log("Error: Student ID {} not found.", studentId);
+            return false;
+        }
+        Course course = courseTree.search(courseCode);
+        if (course == null) {
+            logger.log("Error: Course {} not found.", courseCode);
+            return false;
+        }
+        if (!eligibility.complete(student, course)) {
+            logger.log("Error: {} already completed {}.", studentId, course.code);
+            return false;
+        }
+        if (studentJournal() != null) studentJournal().completed(studentId, course.code);
+        logger.log("Completed: {} passed {}", studentId, course.code);
+        return true;
+    }
+
+    //codes of the courses the student passed before, sorted
+    public synchronized List<String> getCompletedCourses(Student s) {
+        return catalog.codes(eligibility.completedNumbers(s.idx));
+    }
+
+    //credits the student is enrolled in right now
+    public synchronized int getCreditLoad(Student s) {
+        return load.credits(s.idx);
+    }
+
+    //1 = next in line, 0 = not waitlisted (or unknown student/course)
+    public synchronized int getWaitlistPosition(String studentId, String courseCode) {
+        Student student = findStudent(studentId);
+        Course course = student == null ? null : courseTree.search(courseCode);
+        return course == null ? 0 : waitlists.position(student, course);
+    }
+
+    public synchronized int getWaitlistSize(String courseCode) {
+        Course course = courseTree.search(courseCode);
+        return course == null ? 0 : waitlists.size(course);
+    }
+
+    //ids of everyone waiting for the course in line order, or null if the course doesn't exist
+    public synchronized List<String> getWaitlist(String courseCode) {
+        Course course = courseTree.search(courseCode);
+        return course == null ? null : waitlistIds(course);
+    }
+
+    //codes of the courses the student is waiting for, sorted
+    public synchronized List<String> getWaitlistedCourses(Student s) {
+        return codesOf(waitlists.coursesOf(s.idx));
+    }
+
+    private List<String> waitlistIds(Course course) {
+        int[] line = waitlists.line(course);
+        List<String> ids = new ArrayList<>(line.length);
+        for (int s : line) ids.add(studentDatabase.id(s));
+        return ids;
+    }
+
+    //worker threads are created once and reused between batches
+    private ExecutorService workerPool(int workers) {
+        if (workerPool == null || poolSize != workers) {
+            if (workerPool != null) workerPool.shutdown();
+            workerPool = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "registration-worker");
+                t.setDaemon(true); //don't keep the JVM alive after the window closes
+                return t;
+            });
+            poolSize = workers;
+        }
+        return workerPool;
+    }
+
+    //GETTERS
+
+    //counters and latency histograms, see RegistrationMetrics
+    public RegistrationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public synchronized List<Course> getAllCourses(int sortMode) {
+        switch (sortMode) {
+            case 2: return creditIndex.toList(); //already kept in credit hour order
+            case 3: return seatIndex.toList(); //already kept in availability order: cap - enrolled
+            default: return courseTree.toList(); //default, returns the list sorted by course code
+        }
+    }
+
+    //the k courses with the most free seats, without touching the rest of the catalog
+    public synchronized List<Course> getMostAvailable(int k) {
+        return seatIndex.top(k);
+    }
+
+    // --- BULK IMPORT ---
+    //CSV files are streamed line by line, every line is validated and deduplicated in the same pass
+    //and a single summary is logged instead of one message per record
+
+    //format: code,name,credits,capacity[,meets[,prerequisites]] (a header line is skipped automatically)
+    //meets is optional, e.g. "MW 09:00-10:15; F 13:00-14:00" (quoted if it has commas)
+    //prerequisites: codes separated by spaces, each already in the catalog or on an earlier line
+    public synchronized String importCourses(Path csv) throws IOException {
+        long start = System.nanoTime();
+        String summary = importSummary("courses", importCourses(csv, code -> true, catalog.courseCount()), csv, start);
+        logger.log("{}", summary);
+        return summary;
+    }
+
+    //imports only the lines whose code owned accepts, the others are still read so prerequisites
+    //can point at them (a ShardedBackend has every shard go through the file, see Catalog.prerequisites)
+    //known: catalog courses from before the import, later ones came from this file through another shard
+    //returns {added, duplicates, invalid lines} of the owned lines
+    synchronized int[] importCourses(Path csv, Predicate<String> owned, int known) throws IOException {
+        Predicate<String> inCatalog = code -> {
+            Course c = catalog.find(code);
+            return c != null && c.number < known;
+        };
+        List<Course> added = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Map<Course, List<String>> needs = new HashMap<>(); //linked once every course has its number
+        int[] dupes = {0}, invalid = {0};
+        boolean[] sorted = {true};
+
+        CsvReader.forEachRow(csv, (lineNo, f) -> {
+            boolean mine = owned.test(f.isEmpty() ? "" : f.get(0));
+            Course c;
+            try {
+                if (f.size() < 4 || f.get(0).isEmpty()) throw new NumberFormatException();
+                c = new Course(f.get(0), f.get(1), Integer.parseInt(f.get(2)), Integer.parseInt(f.get(3)),
+                        MeetingTimes.parse(f.size() > 4 ? f.get(4) : null));
+            } catch (IllegalArgumentException e) { //bad numbers or meeting times
+                if (lineNo > 1 && mine) invalid[0]++; //first line is allowed to be a header
+                return;
+            }
+            if (!RegistrationJournal.fits(c.code, c.name)) { if (mine) invalid[0]++; return; }
+            List<String> prerequisites = f.size() > 5 && !f.get(5).isBlank()
+                    ? List.of(f.get(5).trim().toUpperCase().split("\\s+")) : List.of();
+            for (String p : prerequisites) {
+                if (!seen.contains(p) && !inCatalog.test(p)) { if (mine) invalid[0]++; return; }
+            }
+            if (!seen.add(c.code) || inCatalog.test(c.code)) { if (mine) dupes[0]++; return; }
+            if (!mine) return;
+            if (!prerequisites.isEmpty()) needs.put(c, prerequisites);
+            if (!added.isEmpty() && added.get(added.size() - 1).compareTo(c) > 0) sorted[0] = false;
+            added.add(c);
+        });
+
+        if (!added.isEmpty()) {
+            if (!sorted[0]) added.sort(null); //unsorted file: one sort, still no per-insert rebalancing
+            //merge with whatever is already in the catalog, then build the tree in one go
+            List<Course> all = mergeSorted(courseTree.toList(), added);
+            courseTree.buildFromSorted(all);
+            for (Course c : added) {
+                indexCourse(c);
+                if (journal != null) journal.addCourse(c.code, c.name, c.credits, c.capacity, c.meets.toString());
+            }
+            for (Map.Entry<Course, List<String>> e : needs.entrySet()) {
+                catalog.prerequisites(e.getKey(), e.getValue());
+                if (journal != null) journal.prerequisites(e.getKey().code, e.getKey().prerequisites);
+            }
+            commitBatch();
+            publish();
+        }
+        return new int[] {added.size(), dupes[0], invalid[0]};
+    }
+
+    //counts: {added, duplicates, invalid lines}
+    static String importSummary(String what, int[] counts, Path csv, long start) {
+        return "Imported " + counts[0] + " " + what + " from " + csv.getFileName()
+                + " (" + counts[1] + " duplicates, " + counts[2] + " invalid lines skipped) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms";
+    }
+
+    private static List<Course> mergeSorted(List<Course> a, List<Course> b) {
+        if (a.isEmpty()) return b;
+        List<Course> out = new ArrayList<>(a.size() + b.size());
+        int i = 0, j = 0;
+        while (i < a.size() && j < b.size()) out.add(a.get(i).compareTo(b.get(j)) <= 0 ? a.get(i++) : b.get(j++));
+        while (i < a.size()) out.add(a.get(i++));
+        while (j < b.size()) out.add(b.get(j++));
+        return out;
+    }
+
+    //format: id,name (a header line is skipped automatically)
+    public synchronized String importStudents(Path csv) throws IOException {
+        long start = System.nanoTime();
+        //grow the store once up front instead of over and over while 200k students go in
+        studentDatabase.ensureCapacity(studentDatabase.size() + CsvReader.estimateRows(csv));
+        int[] added = {0}, dupes = {0}, invalid = {0};
+
+        CsvReader.forEachRow(csv, (lineNo, f) -> {
+            if (f.size() < 2 || f.get(0).isEmpty() || f.get(1).isEmpty()) { invalid[0]++; return; }
+            if (lineNo == 1 && !f.get(0).matches(".*\\d.*")) return; //header, real ids always have digits
+            String id = f.get(0), name = f.get(1);
+            if (!RegistrationJournal.fits(id, name)) { invalid[0]++; return; }
+            if (!insertStudent(id, name)) { dupes[0]++; return; }
+            if (studentJournal() != null) studentJournal().addStudent(id, name);
+            added[0]++;
+        });
+
+        if (added[0] > 0) {
+            commitBatch();
+            publish();
+        }
+        String summary = importSummary("students", new int[] {added[0], dupes[0], invalid[0]}, csv, start);
+        logger.log("{}", summary);
+        return summary;
+    }
+
+    //e.g. getCoursesByPrefix("CSC2") -> all CSC2xx courses, without walking the whole catalog
+    public synchronized List<Course> getCoursesByPrefix(String prefix) {
+        return courseTree.prefix(prefix);
+    }
+
+    //courses with from <= code < to in code order, null = no bound on that side
+    //e.g. getCoursesInRange("CSC2", "CSC3") -> the CSC2xx block, only the nodes in it are visited
+    public synchronized List<Course> getCoursesInRange(String from, String to) {
+        return courseTree.range(from, to);
+    }
+
+    //what the catalog search box shows: codes starting with the query first, then names containing it
+    //(every word of it, in any order), best limit matches in order, see CourseSearchIndex
+    public synchronized List<Course> searchCourses(String query, int limit) {
+        return search.search(query, limit);
+    }
+
+    public synchronized List<String> getRegisteredCourses(Student s) {
+        return enrollments.coursesOf(s);
+    }
+
+    //everyone enrolled in a course, or null if the course doesn't exist
+    public synchronized List<Student> getRoster(String courseCode) {
+        Course course = courseTree.search(courseCode);
+        if (course == null) return null;
+        List<Student> roster = new ArrayList<>();
+        for (int s : enrollments.roster(course)) roster.add(studentAt(s));
+        return roster;
+    }
+
+    //copies everyone, prefer getStudentsPage / getStudentsSorted for anything big
+    public synchronized List<Student> getAllStudents() {
+        return getStudentsPage(0, studentDatabase.size());
+    }
+
+    //up to limit students starting at number offset, in the order they were added
+    //(for paging through a big directory without copying all of it)
+    public synchronized List<Student> getStudentsPage(int offset, int limit) {
+        int end = (int) Math.min(studentDatabase.size(), Math.max(0, offset) + (long) Math.max(0, limit));
+        List<Student> page = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = Math.max(0, offset); i < end; i++) page.add(studentAt(i));
+        return page;
+    }
+
+    //same, but in student id order (the order is kept up to date lazily, see StudentStore)
+    public synchronized List<Student> getStudentsSorted(int offset, int limit) {
+        int end = (int) Math.min(studentDatabase.size(), Math.max(0, offset) + (long) Math.max(0, limit));
+        List<Student> page = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = Math.max(0, offset); i < end; i++) page.add(studentAt(studentDatabase.sortedAt(i)));
+        return page;
+    }
+
+    public synchronized List<RegistrationRequest> getQueue() {
+        return requestQueue.toList(); //in processing order
+    }
+
+    //both lock-free, as of the last change to the queue
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public long getQueueVersion() {
+        return queueVersion;
+    }
+
+    private void queueChanged() {
+        queueVersion++;
+        queueSize = requestQueue.size();
+    }
+
+    // --- LIVE VIEWS ---
+    //read straight from the backend under its lock; the window reads the same things from snapshot() instead
+
+    public synchronized int getCourseCount() {
+        return enrollments.courseTotal();
+    }
+
+    //students in the order they were added, index = Student.idx
+    public synchronized int getStudentCount() {
+        return studentDatabase.size();
+    }
+
+    public synchronized Student getStudentAt(int idx) {
+        return studentAt(idx);
+    }
+
+    //the student at position pos in id order, and where a student (by Student.idx) is in that order
+    public synchronized Student getStudentSortedAt(int pos) {
+        return studentAt(studentDatabase.sortedAt(pos));
+    }
+
+    public synchronized int getStudentSortedPosition(int idx) {
+        return studentDatabase.rankOf(idx);
+    }
+}
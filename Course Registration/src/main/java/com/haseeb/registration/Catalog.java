@@ -0,0 +1,195 @@
+package com.haseeb.registration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+//what every engine reading it sees the same: the students, what each of them carries (StudentLoad, with
+//the lock stripes guarding it), every course's catalog number and the prerequisite graph with everyone's
+//completed courses (EligibilityIndex)
+//
+//a plain BackendSystem has one of its own. The shards of a ShardedBackend share one, so a student is
+//stored once and has one number everywhere, and a course can need courses that live on other shards,
+//while each shard only indexes the courses it owns (seats, rosters, waitlists...)
+//
+//courses get a catalog number here (Course.number) next to the owning engine's Course.idx, the
+//prerequisite graph goes by catalog number
+//
+//threading: shards only read it. ShardedBackend changes it only while it holds every shard's lock,
+//and rebuilds the prerequisite closures before letting go, so a shard never has to (see EligibilityIndex)
+class Catalog {
+    final StudentStore students = new StudentStore(); //packed ids, names in one byte arena
+    final StudentLoad load = new StudentLoad();
+    final EligibilityIndex eligibility = new EligibilityIndex();
+    final Object[] studentLocks = new Object[64]; //striped locks for student updates (and their load)
+    private final List<Course> courses = new ArrayList<>(); //by Course.number, each one the owning engine's
+    private final Map<String, Course> byCode = new HashMap<>();
+    private final List<BooleanSupplier> unresolved = new ArrayList<>(); //replayed links to courses not loaded yet, true once made
+    RegistrationJournal journal; //students and completed courses of a ShardedBackend, null = not saved
+
+    Catalog() {
+        for (int i = 0; i < studentLocks.length; i++) studentLocks[i] = new Object();
+    }
+
+    //student number of the new student, or -1 if the id is taken
+    int addStudent(String id, String name) {
+        int idx = students.add(id, name);
+        if (idx < 0) return -1;
+        Student s = new Student(id, idx, students);
+        load.addStudent(s);
+        eligibility.addStudent(s);
+        return idx;
+    }
+
+    //the course was just added to its engine (it has its idx there)
+    void addCourse(Course c) {
+        c.number = courses.size();
+        courses.add(c);
+        byCode.put(c.code, c);
+        eligibility.addCourse(c);
+    }
+
+    //the course with this code on whichever engine has it, null if there is none
+    Course find(String code) {
+        return byCode.get(code.toUpperCase());
+    }
+
+    //the courses behind these codes, each once, or null if one of them isn't in the catalog
+    List<Course> findAll(List<String> codes) {
+        List<Course> out = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            Course c = find(code);
+            if (c == null) return null;
+            if (!out.contains(c)) out.add(c);
+        }
+        return out;
+    }
+
+    int courseCount() {
+        return courses.size();
+    }
+
+    String code(int number) {
+        return courses.get(number).code;
+    }
+
+    //course codes for catalog numbers, sorted
+    List<String> codes(int[] numbers) {
+        List<String> l = new ArrayList<>(numbers.length);
+        for (int c : numbers) l.add(code(c));
+        l.sort(null);
+        return l;
+    }
+
+    //the closures are rebuilt lazily, see EligibilityIndex.refresh
+    void link(Course course, List<Course> needs) {
+        if (needs.isEmpty()) return;
+        List<String> codes = new ArrayList<>(needs.size());
+        int[] numbers = new int[needs.size()];
+        for (int i = 0; i < numbers.length; i++) {
+            codes.add(needs.get(i).code);
+            numbers[i] = needs.get(i).number;
+        }
+        course.prerequisites = List.copyOf(codes);
+        eligibility.setPrerequisites(course, numbers);
+    }
+
+    // --- REPLAY ---
+    //a shard replays its own journal before the shards after it have loaded their courses, so links to
+    //courses that aren't there yet wait for resolve()
+
+    //the course shows its prerequisites straight away, the graph gets them once they're all loaded
+    void prerequisites(Course course, List<String> codes) {
+        course.prerequisites = List.copyOf(new LinkedHashSet<>(codes));
+        if (!tryLink(course, codes)) unresolved.add(() -> tryLink(course, codes));
+    }
+
+    void completed(String studentId, String courseCode) {
+        if (!tryComplete(studentId, courseCode)) unresolved.add(() -> tryComplete(studentId, courseCode));
+    }
+
+    private boolean tryLink(Course course, List<String> codes) {
+        List<Course> needs = findAll(codes);
+        if (needs == null) return false;
+        link(course, needs);
+        return true;
+    }
+
+    private boolean tryComplete(String studentId, String courseCode) {
+        int idx = students.find(studentId);
+        Course course = find(courseCode);
+        if (course == null) return false;
+        if (idx >= 0) eligibility.complete(new Student(studentId, idx, students), course);
+        return true; //an unknown student never shows up later
+    }
+
+    //links whatever can be linked now, the rest keeps waiting (a course that never comes is dropped
+    //along with the catalog)
+    void resolve() {
+        unresolved.removeIf(BooleanSupplier::getAsBoolean);
+        eligibility.refresh();
+    }
+
+    // --- SAVING (ShardedBackend only, a plain BackendSystem journals all of this itself) ---
+
+    //loads the students and completed courses saved in dir and journals them there from now on
+    //returns false (and stays in memory) if the saved data can't be read
+    boolean open(Path dir, LogSink logger, RegistrationMetrics metrics) {
+        try {
+            journal = new RegistrationJournal(dir, e -> {
+                metrics.journalFailures.increment();
+                logger.log("Error: could not write to journal in {}, no student changes are saved from now on ({})", dir, e);
+            });
+            journal.recover(new RegistrationJournal.Replay() {
+                public void student(String id, String name) { addStudent(id, name); }
+                public void completed(String studentId, String courseCode) { Catalog.this.completed(studentId, courseCode); }
+                //everything else is journaled by the shard owning the course
+                public void course(String code, String name, int credits, int capacity, String meets) { }
+                public void enrollment(String studentId, String courseCode) { }
+                public void request(long seq, String studentId, String courseCode, int priority) { }
+                public void bundleRequest(long seq, String studentId, List<String> courseCodes, int priority) { }
+                public void result(long seq, String studentId, String courseCode, int outcome) { }
+                public void drop(String studentId, String courseCode, String promotedId) { }
+                public void waitlisted(String courseCode, String studentId) { }
+                public void prerequisites(String courseCode, List<String> prerequisiteCodes) { }
+                public void creditLimit(int credits) { }
+            });
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.log("Error: could not load saved students from {} ({}).", dir, e.getMessage());
+            journal = null;
+            return false;
+        }
+    }
+
+    //takes a snapshot once enough has been journaled (the journal's flusher takes care of the rest)
+    void commit(LogSink logger) {
+        if (journal == null || !journal.snapshotDue()) return;
+        try {
+            journal.snapshot(out -> {
+                for (int i = 0; i < students.size(); i++) {
+                    String id = students.id(i);
+                    out.student(id, students.name(i), List.of());
+                    int[] passed = eligibility.completedNumbers(i);
+                    if (passed.length > 0) out.completed(id, codes(passed));
+                }
+            });
+        } catch (IOException e) {
+            logger.log("Error: could not save students ({})", e.getMessage());
+        }
+    }
+
+    void close(LogSink logger) {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.log("Error: could not close journal ({})", e.getMessage());
+        }
+    }
+}
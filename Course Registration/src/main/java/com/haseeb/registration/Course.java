@@ -0,0 +1,32 @@
+package com.haseeb.registration;
+
+import java.util.List;
+
+//comparable interfaces allow us to specify our own rule to sort objects
+//crucial for binary search logic, because it defines the natural order for selection
+class Course implements Comparable<Course> {
+    String code, name;
+    int credits, capacity, enrolled;
+    int idx = -1; //dense number handed out by EnrollmentIndex
+    int number = -1; //catalog number handed out by Catalog, the prerequisite graph's (idx is per shard)
+    MeetingTimes meets = MeetingTimes.NONE; //weekly slots, students can't take two courses that overlap
+    List<String> prerequisites = List.of(); //codes of the courses to pass first (directly), see EligibilityIndex
+
+    public Course(String code, String name, int credits, int capacity) {
+        this.code = code.toUpperCase();
+        this.name = name;
+        this.credits = credits;
+        this.capacity = capacity;
+        this.enrolled = 0;
+    }
+
+    Course(String code, String name, int credits, int capacity, MeetingTimes meets) {
+        this(code, name, credits, capacity);
+        this.meets = meets;
+    }
+    public int getAvailable() { return capacity - enrolled; }
+    public boolean isFull() { return enrolled >= capacity; }
+    //compares the course code of the courses
+    @Override public int compareTo(Course o) { return this.code.compareTo(o.code); }
+    @Override public String toString() { return code + ": " + name; }
+}
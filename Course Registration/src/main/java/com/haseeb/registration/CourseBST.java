@@ -0,0 +1,187 @@
+package com.haseeb.registration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Main data structure
+//self balancing (red-black) version of the BST, so inserting courses in code order
+//(CSC101, CSC102, ...) no longer turns the tree into a linked list
+//every operation is a loop instead of recursion, so big catalogs can't overflow the stack
+class CourseBST {
+    static final boolean RED = true, BLACK = false;
+
+    class Node {
+        Course course;
+        Node left, right, parent;
+        boolean color = RED; //new nodes always start red
+        Node(Course c, Node parent) {
+            this.course = c;
+            this.parent = parent;
+        }
+    }
+    Node root;
+    private int size;
+
+    int size() { return size; }
+
+    //returns false if the code is already in the tree (tree is left untouched)
+    boolean insert(Course c) {
+        Node parent = null, cur = root;
+        int cmp = 0;
+        while (cur != null) { //walk down to the empty spot
+            parent = cur;
+            cmp = c.compareTo(cur.course);
+            if (cmp < 0) cur = cur.left;
+            else if (cmp > 0) cur = cur.right;
+            else return false; //duplicate
+        }
+        Node n = new Node(c, parent);
+        if (parent == null) root = n;
+        else if (cmp < 0) parent.left = n;
+        else parent.right = n;
+        size++;
+        fixAfterInsert(n);
+        return true;
+    }
+
+    //recolors / rotates upwards until no red node has a red parent
+    private void fixAfterInsert(Node x) {
+        while (x != root && x.parent.color == RED) {
+            Node p = x.parent, g = p.parent;
+            if (p == g.left) {
+                Node uncle = g.right;
+                if (uncle != null && uncle.color == RED) { //case 1: just recolor and move up
+                    p.color = BLACK; uncle.color = BLACK; g.color = RED;
+                    x = g;
+                } else {
+                    if (x == p.right) { x = p; rotateLeft(x); p = x.parent; } //case 2: straighten the zig-zag
+                    p.color = BLACK; g.color = RED; //case 3
+                    rotateRight(g);
+                }
+            } else { //mirror image of the above
+                Node uncle = g.left;
+                if (uncle != null && uncle.color == RED) {
+                    p.color = BLACK; uncle.color = BLACK; g.color = RED;
+                    x = g;
+                } else {
+                    if (x == p.left) { x = p; rotateRight(x); p = x.parent; }
+                    p.color = BLACK; g.color = RED;
+                    rotateLeft(g);
+                }
+            }
+        }
+        root.color = BLACK;
+    }
+
+    private void rotateLeft(Node x) {
+        Node y = x.right;
+        x.right = y.left;
+        if (y.left != null) y.left.parent = x;
+        y.parent = x.parent;
+        if (x.parent == null) root = y;
+        else if (x == x.parent.left) x.parent.left = y;
+        else x.parent.right = y;
+        y.left = x;
+        x.parent = y;
+    }
+
+    private void rotateRight(Node x) {
+        Node y = x.left;
+        x.left = y.right;
+        if (y.right != null) y.right.parent = x;
+        y.parent = x.parent;
+        if (x.parent == null) root = y;
+        else if (x == x.parent.right) x.parent.right = y;
+        else x.parent.left = y;
+        y.right = x;
+        x.parent = y;
+    }
+
+    //replaces the whole tree with the given courses in O(n), no rotations needed
+    //courses must already be sorted by code with no duplicates
+    //the tree comes out perfectly balanced: every level full and black except the last, which is red
+    //(recursion depth is only log n here, so it's safe even for huge catalogs)
+    void buildFromSorted(List<Course> sorted) {
+        size = sorted.size();
+        int redLevel = 31 - Integer.numberOfLeadingZeros(size + 1); //depth of the partially filled level
+        root = build(sorted, 0, size - 1, 0, redLevel, null);
+    }
+
+    private Node build(List<Course> sorted, int lo, int hi, int level, int redLevel, Node parent) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        Node n = new Node(sorted.get(mid), parent);
+        n.color = level == redLevel ? RED : BLACK;
+        n.left = build(sorted, lo, mid - 1, level + 1, redLevel, n);
+        n.right = build(sorted, mid + 1, hi, level + 1, redLevel, n);
+        return n;
+    }
+
+    //clean method, just to retrieve the course code
+    Course search(String code) {
+        code = code.toUpperCase();
+        Node cur = root;
+        while (cur != null) {
+            int cmp = code.compareTo(cur.course.code);
+            if (cmp == 0) return cur.course;
+            cur = cmp < 0 ? cur.left : cur.right;
+        }
+        return null;
+    }
+
+    //all courses sorted by code
+    List<Course> toList() {
+        List<Course> l = new ArrayList<>(size);
+        for (Node n = first(root); n != null; n = successor(n)) l.add(n.course);
+        return l;
+    }
+
+    //courses with from <= code < to, only visits the nodes in the range (plus one path down)
+    //null means "no bound" on that side
+    List<Course> range(String from, String to) {
+        List<Course> l = new ArrayList<>();
+        Node n = from == null ? first(root) : ceiling(from.toUpperCase());
+        String end = to == null ? null : to.toUpperCase();
+        while (n != null && (end == null || n.course.code.compareTo(end) < 0)) {
+            l.add(n.course);
+            n = successor(n);
+        }
+        return l;
+    }
+
+    //e.g. prefix("CSC2") gives every CSC2xx course
+    List<Course> prefix(String prefix) {
+        String p = prefix.toUpperCase();
+        List<Course> l = new ArrayList<>();
+        for (Node n = ceiling(p); n != null && n.course.code.startsWith(p); n = successor(n)) {
+            l.add(n.course);
+        }
+        return l;
+    }
+
+    //smallest node whose code is >= key
+    private Node ceiling(String key) {
+        Node cur = root, best = null;
+        while (cur != null) {
+            int cmp = key.compareTo(cur.course.code);
+            if (cmp == 0) return cur;
+            if (cmp < 0) { best = cur; cur = cur.left; }
+            else cur = cur.right;
+        }
+        return best;
+    }
+
+    private Node first(Node n) {
+        if (n == null) return null;
+        while (n.left != null) n = n.left;
+        return n;
+    }
+
+    //next node in order, walks up using the parent links so no stack is needed
+    private Node successor(Node n) {
+        if (n.right != null) return first(n.right);
+        Node p = n.parent;
+        while (p != null && n == p.right) { n = p; p = p.parent; }
+        return p;
+    }
+}
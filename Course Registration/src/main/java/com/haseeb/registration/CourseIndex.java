@@ -0,0 +1,50 @@
+package com.haseeb.registration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+
+//secondary index: courses grouped into buckets by some int value (credits, free seats...)
+//buckets stay sorted, and each bucket keeps its courses in code order,
+//so reading it back gives the same order as a stable sort of the code-sorted list
+class CourseIndex {
+    private final TreeMap<Integer, TreeSet<Course>> buckets;
+    private final ToIntFunction<Course> key;
+
+    CourseIndex(ToIntFunction<Course> key, boolean descending) {
+        this.key = key;
+        this.buckets = new TreeMap<>(descending ? Comparator.<Integer>reverseOrder() : Comparator.<Integer>naturalOrder());
+    }
+
+    void add(Course c) {
+        buckets.computeIfAbsent(key.applyAsInt(c), k -> new TreeSet<>()).add(c);
+    }
+
+    //call after the course's value changed, oldKey is the value it was filed under
+    void update(Course c, int oldKey) {
+        int newKey = key.applyAsInt(c);
+        if (newKey == oldKey) return;
+        TreeSet<Course> old = buckets.get(oldKey);
+        if (old != null && old.remove(c) && old.isEmpty()) buckets.remove(oldKey);
+        add(c);
+    }
+
+    List<Course> toList() {
+        return top(Integer.MAX_VALUE);
+    }
+
+    //first k courses in index order, stops as soon as it has k
+    List<Course> top(int k) {
+        List<Course> l = new ArrayList<>(Math.min(k, 64));
+        for (TreeSet<Course> bucket : buckets.values()) {
+            for (Course c : bucket) {
+                if (l.size() >= k) return l;
+                l.add(c);
+            }
+        }
+        return l;
+    }
+}
@@ -0,0 +1,1019 @@
+package com.haseeb.registration;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.geom.RoundRectangle2D;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+public class CourseRegistrationGUI extends JFrame {
+
+
+    //color palette
+    static final Color BG_DARK = new Color(24, 24, 27);
+    static final Color BG_SURFACE = new Color(39, 39, 42);
+
+    // Text
+    static final Color TEXT_PRIMARY = new Color(244, 244, 245);
+    static final Color TEXT_SECONDARY = new Color(161, 161, 170);
+
+    // Accents
+    static final Color ACCENT_GOLD = new Color(212, 175, 55);
+    static final Color ACCENT_GREY = new Color(82, 82, 91);
+    static final Color ACCENT_GREY_DARK = new Color(63, 63, 70);
+
+    static final Color BORDER_COLOR = new Color(63, 63, 70);
+
+    // Table rows: every other one is striped, selected ones are dark grey
+    static final Color ROW_STRIPE = new Color(30, 30, 35);
+    static final Color ROW_SELECTED = ACCENT_GREY_DARK;
+
+    // the custom components share these instead of making their own, painting never allocates any
+    static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 14);
+    static final Font TABLE_FONT = new Font("SansSerif", Font.PLAIN, 13);
+    static final Font TABLE_HEADER_FONT = new Font("SansSerif", Font.BOLD, 14);
+    static final Border FIELD_BORDER = new LineBorder(BORDER_COLOR);
+    static final Border FIELD_FOCUS_BORDER = new LineBorder(ACCENT_GOLD);
+
+    // queues at least this long are processed with processQueueParallel
+    static final int PARALLEL_BATCH_SIZE = 1000;
+
+    // background batches are processed (and report progress) this many requests at a time
+    static final int BATCH_CHUNK_SIZE = 2000;
+
+    // log panel: how often it is refreshed and how many lines it keeps
+    static final int LOG_FLUSH_MS = 100;
+    static final int LOG_MAX_LINES = 5000;
+
+    // metrics dashboard: refresh interval and how many of the fullest courses it lists
+    static final int METRICS_REFRESH_MS = 1000;
+    static final int METRICS_TOP_COURSES = 15;
+
+    // anything keeping the event dispatch thread busy this long counts (and is logged) as a UI stall
+    static final int EDT_STALL_MS = 50;
+
+    // with the HTTP API on, tables pick up changes made by other clients this often
+    static final int HTTP_REFRESH_MS = 500;
+
+    // catalog search box: most matches it shows at once
+    static final int SEARCH_LIMIT = 200;
+
+    // names of the scheduler's priority classes, by RequestScheduler.PRIORITY_*
+    static final String[] PRIORITY_NAMES = {"High (Seniors)", "Normal", "Low"};
+
+    //Front end
+    private BackendSystem backend;
+    private JPanel mainContentPanel;
+    private CardLayout cardLayout;
+    private CourseTableModel courseModel;
+    private StudentTableModel studentModel;
+    private QueueTableModel queueModel;
+    private JTextArea logArea;
+    private final EventLog eventLog = new EventLog(1 << 16); //backend messages wait here until the next log flush
+    private final StringBuilder logBatch = new StringBuilder();
+    private Thread batchThread; //the running queue batch, null when idle (only touched on the EDT)
+    private volatile boolean cancelBatch;
+    private JPanel metricsPanel;
+    private RegistrationServer server; //null unless -Dregistration.http.port is set
+    private JLabel lblWaitlist;
+    private String[] watchedWaitlist; //student id + course code picked with "Waitlist Position"
+    private final Map<String, JLabel> metricTiles = new LinkedHashMap<>();
+    private LatencyTableModel latencyModel;
+    private FillTableModel fillModel;
+    private final EdtMonitor edtMonitor = new EdtMonitor(EDT_STALL_MS, eventLog);
+    //backend calls that take its lock run here, one at a time in click order, never on the EDT
+    //(a batch holds the lock for a whole chunk); the tables refresh from the snapshot when each is done
+    private final ExecutorService backendCalls = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("backend-calls").factory());
+
+    public CourseRegistrationGUI() {
+        setTitle("Course Registration System");
+        setSize(1200, 800);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        setLayout(new BorderLayout());
+        getContentPane().setBackground(BG_DARK);
+
+        add(createSidebar(), BorderLayout.WEST);
+
+        cardLayout = new CardLayout();
+        mainContentPanel = new JPanel(cardLayout);
+        mainContentPanel.setBackground(BG_DARK);
+        mainContentPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        mainContentPanel.add(createCoursePanel(), "COURSES");
+        mainContentPanel.add(createStudentPanel(), "STUDENTS");
+        mainContentPanel.add(createQueuePanel(), "QUEUE");
+        mainContentPanel.add(createMetricsPanel(), "METRICS");
+        add(mainContentPanel, BorderLayout.CENTER);
+
+        //everything is saved under this folder and loaded back on the next launch
+        Path dataDir = Paths.get(System.getProperty("registration.data", "registration-data"));
+        backend = new BackendSystem(eventLog, dataDir);
+        backend.getMetrics().registerMBean(); //so jconsole & co. can watch a running instance
+        startServer();
+        new javax.swing.Timer(LOG_FLUSH_MS, e -> flushLog()).start();
+        new javax.swing.Timer(METRICS_REFRESH_MS, e -> refreshMetrics()).start();
+        edtMonitor.install(); //the constructor runs on the EDT (see main)
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosing(WindowEvent e) {
+                if (server != null) server.stop();
+                backend.close();
+            }
+        });
+
+        refreshTables();
+    }
+
+    private JPanel createSidebar() {
+        JPanel sidebar = new JPanel();
+        sidebar.setLayout(new BoxLayout(sidebar, BoxLayout.Y_AXIS));
+        sidebar.setBackground(BG_SURFACE);
+        sidebar.setBorder(new EmptyBorder(20, 10, 20, 10));
+        sidebar.setPreferredSize(new Dimension(260, 0));
+
+        // Styled Title with Gold Accent
+        JLabel title = new JLabel("<html>COURSE REGISTRATION<br><span style='color:#D4AF37'>SYSTEM</span></html>");
+        title.setFont(new Font("SansSerif", Font.BOLD, 22));
+        title.setForeground(TEXT_PRIMARY);
+        title.setBorder(new EmptyBorder(0, 10, 40, 0));
+        sidebar.add(title);
+
+        sidebar.add(createNavButton("Course Catalog", "COURSES"));
+        sidebar.add(Box.createVerticalStrut(10));
+        sidebar.add(createNavButton("Student Directory", "STUDENTS"));
+        sidebar.add(Box.createVerticalStrut(10));
+        sidebar.add(createNavButton("Queue & Process", "QUEUE"));
+        sidebar.add(Box.createVerticalStrut(10));
+        sidebar.add(createNavButton("Metrics", "METRICS"));
+
+        sidebar.add(Box.createVerticalGlue());
+
+        return sidebar;
+    }
+
+    private JButton createNavButton(String text, String cardName) {
+        JButton btn = new ModernButton(text, ACCENT_GREY_DARK, true);
+        btn.setMaximumSize(new Dimension(240, 45));
+        btn.addActionListener(e -> {
+            cardLayout.show(mainContentPanel, cardName);
+            refreshTables();
+        });
+        return btn;
+    }
+
+    // --- VIEW 1: COURSES ---
+    private JPanel createCoursePanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 20));
+        panel.setBackground(BG_DARK);
+
+        // Header & Tools
+        JPanel top = new JPanel(new BorderLayout());
+        top.setBackground(BG_DARK);
+
+        JLabel lbl = new JLabel("Course Catalog (BST)");
+        lbl.setFont(new Font("SansSerif", Font.BOLD, 28));
+        lbl.setForeground(TEXT_PRIMARY);
+        top.add(lbl, BorderLayout.WEST);
+
+        JPanel tools = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        tools.setBackground(BG_DARK);
+        // Minimalist Grey Sorting Buttons
+        JButton sortCode = new ModernButton("Sort: Code", ACCENT_GREY, false);
+        JButton sortCred = new ModernButton("Sort: Credits", ACCENT_GREY, false);
+        JButton sortSeat = new ModernButton("Sort: Availability", ACCENT_GREY, false);
+
+        sortCode.addActionListener(e -> refreshCourseTable(1));
+        sortCred.addActionListener(e -> refreshCourseTable(2));
+        sortSeat.addActionListener(e -> refreshCourseTable(3));
+
+        // search as you type, every keystroke is answered by the backend's search index
+        String searchHint = "Search code or name";
+        JTextField search = new ModernTextField(searchHint);
+        search.setPreferredSize(new Dimension(200, 35));
+        search.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { searchChanged(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { searchChanged(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { }
+            private void searchChanged() {
+                String q = search.getText();
+                if (backend != null) courseModel.setQuery(q.equals(searchHint) ? "" : q.trim());
+            }
+        });
+
+        tools.add(search);
+        tools.add(sortCode); tools.add(sortCred); tools.add(sortSeat);
+        top.add(tools, BorderLayout.EAST);
+        panel.add(top, BorderLayout.NORTH);
+
+        // Table
+        courseModel = new CourseTableModel();
+        JTable table = new ModernTable(courseModel);
+        JScrollPane scroll = new JScrollPane(table);
+        styleScrollPane(scroll);
+        panel.add(scroll, BorderLayout.CENTER);
+
+        // Add Form
+        JPanel addPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        addPanel.setBackground(BG_SURFACE);
+        addPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        JTextField txtCode = new ModernTextField("Code (e.g. CS101)");
+        JTextField txtName = new ModernTextField("Course Name");
+        JTextField txtCred = new ModernTextField("Credits");
+        JTextField txtCap = new ModernTextField("Capacity");
+        String meetsHint = "Meets (e.g. MW 09:00-10:15)";
+        JTextField txtMeets = new ModernTextField(meetsHint);
+        txtMeets.setPreferredSize(new Dimension(200, 35));
+        String prereqHint = "Prereqs (e.g. CSC215 MTH204)";
+        JTextField txtPrereqs = new ModernTextField(prereqHint);
+        txtPrereqs.setPreferredSize(new Dimension(200, 35));
+
+        // Premium Gold Action Button
+        JButton btnAdd = new ModernButton("Add Course", ACCENT_GOLD, false);
+        btnAdd.setForeground(Color.BLACK); // Black text on Gold for readability/premium feel
+
+        btnAdd.addActionListener(e -> {
+            try {
+                String code = txtCode.getText(), name = txtName.getText();
+                int credits = Integer.parseInt(txtCred.getText()), capacity = Integer.parseInt(txtCap.getText());
+                String meets = txtMeets.getText().equals(meetsHint) ? "" : txtMeets.getText(); //bad times are reported in the log
+                List<String> prereqs = txtPrereqs.getText().equals(prereqHint) || txtPrereqs.getText().isBlank()
+                        ? List.of() : List.of(txtPrereqs.getText().trim().split("\\s+"));
+                onBackend(() -> backend.addCourse(code, name, credits, capacity, meets, prereqs));
+                refreshCourseTable(1);
+                txtCode.setText(""); txtName.setText(""); txtCred.setText(""); txtCap.setText(""); txtMeets.setText(""); txtPrereqs.setText("");
+            } catch (Exception ex) { JOptionPane.showMessageDialog(this, "Invalid Input: Ensure Credits/Cap are numbers."); }
+        });
+
+        JButton btnImport = new ModernButton("Import CSV", ACCENT_GREY, false);
+        btnImport.addActionListener(e -> importCsv(true));
+
+        addPanel.add(txtCode); addPanel.add(txtName); addPanel.add(txtCred); addPanel.add(txtCap); addPanel.add(txtMeets); addPanel.add(txtPrereqs); addPanel.add(btnAdd); addPanel.add(btnImport);
+        panel.add(addPanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    // --- VIEW 2: STUDENTS ---
+    private JPanel createStudentPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 20));
+        panel.setBackground(BG_DARK);
+
+        JLabel lbl = new JLabel("Student Directory (Packed Store)");
+        lbl.setFont(new Font("SansSerif", Font.BOLD, 28));
+        lbl.setForeground(TEXT_PRIMARY);
+        panel.add(lbl, BorderLayout.NORTH);
+
+        studentModel = new StudentTableModel();
+        JTable table = new ModernTable(studentModel);
+        JScrollPane scroll = new JScrollPane(table);
+        styleScrollPane(scroll);
+        panel.add(scroll, BorderLayout.CENTER);
+
+        // Add Form
+        JPanel addPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        addPanel.setBackground(BG_SURFACE);
+        addPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        JTextField txtId = new ModernTextField("Student ID (e.g. S003)");
+        JTextField txtName = new ModernTextField("Full Name");
+        JButton btnAdd = new ModernButton("Register Student", ACCENT_GOLD, false);
+        btnAdd.setForeground(Color.BLACK);
+
+        btnAdd.addActionListener(e -> {
+            if(!txtId.getText().isEmpty() && !txtName.getText().isEmpty()) {
+                String id = txtId.getText(), name = txtName.getText();
+                onBackend(() -> backend.addStudent(id, name));
+                txtId.setText(""); txtName.setText("");
+            }
+        });
+
+        JButton btnImport = new ModernButton("Import CSV", ACCENT_GREY, false);
+        btnImport.addActionListener(e -> importCsv(false));
+
+        addPanel.add(txtId); addPanel.add(txtName); addPanel.add(btnAdd); addPanel.add(btnImport);
+        panel.add(addPanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    // --- VIEW 3: QUEUE & LOGS ---
+    private JPanel createQueuePanel() {
+        JPanel panel = new JPanel(new GridLayout(1, 2, 20, 0));
+        panel.setBackground(BG_DARK);
+
+        // Left Column
+        JPanel left = new JPanel(new BorderLayout(0, 20));
+        left.setBackground(BG_DARK);
+
+        JLabel lbl = new JLabel("Registration Queue (Priority)");
+        lbl.setFont(new Font("SansSerif", Font.BOLD, 24));
+        lbl.setForeground(TEXT_PRIMARY);
+        left.add(lbl, BorderLayout.NORTH);
+
+        queueModel = new QueueTableModel();
+        JTable table = new ModernTable(queueModel);
+        JScrollPane scroll = new JScrollPane(table);
+        styleScrollPane(scroll);
+        left.add(scroll, BorderLayout.CENTER);
+
+        // Controls
+        JPanel controls = new JPanel();
+        controls.setLayout(new BoxLayout(controls, BoxLayout.Y_AXIS));
+        controls.setBackground(BG_DARK);
+
+        JPanel reqPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        reqPanel.setBackground(BG_SURFACE);
+        reqPanel.setMaximumSize(new Dimension(2000, 90));
+
+        JTextField txtSid = new ModernTextField("Student ID");
+        JTextField txtCid = new ModernTextField("Course Code");
+        //index = RequestScheduler priority class
+        JComboBox<String> cmbPriority = new JComboBox<>(PRIORITY_NAMES);
+        cmbPriority.setSelectedIndex(RequestScheduler.PRIORITY_NORMAL);
+        cmbPriority.setBackground(BG_DARK);
+        cmbPriority.setForeground(TEXT_PRIMARY);
+        JButton btnQueue = new ModernButton("Queue Request", ACCENT_GREY, false);
+
+        btnQueue.addActionListener(e -> {
+            if(!txtSid.getText().isEmpty() && !txtCid.getText().isEmpty()) {
+                //"CSC215 CSC215L" = one bundle, both seats or neither
+                String[] codes = txtCid.getText().trim().split("\\s+");
+                String sid = txtSid.getText();
+                int priority = cmbPriority.getSelectedIndex();
+                if (codes.length > 1) onBackend(() -> backend.queueBundle(sid, List.of(codes), priority));
+                else onBackend(() -> backend.queueRequest(sid, codes[0], priority));
+            }
+        });
+
+        JButton btnDrop = new ModernButton("Drop Course", ACCENT_GREY, false);
+        btnDrop.addActionListener(e -> {
+            if(!txtSid.getText().isEmpty() && !txtCid.getText().isEmpty()) {
+                String sid = txtSid.getText(), code = txtCid.getText();
+                onBackend(() -> backend.dropCourse(sid, code));
+            }
+        });
+
+        //keeps showing the position for this student/course, refreshed with the tables
+        JButton btnPosition = new ModernButton("Waitlist Position", ACCENT_GREY, false);
+        btnPosition.addActionListener(e -> {
+            if(!txtSid.getText().isEmpty() && !txtCid.getText().isEmpty()) {
+                watchedWaitlist = new String[] {txtSid.getText(), txtCid.getText()};
+                refreshTables();
+            }
+        });
+
+        //a course the student passed in an earlier term, unlocks whatever has it as a prerequisite
+        JButton btnCompleted = new ModernButton("Mark Completed", ACCENT_GREY, false);
+        btnCompleted.addActionListener(e -> {
+            if(!txtSid.getText().isEmpty() && !txtCid.getText().isEmpty()) {
+                String sid = txtSid.getText(), code = txtCid.getText();
+                onBackend(() -> backend.addCompletedCourse(sid, code));
+            }
+        });
+
+        reqPanel.add(txtSid); reqPanel.add(txtCid); reqPanel.add(cmbPriority); reqPanel.add(btnQueue); reqPanel.add(btnDrop); reqPanel.add(btnPosition); reqPanel.add(btnCompleted);
+
+        lblWaitlist = new JLabel(" ");
+        lblWaitlist.setForeground(TEXT_SECONDARY);
+        lblWaitlist.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        reqPanel.add(lblWaitlist);
+
+        JPanel procPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        procPanel.setBackground(BG_SURFACE);
+        procPanel.setMaximumSize(new Dimension(2000, 60));
+
+        // Primary Action Button
+        JButton btnProcess = new ModernButton("PROCESS QUEUE BATCH", ACCENT_GOLD, false);
+        btnProcess.setPreferredSize(new Dimension(300, 40));
+        btnProcess.setForeground(Color.BLACK);
+
+        JLabel lblProgress = new JLabel(" ");
+        lblProgress.setForeground(TEXT_SECONDARY);
+        lblProgress.setFont(new Font("SansSerif", Font.PLAIN, 13));
+
+        //same button starts, cancels and resumes the batch
+        btnProcess.addActionListener(e -> {
+            if (batchThread != null) {
+                cancelBatch = true;
+                btnProcess.setText("CANCELLING...");
+            } else {
+                startBatch(btnProcess, lblProgress);
+            }
+        });
+        procPanel.add(btnProcess);
+        procPanel.add(lblProgress);
+
+        controls.add(reqPanel);
+        controls.add(Box.createVerticalStrut(10));
+        controls.add(procPanel);
+        left.add(controls, BorderLayout.SOUTH);
+
+        // Right Column: Logs
+        JPanel right = new JPanel(new BorderLayout(0, 10));
+        right.setBackground(BG_DARK);
+        JLabel logLbl = new JLabel("System Logs");
+        logLbl.setFont(new Font("SansSerif", Font.BOLD, 24));
+        logLbl.setForeground(TEXT_SECONDARY);
+        right.add(logLbl, BorderLayout.NORTH);
+
+        logArea = new JTextArea();
+        logArea.setBackground(BG_SURFACE);
+        logArea.setForeground(TEXT_PRIMARY);
+        logArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        logArea.setBorder(new EmptyBorder(10, 10, 10, 10));
+        JScrollPane logScroll = new JScrollPane(logArea);
+        styleScrollPane(logScroll);
+        logScroll.setBorder(new LineBorder(BORDER_COLOR));
+        right.add(logScroll, BorderLayout.CENTER);
+
+        panel.add(left);
+        panel.add(right);
+        return panel;
+    }
+
+    // --- VIEW 4: METRICS ---
+    //live numbers from backend.getMetrics(), the same ones exposed over JMX
+    private JPanel createMetricsPanel() {
+        metricsPanel = new JPanel(new BorderLayout(0, 20));
+        metricsPanel.setBackground(BG_DARK);
+
+        JLabel lbl = new JLabel("Metrics Dashboard");
+        lbl.setFont(new Font("SansSerif", Font.BOLD, 28));
+        lbl.setForeground(TEXT_PRIMARY);
+        metricsPanel.add(lbl, BorderLayout.NORTH);
+
+        JPanel center = new JPanel(new BorderLayout(0, 20));
+        center.setBackground(BG_DARK);
+
+        JPanel tiles = new JPanel(new GridLayout(0, 4, 10, 10));
+        tiles.setBackground(BG_DARK);
+        for (String name : new String[] {"Queued", "Succeeded", "Failed: Full", "Failed: Already Enrolled",
+                "Failed: Time Conflict", "Failed: Prerequisites", "Failed: Credit Limit", "Waitlisted", "Drops", "Waitlist Promotions", "Rejected",
+                "Queue Full: Shed / Refused", "Coalesced / Skipped", "Queue Depth", "Full Courses", "Seats Filled",
+                "UI Stalls: Event / Paint"}) {
+            JPanel tile = new JPanel(new BorderLayout());
+            tile.setBackground(BG_SURFACE);
+            tile.setBorder(BorderFactory.createCompoundBorder(new LineBorder(BORDER_COLOR), new EmptyBorder(10, 15, 10, 15)));
+            JLabel title = new JLabel(name);
+            title.setForeground(TEXT_SECONDARY);
+            title.setFont(new Font("SansSerif", Font.PLAIN, 13));
+            JLabel value = new JLabel("0");
+            value.setForeground(ACCENT_GOLD);
+            value.setFont(new Font("SansSerif", Font.BOLD, 26));
+            tile.add(title, BorderLayout.NORTH);
+            tile.add(value, BorderLayout.CENTER);
+            tiles.add(tile);
+            metricTiles.put(name, value);
+        }
+        center.add(tiles, BorderLayout.NORTH);
+
+        JPanel tables = new JPanel(new GridLayout(1, 2, 20, 0));
+        tables.setBackground(BG_DARK);
+        latencyModel = new LatencyTableModel();
+        JScrollPane latencyScroll = new JScrollPane(new ModernTable(latencyModel));
+        styleScrollPane(latencyScroll);
+        tables.add(latencyScroll);
+        fillModel = new FillTableModel();
+        JScrollPane fillScroll = new JScrollPane(new ModernTable(fillModel));
+        styleScrollPane(fillScroll);
+        tables.add(fillScroll);
+        center.add(tables, BorderLayout.CENTER);
+        metricsPanel.add(center, BorderLayout.CENTER);
+
+        JButton btnReset = new ModernButton("Reset Latencies", ACCENT_GREY, false);
+        btnReset.addActionListener(e -> {
+            backend.getMetrics().resetLatencies();
+            edtMonitor.reset();
+            refreshMetrics();
+        });
+        JPanel bottom = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        bottom.setBackground(BG_DARK);
+        bottom.add(btnReset);
+        metricsPanel.add(bottom, BorderLayout.SOUTH);
+        return metricsPanel;
+    }
+
+    //only does the work (percentiles, catalog walk) while the dashboard is actually on screen
+    private void refreshMetrics() {
+        if (backend == null || !metricsPanel.isShowing()) return;
+        RegistrationMetrics m = backend.getMetrics();
+        metricTiles.get("Queued").setText(String.format("%,d", m.getRequestsQueued()));
+        metricTiles.get("Succeeded").setText(String.format("%,d", m.getRequestsSucceeded()));
+        metricTiles.get("Failed: Full").setText(String.format("%,d", m.getRequestsFailedFull()));
+        metricTiles.get("Failed: Already Enrolled").setText(String.format("%,d", m.getRequestsFailedAlreadyEnrolled()));
+        metricTiles.get("Failed: Time Conflict").setText(String.format("%,d", m.getRequestsFailedTimeConflict()));
+        metricTiles.get("Failed: Prerequisites").setText(String.format("%,d", m.getRequestsFailedPrerequisites()));
+        metricTiles.get("Failed: Credit Limit").setText(String.format("%,d", m.getRequestsFailedCreditLimit()));
+        metricTiles.get("Waitlisted").setText(String.format("%,d", m.getRequestsWaitlisted()));
+        metricTiles.get("Drops").setText(String.format("%,d", m.getDrops()));
+        metricTiles.get("Waitlist Promotions").setText(String.format("%,d", m.getWaitlistPromotions()));
+        metricTiles.get("Rejected").setText(String.format("%,d", m.getRequestsRejected()));
+        metricTiles.get("Queue Full: Shed / Refused").setText(String.format("%,d / %,d", m.getRequestsShed(), m.getRequestsRefused()));
+        metricTiles.get("Coalesced / Skipped").setText(String.format("%,d / %,d", m.getRequestsCoalesced(), m.getRequestsShortCircuited()));
+        metricTiles.get("Queue Depth").setText(String.format("%,d", m.getQueueDepth()));
+        metricTiles.get("Full Courses").setText(String.format("%,d / %,d", m.getFullCourses(), backend.snapshot().getCourseCount()));
+        metricTiles.get("Seats Filled").setText(String.format("%.1f%%", m.getOverallFillRate() * 100));
+        metricTiles.get("UI Stalls: Event / Paint").setText(String.format("%,d / %,d", edtMonitor.getEventStalls(), edtMonitor.getPaintStalls()));
+        latencyModel.update(m, edtMonitor);
+        fillModel.update(m.fullest(METRICS_TOP_COURSES));
+    }
+
+    //with -Dregistration.http.port=8080 this window also serves the HTTP API, on the very same backend,
+    //so kiosks and advisors work on the same data the window shows
+    //only to this machine unless -Dregistration.http.host says which address to listen on (e.g. 0.0.0.0)
+    private void startServer() {
+        String port = System.getProperty("registration.http.port");
+        if (port == null) return;
+        String host = System.getProperty("registration.http.host");
+        try {
+            server = new RegistrationServer(backend);
+            if (host == null) server.start(Integer.parseInt(port));
+            else server.start(host, Integer.parseInt(port));
+            eventLog.log("HTTP API listening on port {}", server.getPort());
+            //other clients change things behind the window's back, so look for changes regularly
+            new javax.swing.Timer(HTTP_REFRESH_MS, e -> refreshTables()).start();
+        } catch (IOException | NumberFormatException ex) {
+            server = null;
+            eventLog.log("Error: could not start HTTP API on port {} ({})", port, ex.getMessage());
+        }
+    }
+
+    //lets the user pick a CSV file and bulk loads it (courses: code,name,credits,capacity / students: id,name)
+    private void importCsv(boolean courses) {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        onBackend(() -> {
+            String summary;
+            try {
+                summary = courses ? backend.importCourses(file) : backend.importStudents(file);
+            } catch (IOException ex) {
+                summary = "Could not read file: " + ex.getMessage();
+            }
+            String message = summary;
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, message));
+        });
+    }
+
+    private void onBackend(Runnable call) {
+        backendCalls.execute(() -> {
+            try {
+                call.run();
+            } finally {
+                SwingUtilities.invokeLater(this::refreshTables);
+            }
+        });
+    }
+
+    //runs the queue on a virtual thread so the window stays responsive,
+    //progress comes back to the EDT after every chunk
+    private void startBatch(JButton btn, JLabel status) {
+        //big batches (registration open) get spread across all cores
+        int workers = backend.getQueueSize() >= PARALLEL_BATCH_SIZE ? Runtime.getRuntime().availableProcessors() : 1;
+        cancelBatch = false;
+        btn.setText("CANCEL BATCH");
+        batchThread = Thread.ofVirtual().name("queue-batch").start(() -> {
+            BackendSystem.BatchProgress result = backend.processQueueInChunks(BATCH_CHUNK_SIZE, workers, () -> cancelBatch,
+                    p -> SwingUtilities.invokeLater(() -> {
+                        status.setText(describe(p));
+                        refreshTables();
+                    }));
+            SwingUtilities.invokeLater(() -> {
+                batchThread = null;
+                btn.setText(result.cancelled ? "RESUME QUEUE BATCH" : "PROCESS QUEUE BATCH");
+                if (result.total > 0) status.setText(describe(result));
+                refreshTables();
+            });
+        });
+    }
+
+    private static String describe(BackendSystem.BatchProgress p) {
+        return (p.cancelled ? "Cancelled: " : p.done() ? "Done: " : "Processing: ")
+                + p.processed + " / " + p.total + "  (" + p.succeeded + " succeeded, " + p.failed() + " failed)";
+    }
+
+    //moves waiting log events into the text area, at most every LOG_FLUSH_MS
+    //one append + one caret move per flush no matter how many messages came in,
+    //and the oldest lines are cut off so the text area never grows past LOG_MAX_LINES
+    private void flushLog() {
+        logBatch.setLength(0);
+        eventLog.drain(logBatch, LOG_MAX_LINES);
+        long dropped = eventLog.takeDropped();
+        if (dropped > 0) logBatch.append("... ").append(dropped).append(" log messages dropped\n");
+        if (logBatch.length() == 0) return;
+
+        logArea.append(logBatch.toString());
+        int extra = logArea.getLineCount() - LOG_MAX_LINES;
+        if (extra > 0) {
+            try {
+                logArea.getDocument().remove(0, logArea.getLineStartOffset(extra));
+            } catch (javax.swing.text.BadLocationException ignored) { }
+        }
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+    }
+
+    // UI HELPERS & STYLING
+    //moves every table to the latest snapshot, only rows that differ from the one it drew get redrawn
+    //nothing here takes the backend lock: snapshot() and the queue version are plain reads
+    private void refreshTables() {
+        if(backend == null) return;
+        RegistrationSnapshot snap = backend.snapshot();
+        courseModel.sync(snap);
+        studentModel.sync(snap);
+        queueModel.sync(snap);
+        if (watchedWaitlist != null) {
+            String sid = watchedWaitlist[0], code = watchedWaitlist[1].toUpperCase();
+            int pos = snap.getWaitlistPosition(sid, code);
+            lblWaitlist.setText(pos == 0 ? sid + " is not on the " + code + " waitlist"
+                    : sid + " is #" + pos + " of " + snap.getCourse(code).getWaitlisted() + " on the " + code + " waitlist");
+        }
+    }
+
+    private void refreshCourseTable(int sortMode) {
+        if(backend == null) return;
+        courseModel.setSortMode(sortMode);
+        refreshTables();
+    }
+
+    // TABLE MODELS
+    //the tables ask for cells one at a time (getValueAt), and JTable only asks for the rows on screen,
+    //so nothing is built for the other 50k rows. sync() fires update events just for the rows that changed.
+
+    //fires one event per changed row when there are only a few, otherwise one event spanning them
+    private static void fireRowsChanged(AbstractTableModel model, int[] rows, int count) {
+        if (count == 0) return;
+        if (count <= 64) {
+            for (int i = 0; i < count; i++) model.fireTableRowsUpdated(rows[i], rows[i]);
+            return;
+        }
+        int lo = Integer.MAX_VALUE, hi = -1;
+        for (int i = 0; i < count; i++) { lo = Math.min(lo, rows[i]); hi = Math.max(hi, rows[i]); }
+        model.fireTableRowsUpdated(lo, hi);
+    }
+
+    class CourseTableModel extends AbstractTableModel {
+        private final String[] cols = {"Code", "Course Name", "Credits", "Meets", "Prereqs", "Capacity", "Enrolled", "Availability"};
+        private int[] rows = new int[0]; //course numbers in display order
+        private RegistrationSnapshot snap = RegistrationSnapshot.EMPTY; //cells come from here, never half a batch
+        private int[] rowOf = new int[0]; //Course.idx -> row, -1 = not shown (filtered out by the search)
+        private int sortMode = 1;
+        private String query = ""; //non-empty = only search results, best match first
+        private int[] hits = new int[0]; //course numbers the search for query found
+
+        void setSortMode(int mode) {
+            sortMode = mode;
+            reload();
+        }
+
+        void setQuery(String q) {
+            if (q.equals(query)) return;
+            query = q;
+            if (q.isEmpty()) reload();
+            else search();
+        }
+
+        //the search index lives behind the backend lock, results come back to the EDT
+        private void search() {
+            String q = query;
+            onBackend(() -> {
+                List<Course> found = backend.searchCourses(q, SEARCH_LIMIT);
+                int[] numbers = new int[found.size()];
+                for (int i = 0; i < numbers.length; i++) numbers[i] = found.get(i).idx;
+                SwingUtilities.invokeLater(() -> {
+                    if (!q.equals(query)) return; //typed on since
+                    hits = numbers;
+                    reload();
+                });
+            });
+        }
+
+        private void reload() {
+            snap = backend.snapshot(); //newer than any finished search, so it has every course in hits
+            rows = query.isEmpty() ? snap.courseOrder(sortMode) : hits;
+            rowOf = new int[snap.getCourseCount()];
+            Arrays.fill(rowOf, -1);
+            for (int r = 0; r < rows.length; r++) rowOf[rows[r]] = r;
+            fireTableDataChanged();
+        }
+
+        void sync(RegistrationSnapshot next) {
+            if (next == snap) return;
+            //new courses, or seat changes while sorted by seats, can move rows around
+            //(search results are ranked by text only, seat changes never move them)
+            if (next.getCourseCount() != rowOf.length) {
+                if (query.isEmpty()) {
+                    reload();
+                    return;
+                }
+                int known = rowOf.length;
+                rowOf = Arrays.copyOf(rowOf, next.getCourseCount());
+                Arrays.fill(rowOf, known, rowOf.length, -1);
+                search(); //the new ones may match too
+            }
+            BitSet changed = next.changedCourses(snap);
+            if (sortMode == 3 && query.isEmpty() && !changed.isEmpty()) {
+                reload();
+                return;
+            }
+            snap = next;
+            int[] changedRows = new int[changed.cardinality()];
+            int n = 0;
+            for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                if (rowOf[i] >= 0) changedRows[n++] = rowOf[i];
+            }
+            fireRowsChanged(this, changedRows, n);
+        }
+
+        @Override public int getRowCount() { return rows.length; }
+        @Override public int getColumnCount() { return cols.length; }
+        @Override public String getColumnName(int c) { return cols[c]; }
+        @Override public Object getValueAt(int r, int col) {
+            RegistrationSnapshot.CourseState c = snap.getCourse(rows[r]);
+            switch (col) {
+                case 0: return c.getCode();
+                case 1: return c.getName();
+                case 2: return c.getCredits();
+                case 3: return c.getMeets();
+                case 4: return String.join(" ", c.getPrerequisites());
+                case 5: return c.getCapacity();
+                case 6: return c.getEnrolled();
+                default: return c.getAvailable();
+            }
+        }
+    }
+
+    //rows are in student id order, row r is whoever is at position r in the snapshot's sorted order
+    //so there's no list to copy at all, only positions are looked up for the rows that changed
+    class StudentTableModel extends AbstractTableModel {
+        private final String[] cols = {"ID", "Name", "Registered Courses", "Credits", "Waitlisted For"};
+        private RegistrationSnapshot snap = RegistrationSnapshot.EMPTY; //every cell comes from here
+
+        void sync(RegistrationSnapshot next) {
+            if (next == snap) return;
+            RegistrationSnapshot old = snap;
+            snap = next;
+            if (next.getStudentCount() != old.getStudentCount()) { //new students land anywhere in id order, or the backend was rebuilt
+                fireTableDataChanged();
+                return;
+            }
+            BitSet changed = next.changedStudents(old);
+            int[] changedRows = new int[changed.cardinality()];
+            int n = 0;
+            for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                changedRows[n++] = next.getSortedPosition(i);
+            }
+            fireRowsChanged(this, changedRows, n);
+        }
+
+        @Override public int getRowCount() { return snap.getStudentCount(); }
+        @Override public int getColumnCount() { return cols.length; }
+        @Override public String getColumnName(int c) { return cols[c]; }
+        @Override public Object getValueAt(int r, int col) {
+            RegistrationSnapshot.StudentState st = snap.getStudentSorted(r);
+            switch (col) {
+                case 0: return st.getId();
+                case 1: return st.getName();
+                case 2: return st.getCourses().toString(); //only built for visible rows
+                case 3: return st.getCredits();
+                default: return st.getWaitlisted().toString();
+            }
+        }
+    }
+
+    class QueueTableModel extends AbstractTableModel {
+        private final String[] cols = {"Student ID", "Target Course", "Priority", "Waitlist"};
+        private List<RegistrationRequest> rows = new ArrayList<>();
+        private long version = -1;
+        private boolean copying; //a copy of the queue is on its way
+        private RegistrationSnapshot snap = RegistrationSnapshot.EMPTY; //waitlist positions come from here
+
+        //the queue only gets copied when it actually changed, and the copy is made off the EDT
+        void sync(RegistrationSnapshot next) {
+            if (next != snap) {
+                snap = next;
+                if (!rows.isEmpty()) fireTableRowsUpdated(0, rows.size() - 1); //waitlist column, visible rows only
+            }
+            if (copying || backend.getQueueVersion() == version) return;
+            copying = true;
+            backendCalls.execute(() -> {
+                long at = backend.getQueueVersion(); //read first, a change in between just means one more copy
+                List<RegistrationRequest> queue = backend.getQueue();
+                SwingUtilities.invokeLater(() -> {
+                    copying = false;
+                    version = at;
+                    rows = queue;
+                    fireTableDataChanged();
+                });
+            });
+        }
+
+        @Override public int getRowCount() { return rows.size(); }
+        @Override public int getColumnCount() { return cols.length; }
+        @Override public String getColumnName(int c) { return cols[c]; }
+        @Override public Object getValueAt(int r, int col) {
+            RegistrationRequest req = rows.get(r);
+            if (col == 0) return req.studentId;
+            if (col == 1) return req.bundle == null ? req.courseCode : String.join(" + ", req.bundle);
+            if (col == 2) return PRIORITY_NAMES[req.priority];
+            if (req.bundle != null) return ""; //bundles never wait on a waitlist
+            //already waiting for this course? then show where, looked up for visible rows only
+            int pos = snap.getWaitlistPosition(req.studentId, req.courseCode);
+            return pos == 0 ? "" : "#" + pos + " of " + snap.getCourse(req.courseCode).getWaitlisted();
+        }
+    }
+
+    class LatencyTableModel extends AbstractTableModel {
+        private final String[] cols = {"Latency", "Count", "Mean", "p50", "p90", "p99", "p99.9", "Max"};
+        private final String[] names = {"queueRequest", "Queue Wait", "Per Request", "Whole Batch", "UI Event", "UI Paint"};
+        private final LatencyHistogram.Summary[] rows = new LatencyHistogram.Summary[6];
+
+        void update(RegistrationMetrics m, EdtMonitor edt) {
+            rows[0] = m.getQueueRequestLatency();
+            rows[1] = m.getQueueWaitLatency();
+            rows[2] = m.getRequestProcessingLatency();
+            rows[3] = m.getBatchLatency();
+            rows[4] = edt.events.summary();
+            rows[5] = edt.paints.summary();
+            fireTableRowsUpdated(0, rows.length - 1);
+        }
+
+        @Override public int getRowCount() { return rows[0] == null ? 0 : rows.length; }
+        @Override public int getColumnCount() { return cols.length; }
+        @Override public String getColumnName(int c) { return cols[c]; }
+        @Override public Object getValueAt(int r, int col) {
+            LatencyHistogram.Summary s = rows[r];
+            switch (col) {
+                case 0: return names[r];
+                case 1: return s.getCount();
+                case 2: return formatNanos(s.getMeanNanos());
+                case 3: return formatNanos(s.getP50Nanos());
+                case 4: return formatNanos(s.getP90Nanos());
+                case 5: return formatNanos(s.getP99Nanos());
+                case 6: return formatNanos(s.getP999Nanos());
+                default: return formatNanos(s.getMaxNanos());
+            }
+        }
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 10_000) return nanos + " ns";
+        if (nanos < 10_000_000) return String.format("%.1f us", nanos / 1e3);
+        return String.format("%.1f ms", nanos / 1e6);
+    }
+
+    //the fullest courses by enrolled / capacity
+    class FillTableModel extends AbstractTableModel {
+        private final String[] cols = {"Fullest Courses", "Enrolled", "Capacity", "Fill"};
+        private List<RegistrationSnapshot.CourseState> rows = new ArrayList<>();
+
+        void update(List<RegistrationSnapshot.CourseState> fullest) {
+            rows = fullest;
+            fireTableDataChanged();
+        }
+
+        @Override public int getRowCount() { return rows.size(); }
+        @Override public int getColumnCount() { return cols.length; }
+        @Override public String getColumnName(int c) { return cols[c]; }
+        @Override public Object getValueAt(int r, int col) {
+            RegistrationSnapshot.CourseState c = rows.get(r);
+            switch (col) {
+                case 0: return c.getCode();
+                case 1: return c.getEnrolled();
+                case 2: return c.getCapacity();
+                default: return String.format("%.0f%%", RegistrationMetrics.fillRate(c) * 100);
+            }
+        }
+    }
+
+    private void styleScrollPane(JScrollPane scroll) {
+        scroll.getViewport().setBackground(BG_DARK);
+        scroll.setBorder(new LineBorder(BORDER_COLOR));
+        scroll.getVerticalScrollBar().setBackground(BG_DARK);
+        scroll.getHorizontalScrollBar().setBackground(BG_DARK);
+    }
+
+    //hover comes from mouse events and everything painted is made up front, so a repaint
+    //neither allocates nor asks the toolkit where the pointer is (getMousePosition)
+    class ModernButton extends JButton {
+        final Color baseColor, hoverColor;
+        boolean isNav;
+        private boolean hover;
+        private final RoundRectangle2D.Float shape = new RoundRectangle2D.Float(); //resized in place on every paint
+        public ModernButton(String text, Color bg, boolean nav) {
+            super(text);
+            this.baseColor = bg;
+            this.hoverColor = bg.brighter();
+            this.isNav = nav;
+            setContentAreaFilled(false);
+            setFocusPainted(false);
+            setBorderPainted(false);
+            setForeground(Color.WHITE); // Default white text
+            setFont(BUTTON_FONT);
+            setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+            addMouseListener(new MouseAdapter() {
+                public void mouseEntered(MouseEvent e) { setHover(true); }
+                public void mouseExited(MouseEvent e) { setHover(false); }
+            });
+            //hidden with the pointer still on it (another card was picked): no mouseExited comes for that
+            addHierarchyListener(e -> {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && !isShowing()) setHover(false);
+            });
+        }
+        private void setHover(boolean on) {
+            if (hover == on) return;
+            hover = on;
+            repaint();
+        }
+        @Override protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(hover ? hoverColor : baseColor);
+            int r = isNav ? 10 : 6;
+            shape.setRoundRect(0, 0, getWidth(), getHeight(), r, r);
+            g2.fill(shape);
+            super.paintComponent(g);
+        }
+    }
+
+    class ModernTextField extends JTextField {
+        public ModernTextField(String placeholder) {
+            setText(placeholder);
+            setForeground(TEXT_SECONDARY);
+            setBackground(BG_DARK);
+            setCaretColor(Color.WHITE);
+            setBorder(BorderFactory.createCompoundBorder(FIELD_BORDER, new EmptyBorder(5, 10, 5, 10)));
+            setPreferredSize(new Dimension(130, 35));
+            addFocusListener(new java.awt.event.FocusAdapter() {
+                public void focusGained(java.awt.event.FocusEvent evt) {
+                    if (getText().equals(placeholder)) { setText(""); setForeground(TEXT_PRIMARY); }
+                    setBorder(FIELD_FOCUS_BORDER); // Gold border on focus
+                }
+                public void focusLost(java.awt.event.FocusEvent evt) {
+                    if (getText().isEmpty()) { setText(placeholder); setForeground(TEXT_SECONDARY); }
+                    setBorder(FIELD_BORDER);
+                }
+            });
+        }
+    }
+
+    class ModernTable extends JTable {
+        public ModernTable(TableModel model) {
+            super(model);
+            setBackground(BG_DARK);
+            setForeground(TEXT_PRIMARY);
+            setGridColor(BORDER_COLOR);
+            setRowHeight(30);
+            setFont(TABLE_FONT);
+            getTableHeader().setBackground(BG_SURFACE);
+            getTableHeader().setForeground(ACCENT_GOLD); // Gold headers
+            getTableHeader().setFont(TABLE_HEADER_FONT);
+            getTableHeader().setBorder(new LineBorder(BORDER_COLOR));
+            setDefaultRenderer(Object.class, new StripedCellRenderer());
+        }
+    }
+
+    //zebra rows straight from the palette. Nothing is allocated per cell, and none of the look & feel
+    //lookups DefaultTableCellRenderer does for every single cell (alternate row color, focus colors, borders)
+    //Each cell paints only its own stripe, so the models firing rowsUpdated for just the rows that changed
+    //(see fireRowsChanged) get only those rows repainted, never the whole table
+    static class StripedCellRenderer extends DefaultTableCellRenderer {
+        private final Border focusBorder = UIManager.getBorder("Table.focusCellHighlightBorder");
+
+        @Override public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            setFont(table.getFont());
+            setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
+            setBackground(isSelected ? ROW_SELECTED : row % 2 == 0 ? BG_DARK : ROW_STRIPE);
+            setBorder(hasFocus && focusBorder != null ? focusBorder : noFocusBorder);
+            setValue(value);
+            return this;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        //no window: --headless (or a machine without a display) runs the engine from the command line
+        if (Arrays.asList(args).contains("--headless") || GraphicsEnvironment.isHeadless()) {
+            HeadlessEngine.main(args);
+            return;
+        }
+        SwingUtilities.invokeLater(() -> new CourseRegistrationGUI().setVisible(true));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,287 @@
+package com.haseeb.registration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+//search-as-you-type over the catalog: a prefix trie on course codes plus an n-gram inverted index on names
+//
+//codes:  "CSC2" walks 4 trie nodes and then only visits the courses under that node
+//names:  every lower case name is cut into trigrams ("linear" -> lin, ine, nea, ear) and each trigram
+//        keeps a posting list of course numbers. A query is answered from its rarest trigram's list,
+//        checked against the other lists by binary search, and only the survivors are compared for real.
+//        1-2 letter queries use the first one or two letters of every word instead ("li" -> Linear)
+//
+//courses are indexed by their EnrollmentIndex number as they are added, which only ever grows,
+//so every posting list stays sorted just by appending
+class CourseSearchIndex {
+
+    private static class TrieNode {
+        char[] keys = new char[0]; //sorted
+        TrieNode[] kids = new TrieNode[0];
+        Course course; //course whose code ends here
+
+        TrieNode child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? kids[i] : null;
+        }
+
+        TrieNode childOrAdd(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) return kids[i];
+            i = -i - 1;
+            char[] k = new char[keys.length + 1];
+            TrieNode[] n = new TrieNode[kids.length + 1];
+            System.arraycopy(keys, 0, k, 0, i);
+            System.arraycopy(kids, 0, n, 0, i);
+            k[i] = c;
+            n[i] = new TrieNode();
+            System.arraycopy(keys, i, k, i + 1, keys.length - i);
+            System.arraycopy(kids, i, n, i + 1, kids.length - i);
+            keys = k;
+            kids = n;
+            return n[i];
+        }
+    }
+
+    private static final int NAME_BEST = 600; //best score a match on the name alone can get
+
+    private final TrieNode root = new TrieNode();
+    private final Map<String, IntList> grams = new HashMap<>(); //trigram -> course numbers, ascending
+    private final Map<String, IntList> wordStarts = new HashMap<>(); //first 1-2 letters of a word -> course numbers
+    private final List<Course> courses = new ArrayList<>(); //by course number
+    private final List<String> lowerNames = new ArrayList<>();
+    private final List<String> upperCodes = new ArrayList<>();
+    private long[] codeKeys = new long[16]; //first 9 chars of the code packed, so ties mostly compare as longs
+
+    void add(Course c) {
+        while (courses.size() <= c.idx) { courses.add(null); lowerNames.add(null); upperCodes.add(null); }
+        courses.set(c.idx, c);
+        String name = normalize(c.name);
+        lowerNames.set(c.idx, name);
+        String code = c.code.toUpperCase(Locale.ROOT);
+        upperCodes.set(c.idx, code);
+        if (c.idx >= codeKeys.length) codeKeys = Arrays.copyOf(codeKeys, Math.max(c.idx + 1, codeKeys.length * 2));
+        codeKeys[c.idx] = codeKey(c.code);
+
+        TrieNode n = root;
+        for (int i = 0; i < code.length(); i++) n = n.childOrAdd(code.charAt(i));
+        n.course = c;
+
+        for (int i = 0; i + 3 <= name.length(); i++) post(grams, name.substring(i, i + 3), c.idx);
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) == ' ' || (i > 0 && name.charAt(i - 1) != ' ')) continue;
+            post(wordStarts, name.substring(i, i + 1), c.idx);
+            if (i + 1 < name.length() && name.charAt(i + 1) != ' ') post(wordStarts, name.substring(i, i + 2), c.idx);
+        }
+    }
+
+    //7 bits per char, left aligned, so comparing keys compares the first 9 chars like String.compareTo does
+    private static long codeKey(String code) {
+        long k = 0;
+        for (int i = 0; i < 9; i++) k = k << 7 | (i < code.length() ? Math.min(code.charAt(i), 127) : 0);
+        return k;
+    }
+
+    //appends once per course, the same trigram twice in one name is still one entry
+    private static void post(Map<String, IntList> index, String key, int course) {
+        IntList l = index.computeIfAbsent(key, k -> new IntList());
+        if (l.size == 0 || l.data[l.size - 1] != course) l.add(course);
+    }
+
+    //lower case, anything that isn't a letter or digit becomes a single space
+    private static String normalize(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = Character.toLowerCase(s.charAt(i));
+            if (Character.isLetterOrDigit(ch)) sb.append(ch);
+            else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+        }
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') sb.setLength(end - 1);
+        return sb.toString();
+    }
+
+    //best matches first, at most limit of them
+    //an exact code beats a code prefix, which beats a name starting with the query,
+    //a word starting with it, and finally the query (or all its words) somewhere in the name
+    List<Course> search(String query, int limit) {
+        String code = query.trim().toUpperCase(Locale.ROOT);
+        String text = normalize(query);
+        if (code.isEmpty() || limit <= 0) return new ArrayList<>();
+
+        TopK best = new TopK(limit);
+        int[] codeHits = codeMatches(code, limit);
+        for (int idx : codeHits) best.offer(score(idx, code, text), idx);
+        //limit code matches already outrank every name match
+        if (!text.isEmpty() && codeHits.length < limit) {
+            //so every course whose code matches is in codeHits, anything else scores at most NAME_BEST
+            Arrays.sort(codeHits);
+            IntList named = nameMatches(text);
+            for (int i = 0; i < named.size; i++) {
+                int idx = named.data[i];
+                if (Arrays.binarySearch(codeHits, idx) >= 0) continue; //already offered with its code score
+                if (!best.mightTake(NAME_BEST, idx)) continue; //don't bother scoring it
+                best.offer(score(idx, code, text), idx);
+            }
+        }
+        return best.drain();
+    }
+
+    //keeps the limit best (score, course) pairs seen so far, ties go to the smaller code
+    //a min-heap in two int arrays: the worst kept match sits on top, so once it's full
+    //most candidates are turned away by a single comparison and nothing is allocated per candidate
+    private class TopK {
+        final int[] score, idx;
+        int size;
+
+        TopK(int limit) {
+            score = new int[limit];
+            idx = new int[limit];
+        }
+
+        //true if a ranks below b
+        boolean worse(int sa, int a, int sb, int b) {
+            if (sa != sb) return sa < sb;
+            if (codeKeys[a] != codeKeys[b]) return codeKeys[a] > codeKeys[b];
+            return courses.get(a).code.compareTo(courses.get(b).code) > 0;
+        }
+
+        void offer(int s, int c) {
+            if (size < score.length) {
+                int i = size++;
+                while (i > 0) { //sift up
+                    int p = (i - 1) / 2;
+                    if (!worse(s, c, score[p], idx[p])) break;
+                    score[i] = score[p];
+                    idx[i] = idx[p];
+                    i = p;
+                }
+                score[i] = s;
+                idx[i] = c;
+            } else if (worse(score[0], idx[0], s, c)) {
+                siftDown(s, c);
+            }
+        }
+
+        //puts (s, c) at the top and lets it sink to where it belongs
+        private void siftDown(int s, int c) {
+            int i = 0;
+            while (true) {
+                int l = 2 * i + 1;
+                if (l >= size) break;
+                int r = l + 1;
+                int m = r < size && worse(score[r], idx[r], score[l], idx[l]) ? r : l;
+                if (!worse(score[m], idx[m], s, c)) break;
+                score[i] = score[m];
+                idx[i] = idx[m];
+                i = m;
+            }
+            score[i] = s;
+            idx[i] = c;
+        }
+
+        //false if a course scoring at most s can't get in anymore
+        //once the top tier has filled up this turns away the rest with one long comparison
+        boolean mightTake(int s, int c) {
+            if (size < score.length || s > score[0]) return true;
+            return s == score[0] && codeKeys[c] <= codeKeys[idx[0]];
+        }
+
+        //best first
+        List<Course> drain() {
+            Course[] out = new Course[size];
+            while (size > 0) {
+                out[size - 1] = courses.get(idx[0]);
+                size--;
+                if (size > 0) siftDown(score[size], idx[size]);
+            }
+            return new ArrayList<>(Arrays.asList(out));
+        }
+    }
+
+    //code starts with the query, in code order, at most limit (that's all the heap can keep anyway)
+    private int[] codeMatches(String prefix, int limit) {
+        TrieNode n = root;
+        for (int i = 0; i < prefix.length() && n != null; i++) n = n.child(prefix.charAt(i));
+        IntList out = new IntList();
+        if (n != null) collect(n, out, limit);
+        return Arrays.copyOf(out.data, out.size);
+    }
+
+    private static void collect(TrieNode n, IntList out, int limit) {
+        if (out.size >= limit) return;
+        if (n.course != null) out.add(n.course.idx);
+        for (TrieNode kid : n.kids) collect(kid, out, limit);
+    }
+
+    //courses whose normalized name contains every word of the query
+    //the posting lists of all the query's grams are intersected smallest first, the running result
+    //only shrinks, and each step is a galloping merge, so "linear algebra" costs about as much as
+    //the rarer of its grams. Whatever survives is then checked against the real names
+    private IntList nameMatches(String text) {
+        String[] words = text.split(" ");
+        List<IntList> lists = new ArrayList<>();
+        for (String w : words) {
+            if (w.length() < 3) {
+                IntList l = wordStarts.get(w);
+                if (l == null) return new IntList();
+                if (!lists.contains(l)) lists.add(l);
+                continue;
+            }
+            for (int i = 0; i + 3 <= w.length(); i++) {
+                IntList l = grams.get(w.substring(i, i + 3));
+                if (l == null) return new IntList(); //a gram nobody has, nothing can match
+                if (!lists.contains(l)) lists.add(l);
+            }
+        }
+        lists.sort((x, y) -> Integer.compare(x.size, y.size));
+
+        IntList out = new IntList();
+        IntList first = lists.get(0);
+        out.data = Arrays.copyOf(first.data, Math.max(4, first.size));
+        out.size = first.size;
+        for (int k = 1; k < lists.size() && out.size > 0; k++) intersect(out, lists.get(k));
+
+        //grams only say the pieces are there, make sure the words really are
+        int n = 0;
+        next:
+        for (int i = 0; i < out.size; i++) {
+            String name = lowerNames.get(out.data[i]);
+            for (String w : words) if (!name.contains(w)) continue next;
+            out.data[n++] = out.data[i];
+        }
+        out.size = n;
+        return out;
+    }
+
+    //keeps only the values of a that are also in b, both ascending
+    private static void intersect(IntList a, IntList b) {
+        int n = 0, j = 0;
+        for (int i = 0; i < a.size && j < b.size; i++) {
+            int v = a.data[i];
+            //gallop: double the step until we're past v, then binary search the last step
+            int step = 1, lo = j;
+            while (lo + step < b.size && b.data[lo + step] < v) { lo += step; step <<= 1; }
+            int at = Arrays.binarySearch(b.data, lo, Math.min(b.size, lo + step + 1), v);
+            if (at >= 0) { a.data[n++] = v; j = at + 1; }
+            else j = -at - 1;
+        }
+        a.size = n;
+    }
+
+    private int score(int idx, String code, String text) {
+        String upper = upperCodes.get(idx);
+        if (upper.startsWith(code)) return upper.length() == code.length() ? 1000 : 800;
+        if (text.isEmpty()) return 0;
+        String name = lowerNames.get(idx);
+        int at = name.indexOf(text);
+        if (at == 0) return NAME_BEST;
+        if (at < 0) return 200; //every word is in there, just not together
+        while (at > 0 && name.charAt(at - 1) != ' ') at = name.indexOf(text, at + 1);
+        return at > 0 ? 500 : 300;
+    }
+}
@@ -0,0 +1,75 @@
+package com.haseeb.registration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+//reads a CSV file one line at a time, the whole file is never held in memory
+//supports "quoted, fields" and "" inside quotes, which is enough for course names with commas
+public class CsvReader {
+
+    interface RowHandler {
+        void row(int lineNo, List<String> fields);
+    }
+
+    //calls the handler for every non-blank line, fields are trimmed
+    static void forEachRow(Path file, RowHandler handler) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                fields.clear();
+                split(line, fields, field);
+                handler.row(lineNo, fields);
+            }
+        }
+    }
+
+    private static void split(String line, List<String> out, StringBuilder field) {
+        field.setLength(0);
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') { field.append('"'); i++; } //escaped quote
+                    else quoted = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                out.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        out.add(field.toString().trim());
+    }
+
+    //rough row count from the file size and the first few lines, used to pre-size maps
+    static int estimateRows(Path file) throws IOException {
+        long size = Files.size(file);
+        long sampled = 0;
+        int lines = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while (lines < 100 && (line = in.readLine()) != null) {
+                sampled += line.length() + 1;
+                lines++;
+            }
+        }
+        if (lines == 0) return 0;
+        return (int) Math.min(Integer.MAX_VALUE - 8, size / Math.max(1, sampled / lines) + 1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.haseeb.registration;
+
+import javax.swing.RepaintManager;
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+
+//how long the Swing event dispatch thread is kept busy by one thing, so UI jank is measured, not guessed
+//
+//events: an EventQueue pushed on top of the system one times every dispatchEvent
+//paints: a RepaintManager times every paintDirtyRegions, which is where all Swing painting happens
+//        (that runs inside an event as well, so a slow paint is also counted as a slow event)
+//anything that takes longer than the stall threshold is counted and goes to the log with what it was
+//
+//recording is two nanoTime calls and a LatencyHistogram.record, nothing is allocated per event.
+//An event that opens a modal dialog keeps dispatching the dialog's own events from inside it, so it
+//would look like one enormous stall: those are skipped, the events dispatched inside are timed instead
+class EdtMonitor {
+    final LatencyHistogram events = new LatencyHistogram(), paints = new LatencyHistogram();
+    private final long stallNanos;
+    private final LogSink log;
+    //only touched on the EDT
+    private long eventStalls, paintStalls;
+    private int depth; //dispatchEvent calls in progress, > 1 while a modal dialog runs its own loop
+    private boolean nested; //the outermost event dispatched others before it returned
+
+    EdtMonitor(long stallMillis, LogSink log) {
+        this.stallNanos = stallMillis * 1_000_000;
+        this.log = log;
+    }
+
+    //call once, on the EDT
+    void install() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new EventQueue() {
+            @Override protected void dispatchEvent(AWTEvent e) {
+                if (depth++ > 0) nested = true;
+                long t0 = System.nanoTime();
+                try {
+                    super.dispatchEvent(e);
+                } finally {
+                    eventDone(e, System.nanoTime() - t0);
+                }
+            }
+        });
+        RepaintManager.setCurrentManager(new RepaintManager() {
+            @Override public void paintDirtyRegions() {
+                long t0 = System.nanoTime();
+                try {
+                    super.paintDirtyRegions();
+                } finally {
+                    paintDone(System.nanoTime() - t0);
+                }
+            }
+        });
+    }
+
+    private void eventDone(AWTEvent e, long nanos) {
+        boolean outermost = --depth == 0;
+        if (outermost && nested) { //it was waiting on a dialog, not stalling
+            nested = false;
+            return;
+        }
+        events.record(nanos);
+        if (nanos >= stallNanos) {
+            eventStalls++;
+            log.log("UI stall: {} kept the event thread busy for {} ms", e.getClass().getSimpleName(), nanos / 1_000_000);
+        }
+    }
+
+    private void paintDone(long nanos) {
+        paints.record(nanos);
+        if (nanos >= stallNanos) {
+            paintStalls++;
+            log.log("UI stall: painting took {} ms", nanos / 1_000_000);
+        }
+    }
+
+    long getEventStalls() { return eventStalls; }
+    long getPaintStalls() { return paintStalls; }
+
+    void reset() {
+        events.reset();
+        paints.reset();
+        eventStalls = 0;
+        paintStalls = 0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.haseeb.registration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//may this student take that course as far as prerequisites go, transitively
+//(courses go by their catalog number, Course.number: on a ShardedBackend one index serves every shard)
+//(what they're already enrolled in, timetable and credits, is StudentLoad's business)
+//
+//prerequisites: every course that is somebody's prerequisite gets a bit number, and each course keeps
+//the bits of everything it needs before it, all the way down the chain (CSC301 -> CSC215 -> CSC101
+//means CSC301 needs both). Each student keeps the bits of the courses they completed, so the check is
+//"need & ~passed == 0", one AND per 64 prerequisite courses, no chains walked per request.
+//(a closure only keeps the words between its first and last set bit, prerequisite chains tend to get
+//bit numbers close together, so that's a word or two instead of one per 64 prerequisites in the catalog)
+//The closures only change when a course with prerequisites is added, so that only marks them stale
+//and they're rebuilt once, before the next batch uses them (refresh(), always under the backend lock).
+//A course's prerequisites have to exist before it does, so the graph can never have a cycle.
+//
+//threading: workers only read, completions and rebuilds happen under the backend lock between batches
+class EligibilityIndex {
+    private final List<int[]> direct = new ArrayList<>(); //by course number, its prerequisites' course numbers, null = none
+    private int[] bitOf = new int[0]; //course number -> its bit, -1 = nobody's prerequisite
+    private int bitCount;
+    private long[][] closure = new long[0][]; //by course number: bits of everything needed first, null = nothing
+    private int[] closureFrom = new int[0]; //closure[c][0] is word closureFrom[c], the zero words around it aren't kept
+    private boolean stale;
+
+    private final List<IntSet> completed = new ArrayList<>(); //by student number, course numbers passed before
+    private long[][] passed = new long[0][]; //the same as bits, null = none of them is a prerequisite
+
+    void addCourse(Course c) {
+        while (direct.size() <= c.number) direct.add(null);
+        if (bitOf.length <= c.number) {
+            int old = bitOf.length;
+            bitOf = Arrays.copyOf(bitOf, Math.max(16, (c.number + 1) * 2));
+            Arrays.fill(bitOf, old, bitOf.length, -1);
+        }
+    }
+
+    void addStudent(Student s) {
+        while (completed.size() <= s.idx) completed.add(null);
+        if (passed.length <= s.idx) passed = Arrays.copyOf(passed, Math.max(16, (s.idx + 1) * 2));
+    }
+
+    //course numbers the course needs directly, the closure catches up on the next refresh()
+    void setPrerequisites(Course c, int[] prerequisites) {
+        if (prerequisites.length == 0) return;
+        direct.set(c.number, prerequisites);
+        for (int p : prerequisites) if (bitOf[p] < 0) bitOf[p] = bitCount++;
+        stale = true;
+    }
+
+    //returns false if the student already had it
+    boolean complete(Student s, Course c) {
+        IntSet set = completed.get(s.idx);
+        if (set == null) completed.set(s.idx, set = new IntSet());
+        if (!set.add(c.number)) return false;
+        if (!stale && bitOf[c.number] >= 0) setBit(s.idx, bitOf[c.number]); //stale: refresh() redoes everyone anyway
+        return true;
+    }
+
+    boolean hasCompleted(Student s, Course c) {
+        IntSet set = completed.get(s.idx);
+        return set != null && set.contains(c.number);
+    }
+
+    //course numbers the student passed, in no particular order
+    int[] completedNumbers(int student) {
+        IntSet set = completed.get(student);
+        return set == null ? new int[0] : set.toArray();
+    }
+
+    //a few ANDs, refresh() must have run since the last setPrerequisites
+    boolean hasPrerequisites(Student s, Course c) {
+        long[] need = c.number < closure.length ? closure[c.number] : null; //courses added since have none
+        if (need == null) return true;
+        long[] has = passed[s.idx];
+        int from = closureFrom[c.number];
+        for (int w = 0; w < need.length; w++) {
+            if ((need[w] & ~(has == null || from + w >= has.length ? 0 : has[from + w])) != 0) return false;
+        }
+        return true;
+    }
+
+    //rebuilds the closures (and everyone's passed bits, new prerequisites may have been completed long ago)
+    //if a course with prerequisites was added since the last time, otherwise does nothing
+    void refresh() {
+        if (!stale) return;
+        int n = direct.size();
+        closure = new long[n][];
+        closureFrom = new int[n];
+        long[] all = new long[(bitCount + 63) >>> 6]; //one closure at a time is put together here
+        //depth first from every course, a course's closure is done right after all of its prerequisites'
+        int[] stack = new int[n], next = new int[n];
+        for (int start = 0; start < n; start++) {
+            if (direct.get(start) == null || closure[start] != null) continue;
+            int sp = 0;
+            stack[sp++] = start;
+            while (sp > 0) {
+                int c = stack[sp - 1];
+                int[] needs = direct.get(c);
+                if (next[c] < needs.length) {
+                    int p = needs[next[c]++];
+                    if (direct.get(p) != null && closure[p] == null) stack[sp++] = p;
+                    continue;
+                }
+                int lo = Integer.MAX_VALUE, hi = -1;
+                for (int p : needs) {
+                    int w = bitOf[p] >>> 6;
+                    all[w] |= 1L << bitOf[p];
+                    lo = Math.min(lo, w);
+                    hi = Math.max(hi, w);
+                    long[] more = closure[p];
+                    if (more == null) continue;
+                    int from = closureFrom[p];
+                    for (int k = 0; k < more.length; k++) all[from + k] |= more[k];
+                    lo = Math.min(lo, from);
+                    hi = Math.max(hi, from + more.length - 1);
+                }
+                closure[c] = Arrays.copyOfRange(all, lo, hi + 1);
+                closureFrom[c] = lo;
+                Arrays.fill(all, lo, hi + 1, 0);
+                sp--;
+            }
+        }
+        Arrays.fill(passed, null);
+        for (int s = 0; s < completed.size(); s++) {
+            if (completed.get(s) == null) continue;
+            for (int c : completed.get(s).toArray()) if (bitOf[c] >= 0) setBit(s, bitOf[c]);
+        }
+        stale = false;
+    }
+
+    private void setBit(int student, int bit) {
+        long[] has = passed[student];
+        if (has == null || has.length <= bit >>> 6) {
+            has = has == null ? new long[(bitCount + 63) >>> 6] : Arrays.copyOf(has, (bitCount + 63) >>> 6);
+            passed[student] = has;
+        }
+        has[bit >>> 6] |= 1L << bit;
+    }
+}
@@ -0,0 +1,78 @@
+package com.haseeb.registration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+//both directions of "who is in what": student -> courses and course -> roster
+//courses and students are numbered 0,1,2... as they are added so everything is array lookups
+//(students are numbered by StudentStore, a student's set is only made once they enroll in something)
+class EnrollmentIndex {
+    private final List<Course> courses = new ArrayList<>();
+    private final List<IntSet> coursesByStudent = new ArrayList<>();
+    private final List<IntList> rosters = new ArrayList<>();
+
+    void addCourse(Course c) {
+        c.idx = courses.size();
+        courses.add(c);
+        rosters.add(new IntList());
+    }
+
+    void addStudent(Student s) {
+        while (coursesByStudent.size() <= s.idx) coursesByStudent.add(null);
+    }
+
+    boolean isEnrolled(Student s, Course c) {
+        IntSet set = coursesByStudent.get(s.idx);
+        return set != null && set.contains(c.idx);
+    }
+
+    //returns false if the student already had the course
+    boolean enroll(Student s, Course c) {
+        IntSet set = coursesByStudent.get(s.idx);
+        if (set == null) coursesByStudent.set(s.idx, set = new IntSet());
+        if (!set.add(c.idx)) return false;
+        rosters.get(c.idx).add(s.idx);
+        return true;
+    }
+
+    //returns false if the student didn't have the course
+    boolean unenroll(Student s, Course c) {
+        IntSet set = coursesByStudent.get(s.idx);
+        if (set == null || !set.remove(c.idx)) return false;
+        rosters.get(c.idx).removeValue(s.idx);
+        return true;
+    }
+
+    int courseCount(Student s) {
+        IntSet set = coursesByStudent.get(s.idx);
+        return set == null ? 0 : set.size();
+    }
+
+    int courseTotal() { return courses.size(); }
+    Course courseAt(int idx) { return courses.get(idx); }
+
+    //codes of the student's courses, sorted
+    List<String> coursesOf(Student s) {
+        IntSet set = coursesByStudent.get(s.idx);
+        if (set == null) return new ArrayList<>();
+        int[] ids = set.toArray();
+        List<String> l = new ArrayList<>(ids.length);
+        for (int id : ids) l.add(courses.get(id).code);
+        Collections.sort(l);
+        return l;
+    }
+
+    //course numbers of the student's courses, in no particular order
+    int[] courseNumbers(int student) {
+        IntSet set = coursesByStudent.get(student);
+        return set == null ? new int[0] : set.toArray();
+    }
+
+    //student numbers in enrollment order
+    int[] roster(Course c) {
+        IntList r = rosters.get(c.idx);
+        return Arrays.copyOf(r.data, r.size);
+    }
+}
@@ -0,0 +1,102 @@
+package com.haseeb.registration;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//bounded, lock-free ring buffer of log events
+//
+//BackendSystem logs a constant template like "Request queued: {} -> {}" plus up to three arguments,
+//nothing is concatenated on the calling thread. The UI drains the buffer on a timer and only then
+//turns events into text, so a 50k request batch costs a few slot writes per request instead of
+//a string build + JTextArea append each.
+//if the reader falls behind, new events are dropped (and counted) instead of growing memory
+public class EventLog implements LogSink {
+
+    private final int mask;
+    private final String[] templates;
+    private final Object[] first, second, third;
+    private final AtomicLongArray published; //slot -> sequence number last written there
+    private final AtomicLong tail = new AtomicLong(); //next sequence to hand out
+    private volatile long head; //next sequence to read, only the reader moves it
+    private final LongAdder dropped = new LongAdder();
+
+    //capacity is rounded up to a power of two
+    public EventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        templates = new String[size];
+        first = new Object[size];
+        second = new Object[size];
+        third = new Object[size];
+        long[] init = new long[size];
+        Arrays.fill(init, -1);
+        published = new AtomicLongArray(init);
+    }
+
+    //safe from any thread, never blocks
+    @Override
+    public void log(String template, Object a, Object b, Object c) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head > mask) { //full
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+
+        int i = (int) (seq & mask);
+        templates[i] = template;
+        first[i] = a;
+        second[i] = b;
+        third[i] = c;
+        published.set(i, seq); //volatile write, makes the slot visible to the reader
+    }
+
+    //formats up to max waiting events into out (one line each), returns how many were taken
+    //only one thread may drain (the EDT in the GUI)
+    public int drain(StringBuilder out, int max) {
+        long h = head;
+        int n = 0;
+        while (n < max) {
+            int i = (int) (h & mask);
+            if (published.get(i) != h) break; //not written yet
+            appendFormatted(out, templates[i], first[i], second[i], third[i]);
+            out.append('\n');
+            templates[i] = null; first[i] = null; second[i] = null; third[i] = null; //don't keep args alive
+            h++;
+            n++;
+        }
+        head = h;
+        return n;
+    }
+
+    //events dropped since the last call
+    public long takeDropped() {
+        return dropped.sumThenReset();
+    }
+
+    public static String format(String template, Object a, Object b, Object c) {
+        StringBuilder sb = new StringBuilder(template.length() + 32);
+        appendFormatted(sb, template, a, b, c);
+        return sb.toString();
+    }
+
+    //replaces each {} in the template with the next argument
+    private static void appendFormatted(StringBuilder out, String template, Object a, Object b, Object c) {
+        if (template == RAW) { //LogSink.log(message): already the finished text
+            out.append(a);
+            return;
+        }
+        int arg = 0, from = 0, at;
+        while ((at = template.indexOf("{}", from)) >= 0) {
+            out.append(template, from, at);
+            out.append(arg == 0 ? a : arg == 1 ? b : c);
+            arg++;
+            from = at + 2;
+        }
+        out.append(template, from, template.length());
+    }
+}
@@ -0,0 +1,29 @@
+package com.haseeb.registration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+//first come first served, ignores priorities and never sheds
+public class FifoScheduler implements RequestScheduler {
+    private final ArrayDeque<RegistrationRequest> queue = new ArrayDeque<>();
+    private final int capacity;
+
+    public FifoScheduler(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override public boolean offer(RegistrationRequest req) {
+        if (queue.size() >= capacity) return false;
+        queue.addLast(req);
+        return true;
+    }
+
+    @Override public void restore(RegistrationRequest req) { queue.addLast(req); }
+    @Override public RegistrationRequest shedFor(int priority) { return null; }
+    @Override public RegistrationRequest poll() { return queue.pollFirst(); }
+    @Override public int size() { return queue.size(); }
+    @Override public int capacity() { return capacity; }
+    @Override public void clear() { queue.clear(); }
+    @Override public List<RegistrationRequest> toList() { return new ArrayList<>(queue); }
+}
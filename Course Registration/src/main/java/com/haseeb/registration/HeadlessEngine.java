@@ -0,0 +1,103 @@
+package com.haseeb.registration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+//runs the backend without any window, for scripts and servers
+//
+//  java com.haseeb.registration.HeadlessEngine [--data DIR] [--courses FILE] [--students FILE]
+//                                               [--requests FILE] [--process] [--workers N] [--serve PORT]
+//                                               [--bind HOST]
+//
+//  --data      keep state in DIR (same journal/snapshot format as the GUI), default: in memory only
+//  --courses   bulk import courses (code,name,credits,capacity)
+//  --students  bulk import students (id,name)
+//  --requests  queue requests from a CSV (studentId,courseCode[,priority]), priority = HIGH, NORMAL or LOW
+//              courseCode can be several codes separated by spaces, one all-or-nothing bundle
+//  --process   process the whole queue before exiting
+//  --workers   worker threads for --process (default: all cores)
+//  --serve     afterwards keep running as an HTTP/JSON server on PORT (see RegistrationServer)
+//  --bind      address --serve listens on (default: loopback only), e.g. 0.0.0.0 to let other machines in,
+//              the API has no authentication
+//
+//log messages go to stdout. CourseRegistrationGUI --headless ... ends up here too.
+public class HeadlessEngine {
+
+    public static void main(String[] args) throws IOException {
+        Path data = null, courses = null, students = null, requests = null;
+        boolean process = false;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int port = -1;
+        String host = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--data": data = Paths.get(value(args, ++i)); break;
+                case "--courses": courses = Paths.get(value(args, ++i)); break;
+                case "--students": students = Paths.get(value(args, ++i)); break;
+                case "--requests": requests = Paths.get(value(args, ++i)); break;
+                case "--process": process = true; break;
+                case "--workers": workers = Integer.parseInt(value(args, ++i)); break;
+                case "--serve": port = Integer.parseInt(value(args, ++i)); break;
+                case "--bind": host = value(args, ++i); break;
+                case "--headless": break; //forwarded from the GUI's main
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        BackendSystem backend = new BackendSystem(LogSink.of(System.out::println), data);
+        backend.getMetrics().registerMBean();
+        boolean serving = false;
+        try {
+            if (courses != null) System.out.println(backend.importCourses(courses));
+            if (students != null) System.out.println(backend.importStudents(students));
+            if (requests != null) {
+                CsvReader.forEachRow(requests, (lineNo, f) -> {
+                    if (f.size() < 2) return;
+                    String[] codes = f.get(1).trim().split("\\s+");
+                    int priority = f.size() >= 3 ? priority(f.get(2)) : RequestScheduler.PRIORITY_NORMAL;
+                    if (codes.length > 1) backend.queueBundle(f.get(0), List.of(codes), priority);
+                    else backend.queueRequest(f.get(0), codes[0], priority);
+                });
+            }
+            if (process) {
+                BackendSystem.BatchProgress p = backend.processQueueInChunks(Integer.MAX_VALUE, workers, () -> false, x -> { });
+                System.out.println("Processed " + p.processed + " requests: " + p.succeeded + " succeeded, " + p.failed() + " failed");
+            }
+            if (port >= 0) {
+                RegistrationServer server = new RegistrationServer(backend);
+                if (host == null) server.start(port);
+                else server.start(host, port);
+                serving = true;
+                //the server's own thread keeps the JVM alive, Ctrl+C saves and stops
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    server.stop();
+                    backend.close();
+                }));
+                System.out.println("Serving on http://" + (host == null ? "localhost" : host) + ":" + server.getPort() + "/ (Ctrl+C to stop)");
+            }
+        } finally {
+            if (!serving) backend.close();
+        }
+    }
+
+    private static int priority(String name) {
+        switch (name.trim().toUpperCase()) {
+            case "HIGH": return RequestScheduler.PRIORITY_HIGH;
+            case "LOW": return RequestScheduler.PRIORITY_LOW;
+            default: return RequestScheduler.PRIORITY_NORMAL;
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            System.err.println("Missing value for " + args[i - 1]);
+            System.exit(2);
+        }
+        return args[i];
+    }
+}
@@ -0,0 +1,27 @@
+package com.haseeb.registration;
+
+import java.util.Arrays;
+
+//growable int array, a course roster is just a list of student numbers
+class IntList {
+    int[] data = new int[4];
+    int size;
+
+    void add(int v) {
+        if (size == data.length) data = Arrays.copyOf(data, size * 2);
+        data[size++] = v;
+    }
+    int get(int i) { return data[i]; }
+
+    //removes the first occurrence of v and keeps the order of the rest, false if v isn't there
+    boolean removeValue(int v) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == v) {
+                System.arraycopy(data, i + 1, data, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.haseeb.registration;
+
+import java.util.Arrays;
+
+//small open addressing set of ints (linear probing), holds the course numbers of one student
+//a handful of ints in one array instead of an ArrayList of Strings
+class IntSet {
+    private static final int EMPTY = -1;
+    private int[] table = {EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY};
+    private int size;
+
+    int size() { return size; }
+
+    boolean contains(int v) {
+        int mask = table.length - 1;
+        for (int i = mix(v) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == v) return true;
+        }
+        return false;
+    }
+
+    //returns false if v was already there
+    boolean add(int v) {
+        if ((size + 1) * 2 > table.length) grow(); //keep it at most half full
+        int mask = table.length - 1;
+        int i = mix(v) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == v) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = v;
+        size++;
+        return true;
+    }
+
+    //returns false if v wasn't there
+    boolean remove(int v) {
+        int mask = table.length - 1;
+        int i = mix(v) & mask;
+        while (table[i] != v) {
+            if (table[i] == EMPTY) return false;
+            i = (i + 1) & mask;
+        }
+        //pull back later entries of the same probe run so lookups never hit a false EMPTY
+        int hole = i;
+        for (int j = (i + 1) & mask; table[j] != EMPTY; j = (j + 1) & mask) {
+            int home = mix(table[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[hole] = table[j];
+                hole = j;
+            }
+        }
+        table[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    int[] toArray() {
+        int[] out = new int[size];
+        int n = 0;
+        for (int v : table) if (v != EMPTY) out[n++] = v;
+        return out;
+    }
+
+    private void grow() {
+        int[] old = table;
+        table = new int[old.length * 2];
+        Arrays.fill(table, EMPTY);
+        size = 0;
+        for (int v : old) if (v != EMPTY) add(v);
+    }
+
+    private static int mix(int v) { return v * 0x9E3779B9 >>> 16 ^ v; }
+}
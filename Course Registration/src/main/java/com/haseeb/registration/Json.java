@@ -0,0 +1,127 @@
+package com.haseeb.registration;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+//just enough JSON for RegistrationServer, no library needed
+//reading: one flat object of strings/numbers/booleans/null ({"code":"CSC215","credits":3})
+//writing: values go straight to a Writer, nothing is built up in memory first
+final class Json {
+    private Json() { }
+
+    //flat object -> field name to raw value (strings unescaped, numbers/booleans as written, null as null)
+    //throws IllegalArgumentException on anything else
+    static Map<String, String> parseObject(String text) {
+        Map<String, String> out = new HashMap<>();
+        int[] pos = {skip(text, 0)};
+        expect(text, pos, '{');
+        if (peek(text, pos) == '}') { pos[0]++; return out; }
+        while (true) {
+            String key = readString(text, pos);
+            expect(text, pos, ':');
+            out.put(key, readValue(text, pos));
+            char c = peek(text, pos);
+            pos[0]++;
+            if (c == '}') break;
+            if (c != ',') throw new IllegalArgumentException("expected , or } at " + (pos[0] - 1));
+        }
+        if (skip(text, pos[0]) != text.length()) throw new IllegalArgumentException("trailing data after object");
+        return out;
+    }
+
+    private static int skip(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static char peek(String s, int[] pos) {
+        pos[0] = skip(s, pos[0]);
+        if (pos[0] >= s.length()) throw new IllegalArgumentException("unexpected end of JSON");
+        return s.charAt(pos[0]);
+    }
+
+    private static void expect(String s, int[] pos, char c) {
+        if (peek(s, pos) != c) throw new IllegalArgumentException("expected " + c + " at " + pos[0]);
+        pos[0]++;
+    }
+
+    private static String readValue(String s, int[] pos) {
+        char c = peek(s, pos);
+        if (c == '"') return readString(s, pos);
+        if (c == '{' || c == '[') throw new IllegalArgumentException("nested values are not supported");
+        int start = pos[0];
+        while (pos[0] < s.length() && ",} \t\r\n".indexOf(s.charAt(pos[0])) < 0) pos[0]++;
+        String raw = s.substring(start, pos[0]);
+        if (raw.isEmpty()) throw new IllegalArgumentException("missing value at " + start);
+        return raw.equals("null") ? null : raw;
+    }
+
+    private static String readString(String s, int[] pos) {
+        expect(s, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos[0] >= s.length()) throw new IllegalArgumentException("unterminated string");
+            char c = s.charAt(pos[0]++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') { sb.append(c); continue; }
+            if (pos[0] >= s.length()) throw new IllegalArgumentException("unterminated string");
+            char e = s.charAt(pos[0]++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > s.length()) throw new IllegalArgumentException("bad \\u escape");
+                    sb.append((char) Integer.parseInt(s.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default: sb.append(e); //  \" \\ \/
+            }
+        }
+    }
+
+    //writes s as a quoted JSON string
+    static void string(Writer out, String s) throws IOException {
+        out.write('"');
+        int from = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) continue;
+            out.write(s, from, i - from);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default: out.write(String.format("\\u%04x", (int) c));
+            }
+            from = i + 1;
+        }
+        out.write(s, from, s.length() - from);
+        out.write('"');
+    }
+
+    //"name": followed by the value
+    static void field(Writer out, String name, String value) throws IOException {
+        string(out, name);
+        out.write(':');
+        string(out, value);
+    }
+
+    static void field(Writer out, String name, long value) throws IOException {
+        string(out, name);
+        out.write(':');
+        out.write(Long.toString(value));
+    }
+
+    static void field(Writer out, String name, boolean value) throws IOException {
+        string(out, name);
+        out.write(':');
+        out.write(value ? "true" : "false");
+    }
+}
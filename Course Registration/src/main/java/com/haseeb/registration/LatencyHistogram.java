@@ -0,0 +1,90 @@
+package com.haseeb.registration;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//fixed size, log-linear histogram of nanosecond timings, safe to record from any number of threads
+//
+//every power of two is split into 8 buckets, so a value is known to within 12.5%
+//record() is a couple of shifts and two atomic adds: no allocation, no locks, no resizing,
+//cheap enough to leave switched on around every request
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3, SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong(), sum = new AtomicLong(), max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        total.incrementAndGet();
+        sum.addAndGet(nanos);
+        long m;
+        while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) { }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    //values below 8 get a bucket each, above that 8 buckets per power of two
+    private static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    //largest value that lands in bucket i
+    private static long upperBound(int i) {
+        if (i < SUB) return i;
+        int exp = i / SUB + SUB_BITS - 1, sub = i % SUB;
+        long lower = (long) (SUB + sub) << (exp - SUB_BITS);
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+
+    //reads the buckets once and works out the usual percentiles from that copy
+    //(recording may carry on meanwhile, the summary is just a little behind)
+    public Summary summary() {
+        long[] c = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += c[i] = counts.get(i);
+        long mx = max.get();
+        return new Summary(n, n == 0 ? 0 : sum.get() / Math.max(1, total.get()),
+                percentile(c, n, 0.50, mx), percentile(c, n, 0.90, mx),
+                percentile(c, n, 0.99, mx), percentile(c, n, 0.999, mx), mx);
+    }
+
+    private static long percentile(long[] c, long n, double p, long max) {
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * n)), seen = 0;
+        for (int i = 0; i < c.length; i++) {
+            seen += c[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    //what JMX shows for one histogram (getters so it maps to CompositeData)
+    public static class Summary {
+        final long count, mean, p50, p90, p99, p999, max;
+
+        Summary(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+            this.count = count; this.mean = mean; this.p50 = p50; this.p90 = p90;
+            this.p99 = p99; this.p999 = p999; this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public long getMeanNanos() { return mean; }
+        public long getP50Nanos() { return p50; }
+        public long getP90Nanos() { return p90; }
+        public long getP99Nanos() { return p99; }
+        public long getP999Nanos() { return p999; }
+        public long getMaxNanos() { return max; }
+    }
+}
@@ -0,0 +1,241 @@
+package com.haseeb.registration;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+//simulates a registration rush against a headless backend and reports how it held up
+//
+//  java com.haseeb.registration.LoadGenerator [--students N] [--courses N] [--capacity N] [--requests N]
+//                                              [--rate PER_SEC] [--zipf S] [--duplicates P]
+//                                              [--workers N] [--batch N] [--seed N]
+//                                              [--seniors P] [--queue-limit N] [--meetings P]
+//                                              [--credit-limit N] [--shards N]
+//
+//one thread queues requests (at --rate per second, 0 = as fast as possible) while another keeps
+//processing the queue in chunks of --batch. Course popularity follows a Zipf distribution with
+//exponent --zipf (0 = uniform, higher = a few very hot courses) and a --duplicates fraction of
+//requests re-send an earlier student/course pair, like students hammering the button.
+//a --seniors fraction is queued with high priority, and --queue-limit caps the queue so
+//admission control (shedding low priority requests, refusing the rest) kicks in.
+//a --meetings fraction of courses gets a weekly meeting time (135 possible slots, so plenty
+//of clashes), which turns on the timetable conflict check for them. --credit-limit caps the credits
+//(1 to 4 per course) one student can be enrolled in.
+//--shards splits the courses over N engines (see ShardedBackend), each processing its own queue on its
+//own thread with --workers workers (default: the cores divided between the shards); --queue-limit is
+//split between them too. --shards 1 is a single plain engine.
+public class LoadGenerator {
+
+    int students = 100_000, courses = 1_000, capacity = 60, requests = 200_000;
+    double rate = 0, zipf = 1.0, duplicates = 0.05, seniors = 0.1, meetings = 0;
+    int queueLimit = BackendSystem.DEFAULT_QUEUE_CAPACITY, creditLimit = BackendSystem.DEFAULT_CREDIT_LIMIT;
+    int workers = 0, batch = 5_000, shards = 1; //workers 0 = cores / shards
+    long seed = 42;
+
+    public static void main(String[] args) {
+        LoadGenerator g = new LoadGenerator();
+        for (int i = 0; i < args.length; i++) {
+            String v = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--students": g.students = Integer.parseInt(v); i++; break;
+                case "--courses": g.courses = Integer.parseInt(v); i++; break;
+                case "--capacity": g.capacity = Integer.parseInt(v); i++; break;
+                case "--requests": g.requests = Integer.parseInt(v); i++; break;
+                case "--rate": g.rate = Double.parseDouble(v); i++; break;
+                case "--zipf": g.zipf = Double.parseDouble(v); i++; break;
+                case "--duplicates": g.duplicates = Double.parseDouble(v); i++; break;
+                case "--workers": g.workers = Integer.parseInt(v); i++; break;
+                case "--batch": g.batch = Integer.parseInt(v); i++; break;
+                case "--seed": g.seed = Long.parseLong(v); i++; break;
+                case "--seniors": g.seniors = Double.parseDouble(v); i++; break;
+                case "--queue-limit": g.queueLimit = Integer.parseInt(v); i++; break;
+                case "--meetings": g.meetings = Double.parseDouble(v); i++; break;
+                case "--credit-limit": g.creditLimit = Integer.parseInt(v); i++; break;
+                case "--shards": g.shards = Math.max(1, Integer.parseInt(v)); i++; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if (g.workers <= 0) g.workers = Math.max(1, Runtime.getRuntime().availableProcessors() / g.shards);
+        g.run();
+    }
+
+    private ShardedBackend backend;
+    private long[] queueLatency; //per request, in the order they were sent
+    private volatile boolean producerDone;
+    private int processed, succeeded;
+    private long[] batchLatency = new long[64];
+    private int batches;
+
+    void run() {
+        System.out.printf("Setting up %,d courses (capacity %d) and %,d students...%n", courses, capacity, students);
+        backend = new ShardedBackend((t, a, b, c) -> { }, shards, null); //no logging, we only want numbers
+        backend.getMetrics().registerMBean(); //watch it live in jconsole while it runs
+        backend.setScheduler(() -> new PriorityScheduler(Math.max(1, queueLimit / shards)));
+        backend.setCreditLimit(creditLimit);
+        String[] courseCodes = new String[courses];
+        String[] studentIds = new String[students];
+        Random setup = new Random(seed);
+        for (int i = 0; i < courses; i++) {
+            courseCodes[i] = String.format("LG%06d", i);
+            backend.addCourse(courseCodes[i], "Load Course " + i, 1 + i % 4, capacity,
+                    setup.nextDouble() < meetings ? meetingTime(setup) : "");
+        }
+        for (int i = 0; i < students; i++) {
+            studentIds[i] = String.format("LG-%07d", i);
+            backend.addStudent(studentIds[i], "Load Student " + i);
+        }
+
+        queueLatency = new long[requests];
+        Thread processor = new Thread(this::processLoop, "load-processor");
+
+        System.out.printf("Sending %,d requests (%s, zipf %.2f, %.1f%% duplicates, %d shards x %d workers)...%n",
+                requests, rate > 0 ? String.format("%,.0f req/s", rate) : "unthrottled", zipf, duplicates * 100, shards, workers);
+        Random r = new Random(seed);
+        double[] cdf = zipfCdf(courses, zipf);
+        int[] sentStudent = new int[requests], sentCourse = new int[requests];
+
+        long start = System.nanoTime();
+        processor.start();
+        for (int i = 0; i < requests; i++) {
+            if (rate > 0) { //open loop: request i is due at start + i / rate
+                long due = start + (long) (i * 1e9 / rate);
+                long wait = due - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+            }
+            int s, c;
+            if (i > 0 && r.nextDouble() < duplicates) { //re-send an earlier pair
+                int j = r.nextInt(i);
+                s = sentStudent[j];
+                c = sentCourse[j];
+            } else {
+                s = r.nextInt(students);
+                c = sample(cdf, r.nextDouble());
+            }
+            sentStudent[i] = s;
+            sentCourse[i] = c;
+
+            int priority = r.nextDouble() < seniors ? RequestScheduler.PRIORITY_HIGH : RequestScheduler.PRIORITY_NORMAL;
+            long t0 = System.nanoTime();
+            backend.queueRequest(studentIds[s], courseCodes[c], priority);
+            queueLatency[i] = System.nanoTime() - t0;
+        }
+        long sendEnd = System.nanoTime();
+        producerDone = true;
+        try {
+            processor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long end = System.nanoTime();
+        report(sendEnd - start, end - start);
+    }
+
+    //keeps draining the queue until the producer is finished and nothing is left
+    private void processLoop() {
+        while (true) {
+            if (backend.getQueueSize() == 0) {
+                if (producerDone && backend.getQueueSize() == 0) return;
+                LockSupport.parkNanos(100_000);
+                continue;
+            }
+            long t0 = System.nanoTime();
+            BackendSystem.BatchProgress p = backend.processQueueInChunks(batch, workers, () -> false);
+            processed += p.processed;
+            succeeded += p.succeeded;
+            if (batches == batchLatency.length) batchLatency = Arrays.copyOf(batchLatency, batches * 2);
+            batchLatency[batches++] = System.nanoTime() - t0;
+        }
+    }
+
+    private void report(long sendNanos, long totalNanos) {
+        System.out.println();
+        System.out.printf("Elapsed %.2f s  (sending took %.2f s)%n", totalNanos / 1e9, sendNanos / 1e9);
+        System.out.printf("Throughput: offered %,.0f req/s, processed %,.0f req/s%n",
+                requests / (sendNanos / 1e9), processed / (totalNanos / 1e9));
+        printPercentiles("queueRequest latency", queueLatency, requests);
+        printPercentiles("batch latency       ", batchLatency, batches);
+        //the scheduler doesn't serve in send order, so these come from the backend's own histograms
+        printSummary("queue wait          ", backend.getMetrics().getQueueWaitLatency());
+        printSummary("registration step   ", backend.getMetrics().getRequestProcessingLatency());
+
+        int failed = processed - succeeded;
+        RegistrationMetrics m = backend.getMetrics();
+        if (m.getRequestsShed() + m.getRequestsRefused() > 0) {
+            System.out.printf("Queue full: %,d shed, %,d refused (limit %,d)%n", m.getRequestsShed(), m.getRequestsRefused(), queueLimit);
+        }
+        System.out.printf("Answered at enqueue: %,d coalesced with a queued duplicate, %,d already enrolled/waitlisted%n",
+                m.getRequestsCoalesced(), m.getRequestsShortCircuited());
+        long waitlisted = m.getRequestsWaitlisted();
+        long clashes = m.getRequestsFailedTimeConflict(), overLimit = m.getRequestsFailedCreditLimit();
+        System.out.printf("Outcomes: %,d succeeded (%.1f%%), %,d waitlisted, %,d time conflicts, %,d over the credit limit, "
+                + "%,d failed (full or duplicate)%n", succeeded, 100.0 * succeeded / Math.max(1, processed), waitlisted,
+                clashes, overLimit, failed - waitlisted - clashes - overLimit);
+
+        int full = 0;
+        long seats = 0, taken = 0;
+        for (RegistrationSnapshot.CourseState c : backend.getAllCourses(1)) {
+            if (c.isFull()) full++;
+            seats += c.getCapacity();
+            taken += c.getEnrolled();
+        }
+        System.out.printf("Courses: %,d of %,d full, %.1f%% of all seats filled%n", full, courses, 100.0 * taken / Math.max(1, seats));
+        System.out.print("Most free seats left: ");
+        for (RegistrationSnapshot.CourseState c : backend.getMostAvailable(5)) System.out.print(c.getCode() + "=" + c.getAvailable() + " ");
+        System.out.println();
+    }
+
+    private static void printPercentiles(String label, long[] samples, int n) {
+        if (n == 0) {
+            System.out.println(label + ": no samples");
+            return;
+        }
+        long[] s = Arrays.copyOf(samples, n);
+        Arrays.sort(s);
+        System.out.printf("%s: p50 %s  p90 %s  p99 %s  p99.9 %s  max %s  (n=%,d)%n", label,
+                time(s[pct(n, 0.50)]), time(s[pct(n, 0.90)]), time(s[pct(n, 0.99)]), time(s[pct(n, 0.999)]), time(s[n - 1]), n);
+    }
+
+    private static void printSummary(String label, LatencyHistogram.Summary s) {
+        System.out.printf("%s: p50 %s  p90 %s  p99 %s  p99.9 %s  max %s  (n=%,d, from RegistrationMetrics)%n", label,
+                time(s.getP50Nanos()), time(s.getP90Nanos()), time(s.getP99Nanos()), time(s.getP999Nanos()),
+                time(s.getMaxNanos()), s.getCount());
+    }
+
+    private static int pct(int n, double p) {
+        return Math.max(0, Math.min(n - 1, (int) Math.ceil(p * n) - 1));
+    }
+
+    private static String time(long nanos) {
+        if (nanos < 10_000) return nanos + "ns";
+        if (nanos < 10_000_000) return String.format("%.1fus", nanos / 1e3);
+        return String.format("%.1fms", nanos / 1e6);
+    }
+
+    //75 minutes on MW, TR or F, starting on a random quarter hour from 08:00 to 19:00
+    private static String meetingTime(Random r) {
+        String[] days = {"MW", "TR", "F"};
+        int start = 8 * 60 + 15 * r.nextInt(45);
+        return String.format("%s %02d:%02d-%02d:%02d", days[r.nextInt(days.length)],
+                start / 60, start % 60, (start + 75) / 60, (start + 75) % 60);
+    }
+
+    //cumulative probabilities for ranks 0..n-1 with weight 1 / (rank + 1)^s
+    private static double[] zipfCdf(int n, double s) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, s);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int i = Arrays.binarySearch(cdf, u);
+        return Math.min(cdf.length - 1, i >= 0 ? i : -i - 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.haseeb.registration;
+
+import java.util.function.Consumer;
+
+//where BackendSystem sends its messages: a constant template with {} placeholders plus up to three arguments
+//implementations decide when (and whether) the text is actually built
+public interface LogSink {
+    String RAW = "{}";
+
+    void log(String template, Object a, Object b, Object c);
+
+    //finished text, not a template: it's passed as the argument of a bare "{}" so it is never scanned
+    //for placeholders, a "{}" that came in with the data (a course name, say) is printed as it is
+    default void log(String message) { log(RAW, message, null, null); }
+    default void log(String template, Object a) { log(template, a, null, null); }
+    default void log(String template, Object a, Object b) { log(template, a, b, null); }
+
+    //formats every event straight away, for callers that just want strings (tests, headless runs)
+    static LogSink of(Consumer<String> out) {
+        return (t, a, b, c) -> out.accept(EventLog.format(t, a, b, c));
+    }
+}
@@ -0,0 +1,93 @@
+package com.haseeb.registration;
+
+import java.util.Arrays;
+
+//open addressing map from long to int (linear probing), same scheme as LongSet
+//keys must not be negative, -1 marks an empty slot
+class LongIntMap {
+    private static final long EMPTY = -1;
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap() {
+        this(16);
+    }
+
+    LongIntMap(int expected) {
+        int cap = 16;
+        while (cap < expected * 2) cap <<= 1;
+        keys = new long[cap];
+        values = new int[cap];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() { return size; }
+
+    //value for k, or missing if k isn't there
+    int get(long k, int missing) {
+        int mask = keys.length - 1;
+        for (int i = mix(k) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == k) return values[i];
+        }
+        return missing;
+    }
+
+    //returns false (and leaves the old value) if k was already there
+    boolean putIfAbsent(long k, int v) {
+        if ((size + 1) * 2 > keys.length) grow(); //keep it at most half full
+        int mask = keys.length - 1;
+        int i = mix(k) & mask;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == k) return false;
+            i = (i + 1) & mask;
+        }
+        keys[i] = k;
+        values[i] = v;
+        size++;
+        return true;
+    }
+
+    //adds delta to k's value (a missing k counts as 0), returns the new value
+    int add(long k, int delta) {
+        if ((size + 1) * 2 > keys.length) grow();
+        int mask = keys.length - 1;
+        int i = mix(k) & mask;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == k) return values[i] += delta;
+            i = (i + 1) & mask;
+        }
+        keys[i] = k;
+        size++;
+        return values[i] = delta;
+    }
+
+    //makes room for expected entries in one go instead of doubling over and over
+    void ensureCapacity(int expected) {
+        if (expected * 2 > keys.length) rehash(Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1);
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void grow() {
+        rehash(keys.length * 2);
+    }
+
+    private void rehash(int cap) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[cap];
+        values = new int[cap];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) if (oldKeys[i] != EMPTY) putIfAbsent(oldKeys[i], oldValues[i]);
+    }
+
+    private static int mix(long v) {
+        long h = v * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+}
@@ -0,0 +1,79 @@
+package com.haseeb.registration;
+
+import java.util.Arrays;
+
+//open addressing set of longs (linear probing), same scheme as IntSet but for packed pairs
+//used for the pending (student, course) requests, which can get into the hundreds of thousands
+class LongSet {
+    private static final long EMPTY = -1;
+    private long[] table;
+    private int size;
+
+    LongSet() {
+        table = new long[16];
+        Arrays.fill(table, EMPTY);
+    }
+
+    int size() { return size; }
+
+    boolean contains(long v) {
+        int mask = table.length - 1;
+        for (int i = mix(v) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == v) return true;
+        }
+        return false;
+    }
+
+    //returns false if v was already there
+    boolean add(long v) {
+        if ((size + 1) * 2 > table.length) grow(); //keep it at most half full
+        int mask = table.length - 1;
+        int i = mix(v) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == v) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = v;
+        size++;
+        return true;
+    }
+
+    //returns false if v wasn't there
+    boolean remove(long v) {
+        int mask = table.length - 1;
+        int i = mix(v) & mask;
+        while (table[i] != v) {
+            if (table[i] == EMPTY) return false;
+            i = (i + 1) & mask;
+        }
+        int hole = i;
+        for (int j = (i + 1) & mask; table[j] != EMPTY; j = (j + 1) & mask) {
+            int home = mix(table[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[hole] = table[j];
+                hole = j;
+            }
+        }
+        table[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(table, EMPTY);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        Arrays.fill(table, EMPTY);
+        size = 0;
+        for (long v : old) if (v != EMPTY) add(v);
+    }
+
+    private static int mix(long v) {
+        long h = v * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+}
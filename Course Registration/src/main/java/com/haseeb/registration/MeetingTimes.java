@@ -0,0 +1,84 @@
+package com.haseeb.registration;
+
+//when a course meets each week, e.g. "MW 09:00-10:15; F 13:00-14:00"
+//days are M T W R F S U (R = Thursday, like most timetables), times are 24h on a 15 minute grid
+//
+//kept as a bitmap: one long per day, one bit per quarter hour from 07:00 to 23:00 (exactly 64),
+//so two timetables clash if any of the 7 ANDs is non-zero, however many meetings they have
+class MeetingTimes {
+    static final int DAYS = 7;
+    private static final String DAY_LETTERS = "MTWRFSU";
+    private static final int FIRST_MINUTE = 7 * 60, LAST_MINUTE = 23 * 60, SLOT = 15;
+
+    //no fixed meeting time (online, thesis...), never clashes with anything
+    static final MeetingTimes NONE = new MeetingTimes(new long[DAYS], "");
+
+    final long[] days; //bit i of days[d]: the quarter hour starting at 07:00 + 15 * i on day d (0 = Monday)
+    private final String text;
+
+    private MeetingTimes(long[] days, String text) {
+        this.days = days;
+        this.text = text;
+    }
+
+    //NONE for null or blank, throws IllegalArgumentException with a readable message for anything malformed
+    static MeetingTimes parse(String s) {
+        if (s == null || s.isBlank()) return NONE;
+        long[] days = new long[DAYS];
+        StringBuilder text = new StringBuilder();
+        for (String group : s.split("[;,]")) {
+            group = group.trim();
+            if (group.isEmpty()) continue;
+            String[] parts = group.split("\\s+");
+            String[] range = parts.length == 2 ? parts[1].split("-") : new String[0];
+            if (range.length != 2) throw new IllegalArgumentException("Meeting time \"" + group + "\" should look like MW 09:00-10:15");
+            int from = minutes(range[0]), to = minutes(range[1]);
+            if (from >= to) throw new IllegalArgumentException("Meeting time \"" + group + "\" ends before it starts");
+            long bits = slots(from, to);
+            String dayList = parts[0].toUpperCase();
+            for (int i = 0; i < dayList.length(); i++) {
+                int d = DAY_LETTERS.indexOf(dayList.charAt(i));
+                if (d < 0) throw new IllegalArgumentException("Unknown day '" + dayList.charAt(i) + "', use M T W R F S U");
+                days[d] |= bits;
+            }
+            if (text.length() > 0) text.append("; ");
+            text.append(dayList).append(' ').append(clock(from)).append('-').append(clock(to));
+        }
+        return text.length() == 0 ? NONE : new MeetingTimes(days, text.toString());
+    }
+
+    //"9:30" -> 570, has to be on the grid and inside the day
+    private static int minutes(String hhmm) {
+        int colon = hhmm.indexOf(':');
+        int m;
+        try {
+            m = colon < 0 ? -1 : Integer.parseInt(hhmm.substring(0, colon)) * 60 + Integer.parseInt(hhmm.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            m = -1;
+        }
+        if (m < FIRST_MINUTE || m > LAST_MINUTE || m % SLOT != 0) {
+            throw new IllegalArgumentException("Time \"" + hhmm + "\" must be between 07:00 and 23:00 on a quarter hour");
+        }
+        return m;
+    }
+
+    //bits for the quarter hours in [from, to)
+    private static long slots(int from, int to) {
+        int lo = (from - FIRST_MINUTE) / SLOT, n = (to - from) / SLOT;
+        return (n == 64 ? -1L : (1L << n) - 1) << lo;
+    }
+
+    private static String clock(int m) {
+        return String.format("%02d:%02d", m / 60, m % 60);
+    }
+
+    boolean isEmpty() { return this == NONE; }
+
+    boolean overlaps(MeetingTimes o) {
+        for (int d = 0; d < DAYS; d++) if ((days[d] & o.days[d]) != 0) return true;
+        return false;
+    }
+
+    //same text parse() accepts, "" for NONE
+    @Override public String toString() { return text; }
+}
@@ -0,0 +1,18 @@
+package com.haseeb.registration;
+
+//what happened to one processed request
+//the journal stores the ordinal, so new outcomes only ever go at the end
+enum Outcome {
+    SUCCESS("SUCCESS"),
+    FULL("FAILED (Course Full)"),
+    ALREADY_ENROLLED("FAILED (Already Enrolled)"),
+    WAITLISTED("WAITLISTED (Course Full)"), //full, but got a spot in the course's waitlist
+    ALREADY_WAITLISTED("FAILED (Already Waitlisted)"),
+    SHED("DROPPED (Queue Full)"), //never processed, pushed out of a full queue by a higher priority request
+    TIME_CONFLICT("FAILED (Time Conflict)"), //meets while the student already has one of their courses
+    MISSING_PREREQUISITE("FAILED (Missing Prerequisite)"), //hasn't completed everything the course builds on
+    CREDIT_LIMIT("FAILED (Credit Limit)"); //would take the student over the credit cap
+
+    final String label;
+    Outcome(String label) { this.label = label; }
+}
@@ -0,0 +1,101 @@
+package com.haseeb.registration;
+
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+//immutable array that's cheap to "change": a 32-way tree of small arrays, and an update only
+//copies the nodes on the way to the slots that changed, everything else is shared with the old version
+//so keeping yesterday's version around while today's gets built costs next to nothing
+//
+//1M slots is 4 levels deep, changing 2000 of them copies at most ~2000 * 4 nodes of 32 refs
+class PersistentArray<T> {
+    private static final int BITS = 5, WIDTH = 1 << BITS, MASK = WIDTH - 1;
+
+    private static final PersistentArray<?> EMPTY = new PersistentArray<>(new Object[WIDTH], BITS, 0);
+
+    private final Object[] root;
+    private final int shift; //BITS * levels, the root covers 1 << shift slots
+    private final int size;
+
+    private PersistentArray(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentArray<T> empty() {
+        return (PersistentArray<T>) EMPTY;
+    }
+
+    int size() { return size; }
+
+    //null for slots that were never set (and anything past the end)
+    @SuppressWarnings("unchecked")
+    T get(int i) {
+        if (i < 0 || i >= size) return null;
+        Object[] node = root;
+        for (int s = shift - BITS; s > 0 && node != null; s -= BITS) node = (Object[]) node[(i >>> s) & MASK];
+        return node == null ? null : (T) node[i & MASK];
+    }
+
+    //new version with newSize slots, where every slot in changed gets valueOf(slot)
+    //slots past the old end start out null unless they're in changed too
+    PersistentArray<T> update(int newSize, BitSet changed, IntFunction<T> valueOf) {
+        Object[] r = root;
+        int sh = shift;
+        while (newSize > 1L << sh) { //grow a level: the old root becomes the first child
+            Object[] up = new Object[WIDTH];
+            up[0] = r;
+            r = up;
+            sh += BITS;
+        }
+        if (changed.nextSetBit(0) < 0 || changed.nextSetBit(0) >= newSize) {
+            return r == root && newSize == size ? this : new PersistentArray<>(r, sh, newSize);
+        }
+        return new PersistentArray<>(copyPath(r, sh - BITS, 0, newSize, changed, valueOf), sh, newSize);
+    }
+
+    //adds to out every slot whose value isn't the very same object in older, slots past older's end included
+    //whole subtrees the two versions share are skipped without looking inside, so this costs about
+    //what changed between them, not the size
+    void changedSince(PersistentArray<T> older, BitSet out) {
+        int common = Math.min(size, older.size);
+        if (size > common) out.set(common, size);
+        if (common == 0) return;
+        //a taller tree keeps the shorter one's slots under its first child, line the two up there
+        Object[] a = root, b = older.root;
+        int sa = shift, sb = older.shift;
+        for (; sa > sb; sa -= BITS) a = a == null ? null : (Object[]) a[0];
+        for (; sb > sa; sb -= BITS) b = b == null ? null : (Object[]) b[0];
+        diff(a, b, sa - BITS, 0, common, out);
+    }
+
+    private static void diff(Object[] a, Object[] b, int s, int offset, int limit, BitSet out) {
+        if (a == b) return;
+        int span = 1 << s;
+        for (int k = 0; k < WIDTH; k++) {
+            int from = offset + k * span;
+            if (from >= limit) break;
+            Object x = a == null ? null : a[k], y = b == null ? null : b[k];
+            if (x == y) continue;
+            if (s == 0) out.set(from);
+            else diff((Object[]) x, (Object[]) y, s - BITS, from, limit, out);
+        }
+    }
+
+    //copy of node (covering slots from offset on) with the changed slots below it replaced
+    private Object[] copyPath(Object[] node, int s, int offset, int limit, BitSet changed, IntFunction<T> valueOf) {
+        Object[] out = node == null ? new Object[WIDTH] : node.clone();
+        int span = 1 << s; //slots under each entry of this node
+        for (int k = 0; k < WIDTH; k++) {
+            int from = offset + k * span;
+            if (from >= limit) break;
+            int next = changed.nextSetBit(from);
+            if (next < 0 || next >= Math.min(limit, from + span)) continue; //nothing changed under this entry
+            if (s == 0) out[k] = valueOf.apply(from);
+            else out[k] = copyPath((Object[]) out[k], s - BITS, from, limit, changed, valueOf);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,156 @@
+package com.haseeb.registration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//multi-level queue: one level per priority class, served by weighted round robin
+//
+//with the default weights {4, 2, 1} the high class gets 4 requests processed for every 2 normal and 1 low
+//one while they all have work, so seniors go first without anyone starving. Inside a level every
+//student has their own little FIFO and the level takes turns between students, one request each,
+//so a student who queues 200 requests can't push everybody else back by 200 places.
+//offer and poll are O(1) (one HashMap lookup + deque ops)
+//
+//when full, shedFor drops the newest request of the student at the back of the lowest busy level,
+//as long as that level is lower than the incoming request's
+public class PriorityScheduler implements RequestScheduler {
+
+    private static class StudentLine {
+        final String studentId;
+        final ArrayDeque<RegistrationRequest> requests = new ArrayDeque<>(4);
+        StudentLine(String studentId) { this.studentId = studentId; }
+    }
+
+    private static class Level {
+        final ArrayDeque<StudentLine> turns = new ArrayDeque<>(); //students with something queued, next turn first
+        final Map<String, StudentLine> byStudent = new HashMap<>();
+        int size;
+
+        void add(RegistrationRequest req) {
+            StudentLine line = byStudent.get(req.studentId);
+            if (line == null) {
+                byStudent.put(req.studentId, line = new StudentLine(req.studentId));
+                turns.addLast(line);
+            }
+            line.requests.addLast(req);
+            size++;
+        }
+
+        //the student whose turn it is gets one request processed, then goes to the back
+        RegistrationRequest poll() {
+            StudentLine line = turns.pollFirst();
+            RegistrationRequest req = line.requests.pollFirst();
+            if (line.requests.isEmpty()) byStudent.remove(line.studentId);
+            else turns.addLast(line);
+            size--;
+            return req;
+        }
+
+        RegistrationRequest shed() {
+            StudentLine line = turns.peekLast();
+            RegistrationRequest req = line.requests.pollLast();
+            if (line.requests.isEmpty()) {
+                turns.pollLast();
+                byStudent.remove(line.studentId);
+            }
+            size--;
+            return req;
+        }
+
+        Level copy() {
+            Level l = new Level();
+            for (StudentLine line : turns) {
+                StudentLine c = new StudentLine(line.studentId);
+                c.requests.addAll(line.requests);
+                l.turns.addLast(c);
+                l.byStudent.put(c.studentId, c);
+            }
+            l.size = size;
+            return l;
+        }
+    }
+
+    private final Level[] levels;
+    private final int[] weights;
+    private final int capacity;
+    private int size;
+    private int current, credit; //level being served and how many more it gets this round
+
+    public PriorityScheduler(int capacity) {
+        this(capacity, 4, 2, 1);
+    }
+
+    //one weight per priority class, PRIORITY_HIGH first
+    public PriorityScheduler(int capacity, int... weights) {
+        if (weights.length != PRIORITY_CLASSES) throw new IllegalArgumentException("need " + PRIORITY_CLASSES + " weights");
+        for (int w : weights) if (w <= 0) throw new IllegalArgumentException("weights must be positive");
+        this.capacity = capacity;
+        this.weights = weights.clone();
+        this.levels = new Level[PRIORITY_CLASSES];
+        for (int i = 0; i < levels.length; i++) levels[i] = new Level();
+        this.credit = this.weights[0];
+    }
+
+    private PriorityScheduler(PriorityScheduler other) {
+        this.capacity = other.capacity;
+        this.weights = other.weights;
+        this.levels = new Level[other.levels.length];
+        for (int i = 0; i < levels.length; i++) levels[i] = other.levels[i].copy();
+        this.size = other.size;
+        this.current = other.current;
+        this.credit = other.credit;
+    }
+
+    @Override public boolean offer(RegistrationRequest req) {
+        if (size >= capacity) return false;
+        restore(req);
+        return true;
+    }
+
+    @Override public void restore(RegistrationRequest req) {
+        levels[req.priority].add(req);
+        size++;
+    }
+
+    @Override public RegistrationRequest shedFor(int priority) {
+        for (int p = levels.length - 1; p > priority; p--) {
+            if (levels[p].size > 0) {
+                size--;
+                return levels[p].shed();
+            }
+        }
+        return null;
+    }
+
+    @Override public RegistrationRequest poll() {
+        if (size == 0) return null;
+        while (credit == 0 || levels[current].size == 0) { //this level is done for the round, or has nothing
+            current = (current + 1) % levels.length;
+            credit = weights[current];
+        }
+        credit--;
+        size--;
+        return levels[current].poll();
+    }
+
+    @Override public int size() { return size; }
+    @Override public int capacity() { return capacity; }
+
+    @Override public void clear() {
+        for (int i = 0; i < levels.length; i++) levels[i] = new Level();
+        size = 0;
+        current = 0;
+        credit = weights[0];
+    }
+
+    //runs a copy to get the exact order
+    @Override public List<RegistrationRequest> toList() {
+        PriorityScheduler copy = new PriorityScheduler(this);
+        List<RegistrationRequest> out = new ArrayList<>(size);
+        for (RegistrationRequest r; (r = copy.poll()) != null; ) out.add(r);
+        return out;
+    }
+}
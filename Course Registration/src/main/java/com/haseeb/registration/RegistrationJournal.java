@@ -0,0 +1,664 @@
+package com.haseeb.registration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+//durable storage for BackendSystem: a write-ahead journal plus periodic binary snapshots
+//
+//files in the data directory:
+//  snapshot.bin        -> full state as of the start of journal "generation" G
+//  journal-<G>.log     -> every change made after that snapshot, in order
+//
+//taking a snapshot starts journal G+1 first, then swaps in the new snapshot, then deletes journal G,
+//so a crash at any point still leaves a snapshot plus the journals needed to replay on top of it
+//
+//a write or fsync that fails is final: the file is cut back to the last record that made it to disk,
+//the owner hears about it once (see failed), and every append, sync and close after it throws
+public class RegistrationJournal implements AutoCloseable {
+
+    //what the journal calls back into while replaying, implemented by BackendSystem
+    interface Replay {
+        void course(String code, String name, int credits, int capacity, String meets); //meets "" = no fixed time
+        void student(String id, String name);
+        void enrollment(String studentId, String courseCode); //snapshot only
+        void request(long seq, String studentId, String courseCode, int priority);
+        void bundleRequest(long seq, String studentId, List<String> courseCodes, int priority); //all or nothing
+        void result(long seq, String studentId, String courseCode, int outcome);
+        //promotedId: who got the freed seat off the waitlist, "" = nobody, null = not recorded (plain DROP)
+        void drop(String studentId, String courseCode, String promotedId);
+        void waitlisted(String courseCode, String studentId); //snapshot only, in line order
+        void prerequisites(String courseCode, List<String> prerequisiteCodes); //always after the course itself
+        void completed(String studentId, String courseCode);
+        void creditLimit(int credits);
+    }
+
+    private static final int JOURNAL_MAGIC = 0x52474A31; //"RGJ1"
+    private static final int SNAPSHOT_MAGIC = 0x52475331; //"RGS1"
+
+    //record types
+    private static final byte COURSE = 1, STUDENT = 2, REQUEST = 3, RESULT = 4, DROP = 5, WAITLIST = 6;
+    private static final byte PRIORITY_REQUEST = 7; //REQUEST plus its scheduler priority class, plain REQUESTs are read as normal
+    private static final byte TIMED_COURSE = 8; //COURSE plus its meeting times, plain COURSEs have none
+    private static final byte PREREQUISITES = 9, COMPLETED = 10, CREDIT_LIMIT = 11;
+    private static final byte BUNDLE_REQUEST = 12; //one request for several courses, its RESULT names the first one
+    private static final byte PROMOTING_DROP = 13; //DROP plus who got the seat, replay doesn't decide that again
+    private static final byte ENROLLED = 14; //snapshot only: a student's courses without the student (a shard's, see Catalog)
+
+    //longest string a record can hold, its length is stored as a signed short
+    static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+
+    private final Path dir;
+    private final long flushIntervalMs;
+    private final int snapshotEvery; //records appended before we ask for a new snapshot
+    private final Consumer<IOException> failed; //told once, from whichever thread's write failed
+
+    private FileChannel channel; //active journal, opened for append
+    private long generation;
+    private long synced; //end of the last record known to be on disk
+    private volatile IOException failure; //the write that failed, nothing after it gets saved
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024); //appended but not written yet
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024); //swapped with pending on every flush
+    private boolean dirty;
+    private int recordsSinceSnapshot;
+    private Thread flusher;
+    private volatile boolean stopping; //set by close(), the flusher exits instead of syncing again
+    private final Object writeLock = new Object(); //held while writing to the file, appends only need "this"
+    private final CRC32 crc = new CRC32();
+    private final CRC32 appendCrc = new CRC32();
+
+    public RegistrationJournal(Path dir, long flushIntervalMs, int snapshotEvery, Consumer<IOException> failed) {
+        this.dir = dir;
+        this.flushIntervalMs = flushIntervalMs;
+        this.snapshotEvery = snapshotEvery;
+        this.failed = failed;
+    }
+
+    public RegistrationJournal(Path dir, long flushIntervalMs, int snapshotEvery) {
+        this(dir, flushIntervalMs, snapshotEvery, e -> { });
+    }
+
+    public RegistrationJournal(Path dir, Consumer<IOException> failed) {
+        this(dir, 10, 100_000, failed);
+    }
+
+    //loads the snapshot and replays the journals written after it, then opens the last journal for appending
+    //returns false if the directory had no saved state at all (caller should seed it)
+    public boolean recover(Replay target) throws IOException {
+        Files.createDirectories(dir);
+        boolean found = false;
+        generation = 0;
+
+        Path snap = dir.resolve("snapshot.bin");
+        if (Files.exists(snap)) {
+            generation = loadSnapshot(snap, target);
+            found = true;
+        }
+
+        //replay journal G, G+1, ... only the last one can have a torn tail
+        long gen = generation;
+        long validEnd = -1;
+        while (Files.exists(journalPath(gen))) {
+            validEnd = replayJournal(journalPath(gen), target);
+            found = true;
+            gen++;
+        }
+        long active = gen == generation ? generation : gen - 1;
+
+        //journals older than the snapshot are leftovers from a crash during snapshot()
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                String n = p.getFileName().toString();
+                if (n.startsWith("journal-") && n.endsWith(".log")) {
+                    long g = Long.parseLong(n.substring(8, n.length() - 4));
+                    if (g < generation) Files.delete(p);
+                }
+            }
+        }
+
+        openJournal(active, validEnd);
+        startFlusher();
+        return found;
+    }
+
+    private Path journalPath(long gen) {
+        return dir.resolve("journal-" + gen + ".log");
+    }
+
+    //opens the journal for appending, cutting off anything after the last good record
+    private void openJournal(long gen, long validEnd) throws IOException {
+        generation = gen;
+        channel = FileChannel.open(journalPath(gen), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (validEnd < 0) { //brand new (or headerless) file, write the header
+            ByteBuffer header = ByteBuffer.allocate(12).putInt(JOURNAL_MAGIC).putLong(gen);
+            header.flip();
+            channel.truncate(0);
+            while (header.hasRemaining()) channel.write(header, 12 - header.remaining());
+            channel.force(true);
+        } else {
+            channel.truncate(validEnd);
+        }
+        synced = channel.size();
+        channel.position(synced);
+    }
+
+    // --- APPENDING ---
+    //appends only go to an in-memory buffer, the flusher thread (or sync()) writes and fsyncs them,
+    //so one fsync covers every record appended in that window (group commit)
+
+    public void addCourse(String code, String name, int credits, int capacity, String meets) {
+        byte[] c = utf8(code), n = utf8(name), m = utf8(meets);
+        boolean timed = m.length > 0; //courses without meeting times keep the old record
+        synchronized (this) {
+            ByteBuffer b = begin(timed ? TIMED_COURSE : COURSE, 2 + c.length + 2 + n.length + 8 + (timed ? 2 + m.length : 0));
+            putString(b, c); putString(b, n); b.putInt(credits).putInt(capacity);
+            if (timed) putString(b, m);
+            end(b);
+        }
+    }
+
+    //the course's direct prerequisites, appended right after the course
+    public void prerequisites(String courseCode, List<String> prerequisiteCodes) {
+        byte[] c = utf8(courseCode);
+        byte[][] p = new byte[prerequisiteCodes.size()][];
+        int len = 2 + c.length + 4;
+        for (int i = 0; i < p.length; i++) len += 2 + (p[i] = utf8(prerequisiteCodes.get(i))).length;
+        synchronized (this) {
+            ByteBuffer b = begin(PREREQUISITES, len);
+            putString(b, c);
+            b.putInt(p.length);
+            for (byte[] code : p) putString(b, code);
+            end(b);
+        }
+    }
+
+    public void completed(String studentId, String courseCode) {
+        byte[] s = utf8(studentId), c = utf8(courseCode);
+        synchronized (this) {
+            ByteBuffer b = begin(COMPLETED, 2 + s.length + 2 + c.length);
+            putString(b, s); putString(b, c);
+            end(b);
+        }
+    }
+
+    public synchronized void creditLimit(int credits) {
+        ByteBuffer b = begin(CREDIT_LIMIT, 4);
+        b.putInt(credits);
+        end(b);
+    }
+
+    public void addStudent(String id, String name) {
+        byte[] i = utf8(id), n = utf8(name);
+        synchronized (this) {
+            ByteBuffer b = begin(STUDENT, 2 + i.length + 2 + n.length);
+            putString(b, i); putString(b, n);
+            end(b);
+        }
+    }
+
+    public void request(long seq, String studentId, String courseCode, int priority) {
+        byte[] s = utf8(studentId), c = utf8(courseCode);
+        synchronized (this) {
+            ByteBuffer b = begin(PRIORITY_REQUEST, 8 + 2 + s.length + 2 + c.length + 1);
+            b.putLong(seq); putString(b, s); putString(b, c); b.put((byte) priority);
+            end(b);
+        }
+    }
+
+    public void bundleRequest(long seq, String studentId, List<String> courseCodes, int priority) {
+        byte[] s = utf8(studentId);
+        byte[][] c = new byte[courseCodes.size()][];
+        int len = 8 + 2 + s.length + 4 + 1;
+        for (int i = 0; i < c.length; i++) len += 2 + (c[i] = utf8(courseCodes.get(i))).length;
+        synchronized (this) {
+            ByteBuffer b = begin(BUNDLE_REQUEST, len);
+            b.putLong(seq); putString(b, s);
+            b.putInt(c.length);
+            for (byte[] code : c) putString(b, code);
+            b.put((byte) priority);
+            end(b);
+        }
+    }
+
+    public void result(long seq, String studentId, String courseCode, int outcome) {
+        byte[] s = utf8(studentId), c = utf8(courseCode);
+        synchronized (this) {
+            ByteBuffer b = begin(RESULT, 8 + 2 + s.length + 2 + c.length + 1);
+            b.putLong(seq); putString(b, s); putString(b, c); b.put((byte) outcome);
+            end(b);
+        }
+    }
+
+    //promotedId: the student who got the freed seat, "" if nobody did
+    public void drop(String studentId, String courseCode, String promotedId) {
+        byte[] s = utf8(studentId), c = utf8(courseCode), p = utf8(promotedId);
+        synchronized (this) {
+            ByteBuffer b = begin(PROMOTING_DROP, 2 + s.length + 2 + c.length + 2 + p.length);
+            putString(b, s); putString(b, c); putString(b, p);
+            end(b);
+        }
+    }
+
+    //every record: [int length][byte type][payload][int crc of type+payload]
+    private int recordStart;
+
+    private ByteBuffer begin(byte type, int payload) {
+        if (failure != null) throw new UncheckedIOException(failedEarlier());
+        int need = 4 + 1 + payload + 4;
+        if (pending.remaining() < need) { //the flusher is behind, grow instead of blocking on the disk
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + need));
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+        recordStart = pending.position();
+        pending.putInt(0).put(type);
+        return pending;
+    }
+
+    private void end(ByteBuffer b) {
+        int bodyStart = recordStart + 4;
+        int len = b.position() - bodyStart;
+        appendCrc.reset();
+        appendCrc.update(b.array(), bodyStart, len);
+        b.putInt((int) appendCrc.getValue());
+        b.putInt(recordStart, len);
+        dirty = true;
+        recordsSinceSnapshot++;
+    }
+
+    //writes and fsyncs everything appended so far
+    //appenders keep filling the other buffer while this one is on its way to disk
+    public void sync() throws IOException {
+        synchronized (writeLock) {
+            ByteBuffer toWrite;
+            synchronized (this) {
+                if (failure != null) throw failedEarlier();
+                if (!dirty) return;
+                toWrite = pending;
+                pending = spare;
+                spare = null;
+                dirty = false;
+            }
+            try {
+                toWrite.flip();
+                while (toWrite.hasRemaining()) channel.write(toWrite);
+                channel.force(false);
+                synced = channel.position();
+            } catch (IOException e) {
+                fail(e);
+                throw e;
+            } finally {
+                toWrite.clear();
+                synchronized (this) {
+                    spare = toWrite;
+                }
+            }
+        }
+    }
+
+    //never interrupted: FileChannel is interruptible, an interrupt in the middle of sync() would close the
+    //channel under every later write. close() sets stopping and unparks it instead
+    //cuts off whatever part of the failed write got out, so the file still ends on a whole record, and
+    //makes the failure stick. The records lost with it can't be written after later ones anyway
+    private void fail(IOException e) {
+        try {
+            if (channel.isOpen()) channel.truncate(synced);
+        } catch (IOException cut) {
+            e.addSuppressed(cut);
+        }
+        failure = e;
+        failed.accept(e);
+    }
+
+    private IOException failedEarlier() {
+        return new IOException("journal " + dir + " stopped saving after a failed write", failure);
+    }
+
+    private void startFlusher() {
+        flusher = new Thread(() -> {
+            while (!stopping) {
+                LockSupport.parkNanos(flushIntervalMs * 1_000_000);
+                if (stopping) return; //close() does the last sync itself
+                try {
+                    sync();
+                } catch (IOException e) {
+                    return; //reported by fail(), nothing will be written again
+                }
+            }
+        }, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public synchronized boolean snapshotDue() {
+        return recordsSinceSnapshot >= snapshotEvery;
+    }
+
+    // --- SNAPSHOTS ---
+
+    //writer handed to the caller of snapshot(), the caller must not change state while it runs
+    public static class Snapshot {
+        private ByteBuffer out = ByteBuffer.allocate(1 << 20);
+
+        private Snapshot() { }
+
+        private void ensure(int n) {
+            if (out.remaining() < n) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + n));
+                out.flip();
+                bigger.put(out);
+                out = bigger;
+            }
+        }
+
+        private void str(String s) {
+            byte[] bytes = utf8(s); //getString reads the length back as a signed short too
+            ensure(2 + bytes.length);
+            out.putShort((short) bytes.length).put(bytes);
+        }
+
+        public void course(String code, String name, int credits, int capacity, String meets) {
+            ensure(1);
+            out.put(meets.isEmpty() ? COURSE : TIMED_COURSE);
+            str(code); str(name);
+            ensure(8);
+            out.putInt(credits).putInt(capacity);
+            if (!meets.isEmpty()) str(meets);
+        }
+
+        public void student(String id, String name, List<String> courseCodes) {
+            ensure(1);
+            out.put(STUDENT);
+            str(id); str(name);
+            ensure(4);
+            out.putInt(courseCodes.size());
+            for (String c : courseCodes) str(c);
+        }
+
+        public void request(long seq, String studentId, String courseCode, int priority) {
+            ensure(9);
+            out.put(PRIORITY_REQUEST).putLong(seq);
+            str(studentId); str(courseCode);
+            ensure(1);
+            out.put((byte) priority);
+        }
+
+        public void bundleRequest(long seq, String studentId, List<String> courseCodes, int priority) {
+            ensure(9);
+            out.put(BUNDLE_REQUEST).putLong(seq);
+            str(studentId);
+            ensure(4);
+            out.putInt(courseCodes.size());
+            for (String c : courseCodes) str(c);
+            ensure(1);
+            out.put((byte) priority);
+        }
+
+        //the student's courses when the student itself is saved somewhere else (a ShardedBackend's catalog)
+        public void enrolled(String studentId, List<String> courseCodes) {
+            ensure(1);
+            out.put(ENROLLED);
+            str(studentId);
+            ensure(4);
+            out.putInt(courseCodes.size());
+            for (String c : courseCodes) str(c);
+        }
+
+        //after every course, so prerequisites can point at any of them
+        public void prerequisites(String courseCode, List<String> prerequisiteCodes) {
+            ensure(1);
+            out.put(PREREQUISITES);
+            str(courseCode);
+            ensure(4);
+            out.putInt(prerequisiteCodes.size());
+            for (String c : prerequisiteCodes) str(c);
+        }
+
+        //everything the student passed, the journal has one COMPLETED record per course instead
+        public void completed(String studentId, List<String> courseCodes) {
+            ensure(1);
+            out.put(COMPLETED);
+            str(studentId);
+            ensure(4);
+            out.putInt(courseCodes.size());
+            for (String c : courseCodes) str(c);
+        }
+
+        public void creditLimit(int credits) {
+            ensure(5);
+            out.put(CREDIT_LIMIT).putInt(credits);
+        }
+
+        //a course's waitlist, front first
+        public void waitlist(String courseCode, List<String> studentIds) {
+            ensure(1);
+            out.put(WAITLIST);
+            str(courseCode);
+            ensure(4);
+            out.putInt(studentIds.size());
+            for (String s : studentIds) str(s);
+        }
+    }
+
+    //writes a full snapshot and starts a fresh journal after it, old journals are deleted
+    public void snapshot(Consumer<Snapshot> writer) throws IOException {
+        synchronized (writeLock) {
+            sync();
+            Snapshot s = new Snapshot();
+            writer.accept(s);
+
+            //new journal first, so anything appended from now on lands after the snapshot
+            long oldGen = generation;
+            channel.close();
+            openJournal(oldGen + 1, -1);
+            writeSnapshot(s, oldGen);
+        }
+    }
+
+    private void writeSnapshot(Snapshot s, long oldGen) throws IOException {
+        ByteBuffer body = s.out.flip();
+        crc.reset();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(24)
+                .putInt(SNAPSHOT_MAGIC).putLong(generation).putInt(body.remaining()).putInt((int) crc.getValue()).putInt(0);
+        header.flip();
+
+        Path tmp = dir.resolve("snapshot.tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) out.write(header);
+            while (body.hasRemaining()) out.write(body);
+            out.force(true);
+        }
+        Files.move(tmp, dir.resolve("snapshot.bin"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(journalPath(oldGen));
+        synchronized (this) {
+            recordsSinceSnapshot = 0;
+        }
+    }
+
+    // --- REPLAY ---
+    //both files are read through a memory map, no copying into a heap buffer first
+
+    private long loadSnapshot(Path file, Replay target) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (b.remaining() < 24 || b.getInt() != SNAPSHOT_MAGIC) throw new IOException("Not a snapshot file: " + file);
+            long gen = b.getLong();
+            int len = b.getInt();
+            int expected = b.getInt();
+            b.getInt(); //reserved
+            if (b.remaining() < len) throw new IOException("Snapshot is truncated: " + file);
+            ByteBuffer body = b.slice(b.position(), len);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expected) throw new IOException("Snapshot checksum mismatch: " + file);
+
+            while (body.hasRemaining()) {
+                byte type = body.get();
+                switch (type) {
+                    case COURSE: target.course(getString(body), getString(body), body.getInt(), body.getInt(), ""); break;
+                    case TIMED_COURSE: target.course(getString(body), getString(body), body.getInt(), body.getInt(), getString(body)); break;
+                    case STUDENT: {
+                        String id = getString(body);
+                        target.student(id, getString(body));
+                        int n = body.getInt();
+                        for (int i = 0; i < n; i++) target.enrollment(id, getString(body));
+                        break;
+                    }
+                    case ENROLLED: {
+                        String id = getString(body);
+                        int n = body.getInt();
+                        for (int i = 0; i < n; i++) target.enrollment(id, getString(body));
+                        break;
+                    }
+                    case REQUEST: target.request(body.getLong(), getString(body), getString(body), RequestScheduler.PRIORITY_NORMAL); break;
+                    case PRIORITY_REQUEST: target.request(body.getLong(), getString(body), getString(body), body.get()); break;
+                    case BUNDLE_REQUEST: target.bundleRequest(body.getLong(), getString(body), getStrings(body), body.get()); break;
+                    case WAITLIST: {
+                        String code = getString(body);
+                        int n = body.getInt();
+                        for (int i = 0; i < n; i++) target.waitlisted(code, getString(body));
+                        break;
+                    }
+                    case PREREQUISITES: target.prerequisites(getString(body), getStrings(body)); break;
+                    case COMPLETED: {
+                        String id = getString(body);
+                        int n = body.getInt();
+                        for (int i = 0; i < n; i++) target.completed(id, getString(body));
+                        break;
+                    }
+                    case CREDIT_LIMIT: target.creditLimit(body.getInt()); break;
+                    default: throw new IOException("Bad snapshot record type " + type);
+                }
+            }
+            return gen;
+        }
+    }
+
+    //replays every complete record, returns the offset just after the last good one
+    private long replayJournal(Path file, Replay target) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < 12) return -1; //never got its header, start it over
+            MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (b.getInt() != JOURNAL_MAGIC) throw new IOException("Not a journal file: " + file);
+            b.getLong(); //generation
+
+            while (b.remaining() >= 4) {
+                int start = b.position();
+                int len = b.getInt();
+                if (len <= 0 || b.remaining() < len + 4) { b.position(start); break; } //torn write at the end
+                ByteBuffer body = b.slice(b.position(), len);
+                crc.reset();
+                crc.update(body.duplicate());
+                b.position(b.position() + len);
+                int stored = b.getInt();
+                if (stored != (int) crc.getValue()) { b.position(start); break; }
+                apply(body, target);
+            }
+            return b.position();
+        }
+    }
+
+    private void apply(ByteBuffer body, Replay target) throws IOException {
+        byte type = body.get();
+        switch (type) {
+            case COURSE: target.course(getString(body), getString(body), body.getInt(), body.getInt(), ""); break;
+            case TIMED_COURSE: target.course(getString(body), getString(body), body.getInt(), body.getInt(), getString(body)); break;
+            case STUDENT: target.student(getString(body), getString(body)); break;
+            case REQUEST: target.request(body.getLong(), getString(body), getString(body), RequestScheduler.PRIORITY_NORMAL); break;
+            case PRIORITY_REQUEST: target.request(body.getLong(), getString(body), getString(body), body.get()); break;
+            case BUNDLE_REQUEST: target.bundleRequest(body.getLong(), getString(body), getStrings(body), body.get()); break;
+            case RESULT: target.result(body.getLong(), getString(body), getString(body), body.get()); break;
+            case DROP: target.drop(getString(body), getString(body), null); break;
+            case PROMOTING_DROP: target.drop(getString(body), getString(body), getString(body)); break;
+            case PREREQUISITES: target.prerequisites(getString(body), getStrings(body)); break;
+            case COMPLETED: target.completed(getString(body), getString(body)); break;
+            case CREDIT_LIMIT: target.creditLimit(body.getInt()); break;
+            default: throw new IOException("Bad journal record type " + type);
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) throw new IllegalArgumentException("String too long for journal");
+        return bytes;
+    }
+
+    //true if every one of them can be written, callers check before changing any state
+    //so the journal never refuses a change that was already made in memory
+    static boolean fits(String... values) {
+        for (String v : values) {
+            if (v != null && v.length() > MAX_STRING_BYTES / 3 && v.getBytes(StandardCharsets.UTF_8).length > MAX_STRING_BYTES) return false;
+        }
+        return true;
+    }
+
+    private static void putString(ByteBuffer b, byte[] bytes) {
+        b.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer b) {
+        int len = b.getShort();
+        byte[] bytes = new byte[len];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> getStrings(ByteBuffer b) {
+        int n = b.getInt();
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(getString(b));
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        boolean interrupted = stopFlusher();
+        try {
+            synchronized (writeLock) {
+                if (channel != null && channel.isOpen()) {
+                    try {
+                        sync();
+                    } finally {
+                        channel.close();
+                    }
+                } else if (failure != null) {
+                    throw failedEarlier();
+                }
+            }
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt(); //not before, an interrupted thread can't write
+        }
+    }
+
+    //lets a sync() already under way finish, then waits for the flusher to exit
+    //returns true if the calling thread was interrupted while it waited (the flag is cleared until then)
+    private boolean stopFlusher() {
+        if (flusher == null) return false;
+        stopping = true;
+        LockSupport.unpark(flusher);
+        boolean interrupted = false;
+        while (flusher.isAlive()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        return interrupted;
+    }
+}
@@ -0,0 +1,167 @@
+package com.haseeb.registration;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+//counters and latency histograms for one BackendSystem
+//
+//the recording side (BackendSystem) only ever does LongAdder increments and LatencyHistogram.record,
+//which don't allocate or lock, so the metrics stay on in production. Anything expensive
+//(percentiles, fill rates over the whole catalog) is worked out when someone reads it:
+//the dashboard panel, or a JMX client once registerMBean() was called
+public class RegistrationMetrics implements RegistrationMetricsMXBean {
+
+    final LongAdder queued = new LongAdder(), rejected = new LongAdder();
+    final LongAdder succeeded = new LongAdder(), full = new LongAdder(), alreadyEnrolled = new LongAdder();
+    final LongAdder waitlisted = new LongAdder(), drops = new LongAdder(), promotions = new LongAdder();
+    final LongAdder shed = new LongAdder(), refused = new LongAdder(); //admission control on a full queue
+    final LongAdder coalesced = new LongAdder(), shortCircuited = new LongAdder(); //answered at enqueue time
+    final LongAdder timeConflicts = new LongAdder(), missingPrerequisites = new LongAdder(), overCreditLimit = new LongAdder();
+    final LongAdder journalFailures = new LongAdder(); //a journal stops saving after its first failed write
+    final LatencyHistogram queueLatency = new LatencyHistogram(); //one queueRequest call
+    final LatencyHistogram queueWait = new LatencyHistogram(); //queued until taken off the queue
+    final LatencyHistogram requestLatency = new LatencyHistogram(); //registering one dequeued request
+    final LatencyHistogram batchLatency = new LatencyHistogram(); //one whole processQueue* call
+
+    private final IntSupplier queueDepth;
+    private final Supplier<List<RegistrationSnapshot.CourseState>> courses; //committed versions, never half a batch
+    private ObjectName registeredAs;
+
+    RegistrationMetrics(IntSupplier queueDepth, Supplier<List<RegistrationSnapshot.CourseState>> courses) {
+        this.queueDepth = queueDepth;
+        this.courses = courses;
+    }
+
+    void outcome(Outcome o) {
+        switch (o) {
+            case SUCCESS: succeeded.increment(); break;
+            case FULL: full.increment(); break;
+            case WAITLISTED: waitlisted.increment(); break;
+            case TIME_CONFLICT: timeConflicts.increment(); break;
+            case MISSING_PREREQUISITE: missingPrerequisites.increment(); break;
+            case CREDIT_LIMIT: overCreditLimit.increment(); break;
+            default: alreadyEnrolled.increment(); //already enrolled or already waitlisted
+        }
+    }
+
+    // --- JMX ---
+
+    //publishes these metrics on the platform MBean server
+    //a second backend in the same JVM gets an extra instance=N key instead of failing
+    public synchronized void registerMBean() {
+        if (registeredAs != null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String base = "com.haseeb.registration:type=RegistrationMetrics";
+        try {
+            for (int n = 1; registeredAs == null; n++) {
+                ObjectName name = new ObjectName(n == 1 ? base : base + ",instance=" + n);
+                try {
+                    server.registerMBean(this, name);
+                    registeredAs = name;
+                } catch (InstanceAlreadyExistsException taken) {
+                    //try the next instance number
+                }
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register metrics MBean", e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (registeredAs == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredAs);
+        } catch (JMException ignored) {
+            //already gone
+        }
+        registeredAs = null;
+    }
+
+    @Override public long getRequestsQueued() { return queued.sum(); }
+    @Override public long getRequestsRejected() { return rejected.sum(); }
+    @Override public long getRequestsSucceeded() { return succeeded.sum(); }
+    @Override public long getRequestsFailedFull() { return full.sum(); }
+    @Override public long getRequestsFailedAlreadyEnrolled() { return alreadyEnrolled.sum(); }
+    @Override public long getRequestsWaitlisted() { return waitlisted.sum(); }
+    @Override public long getRequestsFailedTimeConflict() { return timeConflicts.sum(); }
+    @Override public long getRequestsFailedPrerequisites() { return missingPrerequisites.sum(); }
+    @Override public long getRequestsFailedCreditLimit() { return overCreditLimit.sum(); }
+    @Override public long getDrops() { return drops.sum(); }
+    @Override public long getWaitlistPromotions() { return promotions.sum(); }
+    @Override public long getRequestsShed() { return shed.sum(); }
+    @Override public long getRequestsRefused() { return refused.sum(); }
+    @Override public long getRequestsCoalesced() { return coalesced.sum(); }
+    @Override public long getRequestsShortCircuited() { return shortCircuited.sum(); }
+    @Override public long getJournalFailures() { return journalFailures.sum(); }
+    @Override public int getQueueDepth() { return queueDepth.getAsInt(); }
+
+    @Override public LatencyHistogram.Summary getQueueRequestLatency() { return queueLatency.summary(); }
+    @Override public LatencyHistogram.Summary getQueueWaitLatency() { return queueWait.summary(); }
+    @Override public LatencyHistogram.Summary getRequestProcessingLatency() { return requestLatency.summary(); }
+    @Override public LatencyHistogram.Summary getBatchLatency() { return batchLatency.summary(); }
+
+    @Override public void resetLatencies() {
+        queueLatency.reset();
+        queueWait.reset();
+        requestLatency.reset();
+        batchLatency.reset();
+    }
+
+    // --- FILL RATES ---
+    //walk the catalog once per call
+
+    @Override public int getFullCourses() {
+        int n = 0;
+        for (RegistrationSnapshot.CourseState c : courses.get()) if (c.isFull()) n++;
+        return n;
+    }
+
+    //taken seats / all seats
+    @Override public double getOverallFillRate() {
+        long seats = 0, taken = 0;
+        for (RegistrationSnapshot.CourseState c : courses.get()) {
+            seats += c.capacity;
+            taken += c.enrolled;
+        }
+        return seats == 0 ? 0 : (double) taken / seats;
+    }
+
+    @Override public Map<String, Double> getCourseFillRates() {
+        List<RegistrationSnapshot.CourseState> all = courses.get();
+        Map<String, Double> out = new HashMap<>(all.size() * 2);
+        for (RegistrationSnapshot.CourseState c : all) out.put(c.code, fillRate(c));
+        return out;
+    }
+
+    //the k courses closest to full, fullest first (ties in code order), with a k sized heap
+    List<RegistrationSnapshot.CourseState> fullest(int k) {
+        PriorityQueue<RegistrationSnapshot.CourseState> heap = new PriorityQueue<>(Math.max(1, k), (a, b) -> {
+            int cmp = Double.compare(fillRate(a), fillRate(b));
+            return cmp != 0 ? cmp : b.code.compareTo(a.code); //heap top = the one to drop first
+        });
+        for (RegistrationSnapshot.CourseState c : courses.get()) {
+            heap.add(c);
+            if (heap.size() > k) heap.poll();
+        }
+        List<RegistrationSnapshot.CourseState> out = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) out.add(heap.poll());
+        Collections.reverse(out);
+        return out;
+    }
+
+    static double fillRate(RegistrationSnapshot.CourseState c) {
+        return c.capacity <= 0 ? 1 : (double) c.enrolled / c.capacity;
+    }
+}
@@ -0,0 +1,35 @@
+package com.haseeb.registration;
+
+import java.util.Map;
+
+//what jconsole / VisualVM / any JMX client sees under com.haseeb.registration:type=RegistrationMetrics
+public interface RegistrationMetricsMXBean {
+    long getRequestsQueued();
+    long getRequestsRejected(); //unknown student or course, never made it into the queue
+    long getRequestsSucceeded();
+    long getRequestsFailedFull();
+    long getRequestsFailedAlreadyEnrolled(); //includes requests from students already on the waitlist
+    long getRequestsWaitlisted(); //course was full, student got a waitlist spot
+    long getRequestsFailedTimeConflict(); //course meets while the student already has class
+    long getRequestsFailedPrerequisites(); //student hadn't completed a (transitive) prerequisite
+    long getRequestsFailedCreditLimit(); //would have gone over BackendSystem's credit limit
+    long getDrops();
+    long getWaitlistPromotions(); //seats freed by a drop and handed to the next waitlisted student
+    long getRequestsShed(); //pushed out of a full queue by a higher priority request
+    long getRequestsRefused(); //queue full and nothing lower priority to shed
+    long getRequestsCoalesced(); //same student + course was already waiting in the queue
+    long getRequestsShortCircuited(); //student already had (or was waiting for) the course
+    long getJournalFailures(); //journals that stopped saving after a failed write, see RegistrationJournal
+    int getQueueDepth();
+
+    LatencyHistogram.Summary getQueueRequestLatency();
+    LatencyHistogram.Summary getQueueWaitLatency();
+    LatencyHistogram.Summary getRequestProcessingLatency();
+    LatencyHistogram.Summary getBatchLatency();
+
+    int getFullCourses();
+    double getOverallFillRate();
+    Map<String, Double> getCourseFillRates(); //code -> enrolled / capacity, built on request
+
+    void resetLatencies();
+}
@@ -0,0 +1,15 @@
+package com.haseeb.registration;
+
+import java.util.List;
+
+//wrapper for queue
+//queues only store *ONE* type of data but for our scenario we need to process data that has 2 attributes
+class RegistrationRequest {
+    String studentId, courseCode;
+    long seq; //position in the overall request history, lets the journal match results to requests
+    int priority = RequestScheduler.PRIORITY_NORMAL; //class in the scheduler, 0 = served most
+    long queuedAt; //System.nanoTime() when it was queued, for the queue wait metric
+    long key; //student number << 32 | course number, for BackendSystem's pending index; bundles have 0xFFFFFFFF as the course
+    List<String> bundle; //every course of an all-or-nothing bundle (courseCode is the first of them), null = just courseCode
+    public RegistrationRequest(String s, String c) { studentId = s; courseCode = c; }
+}
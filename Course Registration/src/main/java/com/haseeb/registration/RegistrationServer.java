@@ -0,0 +1,399 @@
+package com.haseeb.registration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//HTTP/JSON front door for a BackendSystem, so advisors and kiosks can all use the same backend
+//(the GUI can host it on its own backend too, see CourseRegistrationGUI)
+//
+//  GET  /courses?sort=1|2|3           whole catalog, sorted by code / credits / free seats
+//  GET  /courses?q=calc&limit=20      search by code prefix or name, best match first
+//  POST /courses   {"code","name","credits","capacity","meets"?,"prerequisites"?}
+//                  meets: e.g. "MW 09:00-10:15; F 13:00-14:00", prerequisites: codes separated by spaces
+//  GET  /students?page=0&size=100     students in the order they were added, one page at a time
+//                  &sort=id            ... or in student id order
+//  POST /students  {"id","name"}
+//  POST /requests  {"studentId","courseCode","priority"?}   priority: HIGH, NORMAL (default) or LOW
+//                  several codes separated by spaces = one all-or-nothing bundle (every seat or none)
+//  POST /drops     {"studentId","courseCode"}
+//  POST /completions {"studentId","courseCode"}   a course passed in an earlier term, counts for prerequisites
+//  GET  /queue                        queued requests in processing order
+//  POST /process   {"workers"?,"chunkSize"?}       workers: 1 up to the number of cores (the default)
+//
+//there is no authentication, so by default it only listens on the loopback interface (this machine);
+//start(host, port) with an explicit address opens it to the network, e.g. "0.0.0.0" for every interface
+//
+//every connection gets its own virtual thread, so thousands of mostly idle clients cost next to nothing.
+//BackendSystem already locks each call, and processing runs chunk by chunk, so a long batch
+//doesn't stall everyone else; the course and student listings read a snapshot and don't wait for a
+//chunk at all. Lists are written to the socket one element at a time
+//(chunked transfer), a 100k course dump never sits in memory as one big string
+public class RegistrationServer {
+
+    public static final int DEFAULT_PAGE_SIZE = 100, MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_BODY = 64 * 1024;
+    private static final int DEFAULT_CHUNK_SIZE = 2000;
+
+    private final BackendSystem backend;
+    private HttpServer server;
+    private ExecutorService threads;
+
+    public RegistrationServer(BackendSystem backend) {
+        this.backend = backend;
+    }
+
+    //loopback only, port 0 picks a free one, see getPort()
+    public synchronized void start(int port) throws IOException {
+        start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    //host: the address to listen on, only for when other machines really have to reach it
+    public synchronized void start(String host, int port) throws IOException {
+        start(new InetSocketAddress(InetAddress.getByName(host), port));
+    }
+
+    private void start(InetSocketAddress address) throws IOException {
+        if (server != null) return;
+        server = HttpServer.create(address, 0);
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(threads);
+        server.createContext("/courses", ex -> handle(ex, "/courses", this::courses));
+        server.createContext("/students", ex -> handle(ex, "/students", this::students));
+        server.createContext("/requests", ex -> handle(ex, "/requests", this::requests));
+        server.createContext("/drops", ex -> handle(ex, "/drops", this::drops));
+        server.createContext("/completions", ex -> handle(ex, "/completions", this::completions));
+        server.createContext("/queue", ex -> handle(ex, "/queue", this::queue));
+        server.createContext("/process", ex -> handle(ex, "/process", this::process));
+        server.start();
+    }
+
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    //lets requests in progress finish for up to a second
+    public synchronized void stop() {
+        if (server == null) return;
+        server.stop(1);
+        threads.shutdown();
+        server = null;
+    }
+
+    private interface Route {
+        void handle(HttpExchange ex) throws IOException;
+    }
+
+    //bad input -> 400 with the reason, anything unexpected -> 500
+    private void handle(HttpExchange ex, String path, Route route) {
+        try (ex) {
+            if (!ex.getRequestURI().getPath().equals(path)) {
+                error(ex, 404, "Not found: " + ex.getRequestURI().getPath());
+                return;
+            }
+            try {
+                route.handle(ex);
+            } catch (IllegalArgumentException e) {
+                error(ex, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                error(ex, 500, e.toString());
+            }
+        } catch (IOException e) {
+            //client went away, nothing to answer
+        }
+    }
+
+    // --- ROUTES ---
+
+    private void courses(HttpExchange ex) throws IOException {
+        if (isGet(ex)) {
+            Map<String, String> q = query(ex);
+            String search = q.get("q");
+            List<RegistrationSnapshot.CourseState> courses;
+            if (search != null) { //only the references are copied, the snapshot after them has every course found
+                List<Course> found = backend.searchCourses(search, Math.min(MAX_PAGE_SIZE, Math.max(1, intParam(q, "limit", DEFAULT_SEARCH_LIMIT))));
+                RegistrationSnapshot snap = backend.snapshot();
+                courses = new ArrayList<>(found.size());
+                for (Course c : found) courses.add(snap.getCourse(c.idx));
+            } else { //order and numbers from one version, even mid-batch, without locking the backend
+                courses = backend.snapshot().getCourses(intParam(q, "sort", 1));
+            }
+            try (Writer out = stream(ex, 200)) {
+                out.write('[');
+                for (int i = 0; i < courses.size(); i++) {
+                    if (i > 0) out.write(',');
+                    writeCourse(out, courses.get(i));
+                }
+                out.write(']');
+            }
+        } else if (isPost(ex)) {
+            Map<String, String> body = body(ex);
+            String code = required(body, "code");
+            String meets = body.get("meets"), prerequisites = body.get("prerequisites");
+            boolean added = backend.addCourse(code, required(body, "name"),
+                    intField(body, "credits"), intField(body, "capacity"), meets == null ? "" : meets,
+                    prerequisites == null || prerequisites.isBlank() ? List.of() : List.of(prerequisites.trim().split("\\s+")));
+            answer(ex, added ? 201 : 409, "added", added);
+        } else {
+            notAllowed(ex);
+        }
+    }
+
+    private void students(HttpExchange ex) throws IOException {
+        if (isGet(ex)) {
+            Map<String, String> q = query(ex);
+            int page = Math.max(0, intParam(q, "page", 0));
+            int size = Math.min(MAX_PAGE_SIZE, Math.max(1, intParam(q, "size", DEFAULT_PAGE_SIZE)));
+            int offset = (int) Math.min(Integer.MAX_VALUE, (long) page * size);
+            //everything, id order included, is read from one snapshot without locking the backend at all
+            RegistrationSnapshot snap = backend.snapshot();
+            int total = snap.getStudentCount();
+            List<RegistrationSnapshot.StudentState> students;
+            if ("id".equals(q.get("sort"))) {
+                int end = (int) Math.min(total, (long) offset + size);
+                students = new ArrayList<>(Math.max(0, end - offset));
+                for (int i = offset; i < end; i++) students.add(snap.getStudentSorted(i));
+            } else {
+                students = snap.getStudents(offset, size);
+            }
+            try (Writer out = stream(ex, 200)) {
+                out.write('{');
+                Json.field(out, "total", total);
+                out.write(',');
+                Json.field(out, "page", page);
+                out.write(',');
+                Json.field(out, "size", size);
+                out.write(",\"students\":[");
+                for (int i = 0; i < students.size(); i++) {
+                    RegistrationSnapshot.StudentState s = students.get(i);
+                    if (i > 0) out.write(',');
+                    out.write('{');
+                    Json.field(out, "id", s.getId());
+                    out.write(',');
+                    Json.field(out, "name", s.getName());
+                    out.write(",\"courses\":");
+                    writeStrings(out, s.getCourses());
+                    out.write(",\"waitlisted\":");
+                    writeStrings(out, s.getWaitlisted());
+                    out.write(',');
+                    Json.field(out, "credits", s.getCredits());
+                    out.write('}');
+                }
+                out.write("]}");
+            }
+        } else if (isPost(ex)) {
+            Map<String, String> body = body(ex);
+            boolean added = backend.addStudent(required(body, "id"), required(body, "name"));
+            answer(ex, added ? 201 : 409, "added", added);
+        } else {
+            notAllowed(ex);
+        }
+    }
+
+    //a request that isn't queued (unknown ids, already enrolled, queue full...) answers 409,
+    //the server log has the exact reason
+    private void requests(HttpExchange ex) throws IOException {
+        if (!isPost(ex)) { notAllowed(ex); return; }
+        Map<String, String> body = body(ex);
+        String[] codes = required(body, "courseCode").trim().split("\\s+");
+        boolean queued = codes.length > 1
+                ? backend.queueBundle(required(body, "studentId"), List.of(codes), priority(body.get("priority")))
+                : backend.queueRequest(required(body, "studentId"), codes[0], priority(body.get("priority")));
+        answer(ex, queued ? 202 : 409, "queued", queued);
+    }
+
+    private void drops(HttpExchange ex) throws IOException {
+        if (!isPost(ex)) { notAllowed(ex); return; }
+        Map<String, String> body = body(ex);
+        boolean dropped = backend.dropCourse(required(body, "studentId"), required(body, "courseCode"));
+        answer(ex, dropped ? 200 : 409, "dropped", dropped);
+    }
+
+    private void completions(HttpExchange ex) throws IOException {
+        if (!isPost(ex)) { notAllowed(ex); return; }
+        Map<String, String> body = body(ex);
+        boolean added = backend.addCompletedCourse(required(body, "studentId"), required(body, "courseCode"));
+        answer(ex, added ? 201 : 409, "added", added);
+    }
+
+    private void queue(HttpExchange ex) throws IOException {
+        if (!isGet(ex)) { notAllowed(ex); return; }
+        List<RegistrationRequest> queue = backend.getQueue();
+        try (Writer out = stream(ex, 200)) {
+            out.write('{');
+            Json.field(out, "size", queue.size());
+            out.write(",\"requests\":[");
+            for (int i = 0; i < queue.size(); i++) {
+                RegistrationRequest r = queue.get(i);
+                if (i > 0) out.write(',');
+                out.write('{');
+                Json.field(out, "studentId", r.studentId);
+                out.write(',');
+                Json.field(out, "courseCode", r.courseCode);
+                if (r.bundle != null) { //courseCode is the first of them
+                    out.write(",\"bundle\":");
+                    writeStrings(out, r.bundle);
+                }
+                out.write(',');
+                Json.field(out, "priority", PRIORITY_NAMES[r.priority]);
+                out.write('}');
+            }
+            out.write("]}");
+        }
+    }
+
+    private void process(HttpExchange ex) throws IOException {
+        if (!isPost(ex)) { notAllowed(ex); return; }
+        Map<String, String> body = body(ex);
+        //every distinct worker count makes the backend build a new pool, so clients only get 1..cores
+        int cores = Runtime.getRuntime().availableProcessors();
+        int workers = body.containsKey("workers") ? intField(body, "workers") : cores;
+        if (workers < 1 || workers > cores) throw new IllegalArgumentException("workers must be between 1 and " + cores);
+        int chunk = body.containsKey("chunkSize") ? intField(body, "chunkSize") : DEFAULT_CHUNK_SIZE;
+        BackendSystem.BatchProgress p = backend.processQueueInChunks(Math.max(1, chunk), workers, () -> false, x -> { });
+        try (Writer out = stream(ex, 200)) {
+            out.write('{');
+            Json.field(out, "processed", p.processed);
+            out.write(',');
+            Json.field(out, "succeeded", p.succeeded);
+            out.write(',');
+            Json.field(out, "failed", p.failed());
+            out.write('}');
+        }
+    }
+
+    // --- HELPERS ---
+
+    static final String[] PRIORITY_NAMES = {"HIGH", "NORMAL", "LOW"}; //by RequestScheduler.PRIORITY_*
+
+    private static int priority(String value) {
+        if (value == null) return RequestScheduler.PRIORITY_NORMAL;
+        for (int i = 0; i < PRIORITY_NAMES.length; i++) if (PRIORITY_NAMES[i].equalsIgnoreCase(value)) return i;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("priority must be HIGH, NORMAL or LOW");
+        }
+    }
+
+    //values are read as the list is written, so a row may show a seat count a few ms newer than another
+    private static void writeCourse(Writer out, RegistrationSnapshot.CourseState c) throws IOException {
+        out.write('{');
+        Json.field(out, "code", c.getCode());
+        out.write(',');
+        Json.field(out, "name", c.getName());
+        out.write(',');
+        Json.field(out, "credits", c.getCredits());
+        out.write(',');
+        Json.field(out, "capacity", c.getCapacity());
+        out.write(',');
+        Json.field(out, "meets", c.getMeets());
+        out.write(",\"prerequisites\":");
+        writeStrings(out, c.getPrerequisites());
+        out.write(',');
+        Json.field(out, "enrolled", c.getEnrolled());
+        out.write(',');
+        Json.field(out, "available", c.getAvailable());
+        out.write('}');
+    }
+
+    private static void writeStrings(Writer out, List<String> values) throws IOException {
+        out.write('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) out.write(',');
+            Json.string(out, values.get(i));
+        }
+        out.write(']');
+    }
+
+    private static boolean isGet(HttpExchange ex) { return ex.getRequestMethod().equals("GET"); }
+    private static boolean isPost(HttpExchange ex) { return ex.getRequestMethod().equals("POST"); }
+
+    //chunked response, whatever is written goes out in 16k pieces
+    private static Writer stream(HttpExchange ex, int status) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, 0);
+        return new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    private static void answer(HttpExchange ex, int status, String name, boolean value) throws IOException {
+        try (Writer out = stream(ex, status)) {
+            out.write('{');
+            Json.field(out, name, value);
+            out.write('}');
+        }
+    }
+
+    private static void error(HttpExchange ex, int status, String message) throws IOException {
+        try (Writer out = stream(ex, status)) {
+            out.write('{');
+            Json.field(out, "error", message == null ? "" : message);
+            out.write('}');
+        }
+    }
+
+    private static void notAllowed(HttpExchange ex) throws IOException {
+        error(ex, 405, "Method not allowed: " + ex.getRequestMethod());
+    }
+
+    private static Map<String, String> body(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY + 1);
+            if (bytes.length > MAX_BODY) throw new IllegalArgumentException("request body too large");
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String required(Map<String, String> body, String name) {
+        String v = body.get(name);
+        if (v == null || v.isEmpty()) throw new IllegalArgumentException("missing field: " + name);
+        return v;
+    }
+
+    private static int intField(Map<String, String> body, String name) {
+        try {
+            return Integer.parseInt(required(body, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> out = new HashMap<>();
+        String q = ex.getRequestURI().getRawQuery();
+        if (q == null) return out;
+        for (String pair : q.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static int intParam(Map<String, String> q, String name, int def) {
+        String v = q.get(name);
+        if (v == null) return def;
+        try {
+            return Integer.parseInt(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+}
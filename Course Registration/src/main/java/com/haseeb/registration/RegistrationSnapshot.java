@@ -0,0 +1,256 @@
+package com.haseeb.registration;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+//one committed version of the catalog and everyone's enrollments, frozen
+//
+//BackendSystem publishes a new one after every change (a processed chunk, a drop, a new course...)
+//and BackendSystem.snapshot() just reads the latest, no lock involved. Whatever a reader sees in it
+//stays put, even while the next batch is being processed, and seat counts always match the rosters.
+//
+//versions share everything that didn't change (see PersistentArray), a chunk of 2000 requests only
+//copies the entries it touched. Old versions need no bookkeeping: once no reader holds one anymore
+//the garbage collector takes it like any other object
+//
+//it also has everything the window's tables show (sorted orders, waitlist positions, what changed
+//since the version a table last drew), so the GUI never has to wait on the backend lock
+public final class RegistrationSnapshot {
+
+    static final RegistrationSnapshot EMPTY = new RegistrationSnapshot(0, PersistentArray.empty(),
+            PersistentArray.empty(), Collections.emptyMap(), new StudentStore().frozen(null), null);
+
+    private final long version;
+    final PersistentArray<CourseState> courses; //by Course.idx
+    final PersistentArray<Holdings> holdings; //by Student.idx, null = nothing enrolled or waitlisted
+    private final Map<String, Integer> courseNumbers; //shared between versions, codes -> Course.idx, only ever added to
+    final StudentStore.Frozen students;
+    //course numbers in sort mode 1, 2 and 3 order (code, credits, free seats), sorted when first asked for
+    private volatile int[] byCode, byCredits, bySeats;
+
+    //last: the version before, its course orders are kept if they still hold (the snapshot itself isn't)
+    RegistrationSnapshot(long version, PersistentArray<CourseState> courses, PersistentArray<Holdings> holdings,
+                         Map<String, Integer> courseNumbers, StudentStore.Frozen students, RegistrationSnapshot last) {
+        this.version = version;
+        this.courses = courses;
+        this.holdings = holdings;
+        this.courseNumbers = courseNumbers;
+        this.students = students;
+        if (last != null && last.courses.size() == courses.size()) { //codes and credits never change
+            byCode = last.byCode;
+            byCredits = last.byCredits;
+            if (last.courses == courses) bySeats = last.bySeats;
+        }
+    }
+
+    //goes up by one with every published change
+    public long getVersion() { return version; }
+
+    public int getCourseCount() { return courses.size(); }
+
+    public int getStudentCount() { return students.size; }
+
+    //by the course's number (Course.idx), null if it came after this version
+    public CourseState getCourse(int idx) {
+        return courses.get(idx);
+    }
+
+    public CourseState getCourse(String code) {
+        Integer idx = courseNumbers.get(code);
+        return idx == null ? null : courses.get(idx); //null as well for courses added after this version
+    }
+
+    //by the student's number (Student.idx), null if they came after this version
+    public StudentState getStudent(int idx) {
+        if (idx < 0 || idx >= students.size) return null;
+        return new StudentState(this, idx);
+    }
+
+    //every course by number (Course.idx), for whoever doesn't care about the order
+    public List<CourseState> getCourses() {
+        return new AbstractList<>() {
+            public CourseState get(int i) { return courses.get(i); }
+            public int size() { return courses.size(); }
+        };
+    }
+
+    //every course in BackendSystem.getAllCourses order: 1 = by code, 2 = by credits, 3 = most free seats first
+    //(ties in code order), a view over this version, nothing is copied
+    public List<CourseState> getCourses(int sortMode) {
+        int[] order = courseOrder(sortMode);
+        return new AbstractList<>() {
+            public CourseState get(int i) { return courses.get(order[i]); }
+            public int size() { return order.length; }
+        };
+    }
+
+    //the same as course numbers, shared, must not be changed
+    int[] courseOrder(int sortMode) {
+        switch (sortMode) {
+            case 2: {
+                int[] o = byCredits;
+                if (o == null) byCredits = o = sortCourses(order(2));
+                return o;
+            }
+            case 3: {
+                int[] o = bySeats;
+                if (o == null) bySeats = o = sortCourses(order(3));
+                return o;
+            }
+            default: {
+                int[] o = byCode;
+                if (o == null) byCode = o = sortCourses(order(1));
+                return o;
+            }
+        }
+    }
+
+    //the order of getCourses(sortMode)
+    static Comparator<CourseState> order(int sortMode) {
+        switch (sortMode) {
+            case 2: return Comparator.comparingInt((CourseState c) -> c.credits).thenComparing(c -> c.code);
+            case 3: return Comparator.comparingInt(CourseState::getAvailable).reversed().thenComparing(c -> c.code);
+            default: return Comparator.comparing(c -> c.code);
+        }
+    }
+
+    //nothing in a version ever changes, so the comparator always sees the same numbers
+    private int[] sortCourses(Comparator<CourseState> order) {
+        CourseState[] all = new CourseState[courses.size()];
+        for (int i = 0; i < all.length; i++) all[i] = courses.get(i);
+        Arrays.sort(all, order);
+        int[] out = new int[all.length];
+        for (int i = 0; i < out.length; i++) out[i] = all[i].idx;
+        return out;
+    }
+
+    //student number for the id, -1 if there is no such student in this version
+    public int findStudent(String id) {
+        return students.find(id);
+    }
+
+    //the student at position pos in student id order, null past the end
+    public StudentState getStudentSorted(int pos) {
+        if (pos < 0 || pos >= students.size) return null;
+        return new StudentState(this, students.sortedAt(pos));
+    }
+
+    //where the student (by Student.idx) is in student id order
+    public int getSortedPosition(int idx) {
+        return students.rankOf(idx);
+    }
+
+    //1 = next in line, 0 = not waitlisted (or a student/course this version doesn't have)
+    public int getWaitlistPosition(int student, int course) {
+        CourseState c = courses.get(course);
+        if (c == null) return 0;
+        for (int i = 0; i < c.waitlist.length; i++) if (c.waitlist[i] == student) return i + 1;
+        return 0;
+    }
+
+    public int getWaitlistPosition(String studentId, String courseCode) {
+        Integer course = courseNumbers.get(courseCode);
+        int student = findStudent(studentId);
+        return course == null || student < 0 ? 0 : getWaitlistPosition(student, course);
+    }
+
+    //numbers of the courses/students that look different here than in older (an earlier version),
+    //new ones included; only the parts the two versions don't share are compared
+    public BitSet changedCourses(RegistrationSnapshot older) {
+        BitSet out = new BitSet();
+        courses.changedSince(older.courses, out);
+        return out;
+    }
+
+    public BitSet changedStudents(RegistrationSnapshot older) {
+        BitSet out = new BitSet();
+        holdings.changedSince(older.holdings, out);
+        return out;
+    }
+
+    //up to limit students starting at number offset, in the order they were added
+    public List<StudentState> getStudents(int offset, int limit) {
+        int end = (int) Math.min(students.size, Math.max(0, offset) + (long) Math.max(0, limit));
+        List<StudentState> page = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = Math.max(0, offset); i < end; i++) page.add(new StudentState(this, i));
+        return page;
+    }
+
+    private List<String> codes(int[] courseNumbers) {
+        List<String> out = new ArrayList<>(courseNumbers.length);
+        for (int c : courseNumbers) out.add(courses.get(c).code);
+        Collections.sort(out);
+        return out;
+    }
+
+    //what a student holds in one version, both arrays are course numbers and never change
+    static final class Holdings {
+        final int[] enrolled, waitlisted;
+        Holdings(int[] enrolled, int[] waitlisted) { this.enrolled = enrolled; this.waitlisted = waitlisted; }
+    }
+
+    public static final class CourseState {
+        final String code, name, meets;
+        final List<String> prerequisites;
+        final int idx, credits, capacity, enrolled;
+        final int[] waitlist; //student numbers, front of the line first
+
+        CourseState(Course c, int[] waitlist) {
+            this.code = c.code; this.name = c.name; this.meets = c.meets.toString();
+            this.prerequisites = c.prerequisites; this.idx = c.idx; this.credits = c.credits;
+            this.capacity = c.capacity; this.enrolled = c.enrolled; this.waitlist = waitlist;
+        }
+
+        public String getCode() { return code; }
+        public String getName() { return name; }
+        public String getMeets() { return meets; } //"" = no fixed meeting time
+        public List<String> getPrerequisites() { return prerequisites; } //direct ones, unmodifiable
+        public int getCredits() { return credits; }
+        public int getCapacity() { return capacity; }
+        public int getEnrolled() { return enrolled; }
+        public int getAvailable() { return capacity - enrolled; }
+        public int getWaitlisted() { return waitlist.length; }
+        public int getIndex() { return idx; } //Course.idx
+        public boolean isFull() { return enrolled >= capacity; }
+    }
+
+    //made when asked for, the id and name are read from the student store as of this version
+    public static final class StudentState {
+        private final RegistrationSnapshot snap;
+        private final int idx;
+
+        private StudentState(RegistrationSnapshot snap, int idx) {
+            this.snap = snap;
+            this.idx = idx;
+        }
+
+        public int getIndex() { return idx; }
+        public String getId() { return snap.students.id(idx); }
+        public String getName() { return snap.students.name(idx); }
+
+        //course codes, sorted
+        public List<String> getCourses() {
+            Holdings h = snap.holdings.get(idx);
+            return h == null ? new ArrayList<>() : snap.codes(h.enrolled);
+        }
+
+        public List<String> getWaitlisted() {
+            Holdings h = snap.holdings.get(idx);
+            return h == null ? new ArrayList<>() : snap.codes(h.waitlisted);
+        }
+
+        //credits of the courses they're enrolled in
+        public int getCredits() {
+            Holdings h = snap.holdings.get(idx);
+            int total = 0;
+            if (h != null) for (int c : h.enrolled) total += snap.courses.get(c).credits;
+            return total;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.haseeb.registration;
+
+import java.util.List;
+
+//decides the order queued requests are processed in, and how many may wait at once
+//BackendSystem only talks to this interface, so the policy can be swapped with setScheduler:
+//  PriorityScheduler -> priority classes + round robin between students (the default)
+//  FifoScheduler     -> plain first come first served, like the old LinkedList queue
+//both are bounded: offer() refuses once capacity() requests are waiting
+public interface RequestScheduler {
+    //priority classes, 0 is served most, see RegistrationRequest.priority
+    int PRIORITY_HIGH = 0, PRIORITY_NORMAL = 1, PRIORITY_LOW = 2;
+    int PRIORITY_CLASSES = 3;
+
+    //false if the scheduler is full, the request is not added
+    boolean offer(RegistrationRequest req);
+
+    //adds even past capacity, only used to put back requests that were already accepted (journal replay)
+    void restore(RegistrationRequest req);
+
+    //makes room for a request of the given priority by removing a queued one of a lower class
+    //returns the removed request, or null if nothing can be shed (then the new request has to be refused)
+    RegistrationRequest shedFor(int priority);
+
+    //next request to process, null if empty
+    RegistrationRequest poll();
+
+    int size();
+    int capacity();
+    void clear();
+
+    //every waiting request in the order poll() would return them, the scheduler itself is not changed
+    List<RegistrationRequest> toList();
+
+    default boolean isEmpty() { return size() == 0; }
+    default boolean isFull() { return size() >= capacity(); }
+}
@@ -0,0 +1,362 @@
+package com.haseeb.registration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+//several BackendSystems ("shards") side by side, each one owning the courses whose code hashes to it
+//
+//every shard has its own queue, seat counts, rosters, waitlists and indexes, and works through its
+//queue on its own thread, so N shards process N queues at once without ever sharing a backend lock.
+//The router only has to send each request to the shard that owns its course.
+//
+//a shard only has the courses it owns, in its indexes and in its journal. What every shard needs to see
+//is in one Catalog they all share: the students (stored once, one number everywhere), what each of them
+//carries across shards (their week and credits, StudentLoad, with the lock stripes that guard it, so time
+//clashes and the credit limit hold across shards too) and the prerequisite graph, where a course can need
+//courses on other shards. Two shards only ever wait on each other for a student both of them are
+//registering at that very moment.
+//
+//shards only read the catalog. Changing it (a new student, course or completed course, an import) goes
+//through exclusive(), which holds every shard's lock while the owning shard makes the change
+//
+//what sharding gives up:
+//- a bundle has to live on one shard (every code hashing there), anything else is refused
+//- one student's requests on different shards race: which of two clashing courses wins depends on
+//  which shard gets there first, not on where they were in line
+//- views are gathered from each shard's latest state, so they can mix shards that are a chunk apart
+//
+//with a data directory shard i keeps its journal in dataDir/shard-i, the catalog in dataDir/catalog
+public class ShardedBackend {
+
+    private final BackendSystem[] shards;
+    private final Catalog catalog; //shared by every shard
+    private final ExecutorService[] processors; //one thread per shard
+    private final RegistrationMetrics metrics; //every shard records into this one
+    private final LogSink logger;
+
+    public ShardedBackend(LogSink logger, int shardCount, Path dataDir) {
+        this.logger = logger;
+        this.metrics = new RegistrationMetrics(this::getQueueSize, this::courseStates);
+        int n = Math.max(1, shardCount);
+        Catalog shared = new Catalog();
+        BackendSystem[] opened = null;
+        if (dataDir == null || laidOutFor(dataDir, n)) {
+            opened = open(n, dataDir, shared);
+            if (dataDir != null && !consistent(opened, shared)) {
+                for (BackendSystem s : opened) s.close();
+                shared.close(logger);
+                opened = null;
+            }
+        }
+        if (opened == null) {
+            logger.log("Error: the shards saved in {} don't fit together ({} shards now). Running in memory only.", dataDir, n);
+            shared = new Catalog();
+            opened = open(n, null, shared);
+        }
+        shards = opened;
+        catalog = shared;
+        processors = new ExecutorService[n];
+        for (int i = 0; i < n; i++) {
+            String name = "shard-" + i;
+            processors[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    //the catalog first (the students), then the shards in order, the last one links prerequisites and
+    //completed courses to courses on any shard (see Catalog.resolve)
+    private BackendSystem[] open(int n, Path dataDir, Catalog catalog) {
+        if (dataDir != null) catalog.open(dataDir.resolve("catalog"), logger, metrics);
+        BackendSystem[] out = new BackendSystem[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = new BackendSystem(logger, dataDir == null ? null : dataDir.resolve("shard-" + i), catalog, metrics);
+        }
+        return out;
+    }
+
+    //nothing saved yet, or a catalog saved with exactly n shards: with any other count courses would hash
+    //to a shard that doesn't have their rosters (checked before opening, so no directory gets created)
+    private static boolean laidOutFor(Path dataDir, int n) {
+        if (!Files.exists(dataDir.resolve("shard-0")) && !Files.exists(dataDir.resolve("catalog"))) return true;
+        if (!Files.exists(dataDir.resolve("catalog"))) return false;
+        for (int i = 0; i < n; i++) if (!Files.exists(dataDir.resolve("shard-" + i))) return false;
+        return !Files.exists(dataDir.resolve("shard-" + n));
+    }
+
+    //the catalog and every shard loaded their own saved data (a shard that couldn't has let go of the catalog)
+    private static boolean consistent(BackendSystem[] shards, Catalog catalog) {
+        if (catalog.journal == null) return false;
+        for (BackendSystem s : shards) if (!s.isPersistent()) return false;
+        return true;
+    }
+
+    public int getShardCount() { return shards.length; }
+
+    //same hash as runParallel's worker split, codes are case insensitive like in CourseBST
+    int shardOf(String courseCode) {
+        return shards.length == 1 ? 0 : Math.floorMod(courseCode.trim().toUpperCase().hashCode(), shards.length);
+    }
+
+    private BackendSystem owner(String courseCode) {
+        return shards[shardOf(courseCode)];
+    }
+
+    public RegistrationMetrics getMetrics() { return metrics; }
+
+    // --- CATALOG CHANGES ---
+    //made by one shard (the course's owner, or shard 0 for students) while no shard can run, see exclusive
+
+    public synchronized boolean addCourse(String code, String name, int credits, int cap, String meets) {
+        return addCourse(code, name, credits, cap, meets, List.of());
+    }
+
+    //prerequisites can be on any shard
+    public synchronized boolean addCourse(String code, String name, int credits, int cap, String meets, List<String> prerequisites) {
+        return exclusive(() -> owner(code).addCourse(code, name, credits, cap, meets, prerequisites));
+    }
+
+    public synchronized boolean addStudent(String id, String name) {
+        return exclusive(() -> shards[0].addStudent(id, name));
+    }
+
+    public synchronized boolean addCompletedCourse(String studentId, String courseCode) {
+        return exclusive(() -> owner(courseCode).addCompletedCourse(studentId, courseCode));
+    }
+
+    //every shard goes through the file and takes its own lines
+    public synchronized String importCourses(Path csv) throws IOException {
+        long start = System.nanoTime();
+        int[] counts = exclusive(() -> {
+            int known = catalog.courseCount();
+            int[] total = new int[3];
+            for (int i = 0; i < shards.length; i++) {
+                int shard = i;
+                int[] c = shards[i].importCourses(csv, code -> shardOf(code) == shard, known);
+                for (int k = 0; k < total.length; k++) total[k] += c[k];
+            }
+            return total;
+        });
+        String summary = BackendSystem.importSummary("courses", counts, csv, start);
+        logger.log("{}", summary);
+        return summary;
+    }
+
+    public synchronized String importStudents(Path csv) throws IOException {
+        return exclusive(() -> shards[0].importStudents(csv));
+    }
+
+    private interface Change<T, E extends Exception> {
+        T make() throws E;
+    }
+
+    //makes the change holding every shard's lock (always in shard order, and no shard ever takes another
+    //one's, so this can't deadlock), so no shard is reading the catalog meanwhile. Before letting go every
+    //shard makes room for new students and the prerequisite closures are rebuilt, so no shard ever has to
+    //change the catalog itself
+    private <T, E extends Exception> T exclusive(Change<T, E> change) throws E {
+        return exclusive(0, change);
+    }
+
+    private <T, E extends Exception> T exclusive(int from, Change<T, E> change) throws E {
+        if (from < shards.length) {
+            synchronized (shards[from]) {
+                return exclusive(from + 1, change);
+            }
+        }
+        try {
+            return change.make();
+        } finally {
+            for (BackendSystem s : shards) s.studentsAdded();
+            catalog.resolve();
+            catalog.commit(logger);
+        }
+    }
+
+    // --- COPIED TO EVERY SHARD ---
+
+    public synchronized void setCreditLimit(int credits) {
+        for (BackendSystem s : shards) s.setCreditLimit(credits);
+    }
+
+    public synchronized void setWaitlistLimit(int limit) {
+        for (BackendSystem s : shards) s.setWaitlistLimit(limit);
+    }
+
+    //each shard gets a scheduler of its own
+    public synchronized void setScheduler(Supplier<RequestScheduler> scheduler) {
+        for (BackendSystem s : shards) s.setScheduler(scheduler.get());
+    }
+
+    // --- ROUTED TO THE OWNING SHARD ---
+    //no router lock, only the owning shard's
+
+    public boolean queueRequest(String studentId, String courseCode) {
+        return owner(courseCode).queueRequest(studentId, courseCode);
+    }
+
+    public boolean queueRequest(String studentId, String courseCode, int priority) {
+        return owner(courseCode).queueRequest(studentId, courseCode, priority);
+    }
+
+    //only for courses on one shard, an all-or-nothing bundle can't be split between two queues
+    public boolean queueBundle(String studentId, List<String> courseCodes, int priority) {
+        int shard = courseCodes.isEmpty() ? 0 : shardOf(courseCodes.get(0));
+        for (String code : courseCodes) {
+            if (shardOf(code) != shard) {
+                metrics.rejected.increment();
+                logger.log("Error: Bundle {} spans shards, its courses have to be on one shard.", String.join(" + ", courseCodes));
+                return false;
+            }
+        }
+        return shards[shard].queueBundle(studentId, courseCodes, priority);
+    }
+
+    public boolean dropCourse(String studentId, String courseCode) {
+        return owner(courseCode).dropCourse(studentId, courseCode);
+    }
+
+    public List<String> getWaitlist(String courseCode) {
+        return owner(courseCode).getWaitlist(courseCode);
+    }
+
+    // --- PROCESSING ---
+
+    //every shard works through what is queued on it right now, each on its own thread, chunkSize at a
+    //time with workersPerShard workers (1 is plenty once there are as many shards as cores)
+    //returns once they all finished, with their progress added up
+    public BackendSystem.BatchProgress processQueueInChunks(int chunkSize, int workersPerShard, BooleanSupplier cancelled) {
+        List<Future<BackendSystem.BatchProgress>> running = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            BackendSystem shard = shards[i];
+            if (shard.getQueueSize() == 0) continue;
+            running.add(processors[i].submit(() -> shard.processQueueInChunks(chunkSize, workersPerShard, cancelled, p -> { })));
+        }
+        int total = 0, processed = 0, succeeded = 0;
+        boolean wasCancelled = false, interrupted = false;
+        for (int i = 0; i < running.size(); i++) {
+            BackendSystem.BatchProgress p;
+            try {
+                p = running.get(i).get();
+            } catch (InterruptedException e) {
+                interrupted = true; //the shards keep going anyway, so wait for them and count everything
+                i--;
+                continue;
+            } catch (ExecutionException e) {
+                logger.log("Error while processing shard: {}", e.getCause());
+                continue;
+            }
+            total += p.total;
+            processed += p.processed;
+            succeeded += p.succeeded;
+            wasCancelled |= p.cancelled;
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return new BackendSystem.BatchProgress(total, processed, succeeded, wasCancelled);
+    }
+
+    // --- GATHERED VIEWS ---
+
+    public int getQueueSize() {
+        int n = 0;
+        for (BackendSystem s : shards) n += s.getQueueSize();
+        return n;
+    }
+
+    //the owning shard's latest committed state of the course, null if there is no such course
+    public RegistrationSnapshot.CourseState getCourse(String courseCode) {
+        return owner(courseCode).snapshot().getCourse(courseCode);
+    }
+
+    //every shard's courses from its latest snapshot, no lock taken
+    private List<RegistrationSnapshot.CourseState> courseStates() {
+        List<RegistrationSnapshot.CourseState> all = new ArrayList<>();
+        for (BackendSystem s : shards) all.addAll(s.snapshot().getCourses());
+        return all;
+    }
+
+    //every shard's courses in the same orders as BackendSystem.getAllCourses, as of each shard's
+    //latest snapshot: nothing in a snapshot changes, so each shard's list is sorted on its own (and
+    //cached there) and the lists only get merged here, no lock taken and no live Course compared
+    public List<RegistrationSnapshot.CourseState> getAllCourses(int sortMode) {
+        return merged(sortMode, Integer.MAX_VALUE);
+    }
+
+    public List<RegistrationSnapshot.CourseState> getMostAvailable(int k) {
+        return merged(3, k);
+    }
+
+    //the first limit courses of every shard's sorted list merged
+    private List<RegistrationSnapshot.CourseState> merged(int sortMode, int limit) {
+        List<List<RegistrationSnapshot.CourseState>> runs = new ArrayList<>(shards.length);
+        for (BackendSystem s : shards) runs.add(s.snapshot().getCourses(sortMode));
+        Comparator<RegistrationSnapshot.CourseState> order = RegistrationSnapshot.order(sortMode);
+        int[] at = new int[runs.size()];
+        List<RegistrationSnapshot.CourseState> out = new ArrayList<>();
+        while (out.size() < limit) {
+            int best = -1;
+            for (int r = 0; r < runs.size(); r++) {
+                List<RegistrationSnapshot.CourseState> run = runs.get(r);
+                if (at[r] < run.size() && (best < 0 || order.compare(run.get(at[r]), runs.get(best).get(at[best])) < 0)) best = r;
+            }
+            if (best < 0) break;
+            out.add(runs.get(best).get(at[best]++));
+        }
+        return out;
+    }
+
+    public int getStudentCount() {
+        return shards[0].getStudentCount();
+    }
+
+    //course codes the student is enrolled in on any shard, sorted, empty for an unknown student
+    public List<String> getRegisteredCourses(String studentId) {
+        return gather(studentId, false);
+    }
+
+    public List<String> getWaitlistedCourses(String studentId) {
+        return gather(studentId, true);
+    }
+
+    public int getCreditLoad(String studentId) {
+        int idx = shards[0].findStudentNumber(studentId);
+        int credits = 0;
+        for (BackendSystem s : shards) {
+            RegistrationSnapshot.StudentState st = idx < 0 ? null : s.snapshot().getStudent(idx);
+            if (st != null) credits += st.getCredits();
+        }
+        return credits;
+    }
+
+    private List<String> gather(String studentId, boolean waitlisted) {
+        int idx = shards[0].findStudentNumber(studentId);
+        List<String> out = new ArrayList<>();
+        if (idx < 0) return out;
+        for (BackendSystem s : shards) {
+            RegistrationSnapshot.StudentState st = s.snapshot().getStudent(idx);
+            if (st != null) out.addAll(waitlisted ? st.getWaitlisted() : st.getCourses());
+        }
+        out.sort(null);
+        return out;
+    }
+
+    //stops the shard threads and makes sure every shard is on disk
+    public synchronized void close() {
+        for (ExecutorService p : processors) p.shutdown();
+        for (BackendSystem s : shards) s.close();
+        catalog.close(logger);
+        metrics.unregisterMBean();
+    }
+}
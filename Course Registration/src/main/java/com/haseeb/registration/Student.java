@@ -0,0 +1,17 @@
+package com.haseeb.registration;
+
+//helper class to store student information
+//just a handle now: the student itself lives in the backend's StudentStore, this is made when someone asks for one
+class Student {
+    final String id;
+    final int idx; //dense number handed out by StudentStore, registered courses live in EnrollmentIndex
+    private final StudentStore store;
+    private String name; //read from the store the first time someone wants it
+
+    Student(String id, int idx, StudentStore store) { this.id = id; this.idx = idx; this.store = store; }
+
+    String name() {
+        if (name == null) name = store.name(idx);
+        return name;
+    }
+}
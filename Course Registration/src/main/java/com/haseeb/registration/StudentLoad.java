@@ -0,0 +1,80 @@
+package com.haseeb.registration;
+
+import java.util.Arrays;
+
+//what each student already carries across all the courses they're enrolled in
+//
+//week:    the OR of the MeetingTimes of every course they have, so checking a request is 7 ANDs against
+//         that one bitmap instead of a look at every course. Works because enrolled courses never
+//         overlap, so dropping one just clears its bits (only made once they enroll in a timed course)
+//credits: running total of the credits of those courses
+//
+//threading: a student's entries are only touched under that student's lock stripe. One StudentLoad can
+//be shared by several engines (the shards of a ShardedBackend, each enrolling students in its own
+//courses) as long as they share the lock stripes too. Students live in pages of 1024 that never move,
+//adding one only swaps in a longer page directory, so an engine adding students never trips up
+//another one that is reading a page at the same time
+class StudentLoad {
+    private static final int PAGE_BITS = 10, PAGE = 1 << PAGE_BITS;
+
+    private static final class Page {
+        final long[][] weeks = new long[PAGE][]; //null = nothing timed yet
+        final int[] credits = new int[PAGE];
+    }
+
+    private volatile Page[] pages = new Page[0];
+
+    //makes room for the student, fine to call again for one that's already there
+    void addStudent(Student s) {
+        int p = s.idx >>> PAGE_BITS;
+        if (p < pages.length) return;
+        synchronized (this) {
+            Page[] grown = pages;
+            if (p < grown.length) return;
+            int old = grown.length;
+            grown = Arrays.copyOf(grown, p + 1);
+            for (int i = old; i < grown.length; i++) grown[i] = new Page();
+            pages = grown;
+        }
+    }
+
+    private Page page(int student) {
+        return pages[student >>> PAGE_BITS];
+    }
+
+    //true if the course meets while the student already has class
+    boolean conflicts(Student s, Course c) {
+        long[] week = page(s.idx).weeks[s.idx & (PAGE - 1)];
+        if (week == null || c.meets.isEmpty()) return false;
+        long[] meets = c.meets.days;
+        for (int d = 0; d < MeetingTimes.DAYS; d++) if ((week[d] & meets[d]) != 0) return true;
+        return false;
+    }
+
+    int credits(int student) {
+        return page(student).credits[student & (PAGE - 1)];
+    }
+
+    //the student just enrolled in the course
+    void take(Student s, Course c) {
+        Page page = page(s.idx);
+        int i = s.idx & (PAGE - 1);
+        page.credits[i] += c.credits;
+        if (c.meets.isEmpty()) return;
+        long[] week = page.weeks[i];
+        if (week == null) page.weeks[i] = week = new long[MeetingTimes.DAYS];
+        long[] meets = c.meets.days;
+        for (int d = 0; d < MeetingTimes.DAYS; d++) week[d] |= meets[d];
+    }
+
+    //the student just left the course
+    void release(Student s, Course c) {
+        Page page = page(s.idx);
+        int i = s.idx & (PAGE - 1);
+        page.credits[i] -= c.credits;
+        long[] week = page.weeks[i];
+        if (week == null) return;
+        long[] meets = c.meets.days;
+        for (int d = 0; d < MeetingTimes.DAYS; d++) week[d] &= ~meets[d];
+    }
+}
@@ -0,0 +1,290 @@
+package com.haseeb.registration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//every student in a few big arrays instead of one object (plus two Strings, plus a map entry) each
+//
+//ids:    IDs like "20241-35751" are made of digits, capital letters and dashes, so they pack into a long:
+//        base 38, one digit per char, left aligned (12 chars max). Comparing the longs compares the
+//        IDs like String.compareTo does. Anything else ("s-12", "Ali 7") keeps its String, they're rare
+//names:  UTF-8 bytes one after the other in a single growing byte array, nameAt[i] is where student i starts
+//lookup: packed ID -> student number in a LongIntMap, no boxing, no entry objects
+//sorted: a student number array in ID order, new students are merged in the next time someone
+//        pages through it, so adding a student never re-sorts the whole population
+//        (frozen() views do the same merge on their own, without touching the store)
+//
+//students are numbered 0,1,2... as they are added (the same number EnrollmentIndex uses)
+//nothing is ever overwritten, arrays only grow by copying, which is what lets frozen() hand
+//other threads a view of the current arrays without copying them
+//about 30 bytes per student instead of 200+ with a HashMap<String, Student>
+class StudentStore {
+
+    private static final int MAX_PACKED = 12; //38^12 still fits in a positive long
+
+    private long[] ids = new long[16]; //packed ID, or ~i for oddIds[i]
+    private int[] nameAt = new int[17]; //name i is arena[nameAt[i] .. nameAt[i + 1])
+    private byte[] arena = new byte[256];
+    private int size;
+    private final LongIntMap byPacked = new LongIntMap();
+    private String[] oddIds = new String[4];
+    private int oddCount;
+    private final Map<String, Integer> byOdd = new HashMap<>();
+
+    private int[] order = new int[0]; //student numbers in ID order, the first order.length of them, never changed in place
+    private int[] rank = new int[0]; //student number -> position in order
+    private Object stamp = new Object(); //new after clear(), so a frozen view of the old students isn't reused
+
+    int size() { return size; }
+
+    //student number of the new student, or -1 if the ID is taken
+    int add(String id, String name) {
+        if (find(id) >= 0) return -1;
+        int i = size;
+        if (i == ids.length) ensureCapacity(i * 2);
+        long packed = pack(id);
+        if (packed >= 0) {
+            byPacked.putIfAbsent(packed, i);
+            ids[i] = packed;
+        } else {
+            if (oddCount == oddIds.length) oddIds = Arrays.copyOf(oddIds, oddCount * 2);
+            ids[i] = ~oddCount;
+            oddIds[oddCount++] = id;
+            byOdd.put(id, i);
+        }
+        byte[] b = name.getBytes(StandardCharsets.UTF_8);
+        int at = nameAt[i];
+        if (at + b.length > arena.length) arena = Arrays.copyOf(arena, Math.max(arena.length * 2, at + b.length));
+        System.arraycopy(b, 0, arena, at, b.length);
+        nameAt[i + 1] = at + b.length;
+        size++;
+        return i;
+    }
+
+    //grows everything once for a big import instead of doubling as it goes
+    void ensureCapacity(int students) {
+        if (students <= ids.length) return;
+        ids = Arrays.copyOf(ids, students);
+        nameAt = Arrays.copyOf(nameAt, students + 1);
+        byPacked.ensureCapacity(students);
+    }
+
+    //student number, or -1 if there is no such student
+    int find(String id) {
+        long packed = pack(id);
+        if (packed >= 0) return byPacked.get(packed, -1);
+        Integer i = byOdd.get(id);
+        return i == null ? -1 : i;
+    }
+
+    String id(int i) {
+        return id(ids, oddIds, i);
+    }
+
+    String name(int i) {
+        return name(nameAt, arena, i);
+    }
+
+    private static String id(long[] ids, String[] oddIds, int i) {
+        long k = ids[i];
+        return k >= 0 ? unpack(k) : oddIds[(int) ~k];
+    }
+
+    private static String name(int[] nameAt, byte[] arena, int i) {
+        return new String(arena, nameAt[i], nameAt[i + 1] - nameAt[i], StandardCharsets.UTF_8);
+    }
+
+    //the first size students as they are right now, readable from any thread while the store keeps growing
+    //(later adds only write past the end of these arrays or into new copies of them)
+    //last: an earlier view of this store, if it already worked out the ID order that is where the new
+    //view's merge starts (otherwise from the store's own order)
+    Frozen frozen(Frozen last) {
+        int[] base = order;
+        if (last != null && last.stamp == stamp) {
+            int[] done = last.order;
+            if (done != null && done.length > base.length) base = done;
+        }
+        return new Frozen(ids, nameAt, arena, oddIds, size, base, stamp);
+    }
+
+    //a frozen view also knows its students' ID order, merged in the first time a reader asks for it
+    //(on the reader's thread, from the frozen arrays only, so no lock is involved)
+    static final class Frozen {
+        private final long[] ids;
+        private final int[] nameAt;
+        private final byte[] arena;
+        private final String[] oddIds;
+        final int size;
+        private final int[] base; //ID order of the first base.length students
+        private final Object stamp;
+        private volatile int[] order, rank; //null until someone asks, then ID order of all size students
+
+        private Frozen(long[] ids, int[] nameAt, byte[] arena, String[] oddIds, int size, int[] base, Object stamp) {
+            this.ids = ids; this.nameAt = nameAt; this.arena = arena; this.oddIds = oddIds; this.size = size;
+            this.base = base;
+            this.stamp = stamp;
+        }
+
+        String id(int i) { return StudentStore.id(ids, oddIds, i); }
+        String name(int i) { return StudentStore.name(nameAt, arena, i); }
+
+        //the student at position pos in ID order
+        int sortedAt(int pos) {
+            return sortedOrder()[pos];
+        }
+
+        //position of student i in ID order
+        int rankOf(int i) {
+            sortedOrder();
+            return rank[i];
+        }
+
+        //student number, or -1 if there is no such student in this view (binary search over the ID order)
+        int find(String id) {
+            int[] o = sortedOrder();
+            long packed = pack(id);
+            int lo = 0, hi = o.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long k = ids[o[mid]];
+                int cmp = packed >= 0 && k >= 0 ? Long.compare(k, packed) : id(o[mid]).compareTo(id);
+                if (cmp == 0) return o[mid];
+                if (cmp < 0) lo = mid + 1;
+                else hi = mid - 1;
+            }
+            return -1;
+        }
+
+        //two readers racing here both do the merge and end up with equal arrays, nothing is lost
+        private int[] sortedOrder() {
+            int[] o = order;
+            if (o == null) {
+                o = StudentStore.catchUp(ids, oddIds, base, size);
+                rank = ranks(o);
+                order = o; //written last, a reader that sees it sees rank too
+            }
+            return o;
+        }
+    }
+
+    //starting over after a failed recovery: fresh arrays, so even an old frozen() view stays intact
+    void clear() {
+        ids = new long[16];
+        nameAt = new int[17];
+        arena = new byte[256];
+        size = 0;
+        byPacked.clear();
+        oddIds = new String[4];
+        oddCount = 0;
+        byOdd.clear();
+        order = new int[0];
+        rank = new int[0];
+        stamp = new Object();
+    }
+
+    //the student at position pos in ID order
+    int sortedAt(int pos) {
+        catchUp();
+        return order[pos];
+    }
+
+    //position of student i in ID order
+    int rankOf(int i) {
+        catchUp();
+        return rank[i];
+    }
+
+    private void catchUp() {
+        if (order.length == size) return;
+        order = catchUp(ids, oddIds, order, size);
+        rank = ranks(order);
+    }
+
+    //the ID order of the first size students, given the ID order of the first sorted.length of them:
+    //sorts the ones after that on their own and merges them in, O(n) for the merge
+    //(only reads the arrays, which is what lets a frozen view do it too)
+    private static int[] catchUp(long[] ids, String[] oddIds, int[] sorted, int size) {
+        if (sorted.length == size) return sorted;
+        int from = sorted.length, fresh = size - from;
+        //packed IDs sort as plain longs and are mapped back to their student numbers afterwards
+        long[] keys = new long[fresh];
+        LongIntMap numbers = new LongIntMap(fresh);
+        int packedCount = 0;
+        List<Integer> odd = new ArrayList<>();
+        for (int i = from; i < size; i++) {
+            if (ids[i] >= 0) {
+                keys[packedCount++] = ids[i];
+                numbers.putIfAbsent(ids[i], i);
+            } else {
+                odd.add(i);
+            }
+        }
+        Arrays.sort(keys, 0, packedCount);
+        odd.sort((a, b) -> id(ids, oddIds, a).compareTo(id(ids, oddIds, b)));
+        int[] packedNew = new int[packedCount];
+        for (int k = 0; k < packedCount; k++) packedNew[k] = numbers.get(keys[k], -1);
+        int[] oddNew = new int[odd.size()];
+        for (int k = 0; k < oddNew.length; k++) oddNew[k] = odd.get(k);
+
+        int[] added = merge(ids, oddIds, packedNew, oddNew);
+        return merge(ids, oddIds, sorted, added);
+    }
+
+    private static int[] ranks(int[] order) {
+        int[] rank = new int[order.length];
+        for (int p = 0; p < order.length; p++) rank[order[p]] = p;
+        return rank;
+    }
+
+    private static int[] merge(long[] ids, String[] oddIds, int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, o = 0;
+        while (i < a.length && j < b.length) out[o++] = compare(ids, oddIds, a[i], b[j]) <= 0 ? a[i++] : b[j++];
+        while (i < a.length) out[o++] = a[i++];
+        while (j < b.length) out[o++] = b[j++];
+        return out;
+    }
+
+    private static int compare(long[] ids, String[] oddIds, int a, int b) {
+        if (ids[a] >= 0 && ids[b] >= 0) return Long.compare(ids[a], ids[b]);
+        return id(ids, oddIds, a).compareTo(id(ids, oddIds, b)); //only when an odd ID is involved
+    }
+
+    // --- ID PACKING ---
+    //0 = end of the ID, '-' = 1, '0'..'9' = 2..11, 'A'..'Z' = 12..37, same order as the chars themselves
+
+    //-1 if the ID can't be packed
+    static long pack(String id) {
+        if (id.length() > MAX_PACKED) return -1;
+        long k = 0;
+        for (int i = 0; i < MAX_PACKED; i++) {
+            int d = 0;
+            if (i < id.length()) {
+                char c = id.charAt(i);
+                if (c == '-') d = 1;
+                else if (c >= '0' && c <= '9') d = 2 + c - '0';
+                else if (c >= 'A' && c <= 'Z') d = 12 + c - 'A';
+                else return -1;
+            }
+            k = k * 38 + d;
+        }
+        return k;
+    }
+
+    static String unpack(long k) {
+        char[] out = new char[MAX_PACKED];
+        int len = 0;
+        long div = 1;
+        for (int i = 1; i < MAX_PACKED; i++) div *= 38;
+        for (int i = 0; i < MAX_PACKED; i++, div /= 38) {
+            int d = (int) (k / div % 38);
+            if (d == 0) break;
+            out[len++] = d == 1 ? '-' : d < 12 ? (char) ('0' + d - 2) : (char) ('A' + d - 12);
+        }
+        return new String(out, 0, len);
+    }
+}
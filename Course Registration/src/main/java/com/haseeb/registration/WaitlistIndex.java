@@ -0,0 +1,126 @@
+package com.haseeb.registration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//bounded FIFO waitlist per course, by the same dense numbers as EnrollmentIndex
+//each course has a small ring of student numbers (allocated the first time someone waits),
+//each student an IntSet of the courses they wait for, so "is this student waiting?" is one lookup
+//and promoting the next student when a seat frees up is one poll at the head of the ring
+//
+//threading: same split as EnrollmentIndex, a course's ring only has one writer during a batch
+//(its worker), the per-student sets are guarded by BackendSystem's student lock stripes
+class WaitlistIndex {
+    private final List<Line> lines = new ArrayList<>(); //by Course.idx, entries stay null until needed
+    private final List<IntSet> waitingFor = new ArrayList<>(); //by Student.idx, null until they first wait
+
+    //one course's line, head..head+size-1 (mod length) are student numbers in arrival order
+    private static class Line {
+        int[] ring = new int[4];
+        int head, size;
+
+        int at(int i) { return ring[(head + i) & (ring.length - 1)]; }
+
+        void add(int s) {
+            if (size == ring.length) { //unroll into a bigger power of two ring
+                int[] bigger = new int[ring.length * 2];
+                for (int i = 0; i < size; i++) bigger[i] = at(i);
+                ring = bigger;
+                head = 0;
+            }
+            ring[(head + size++) & (ring.length - 1)] = s;
+        }
+
+        int poll() {
+            int s = ring[head];
+            head = (head + 1) & (ring.length - 1);
+            size--;
+            return s;
+        }
+
+        int indexOf(int s) {
+            for (int i = 0; i < size; i++) if (at(i) == s) return i;
+            return -1;
+        }
+
+        //closes the gap so positions stay exact (lines are short, bounded by the waitlist limit)
+        void removeAt(int i) {
+            for (; i < size - 1; i++) ring[(head + i) & (ring.length - 1)] = at(i + 1);
+            size--;
+        }
+    }
+
+    void addCourse(Course c) {
+        while (lines.size() <= c.idx) lines.add(null);
+    }
+
+    void addStudent(Student s) {
+        while (waitingFor.size() <= s.idx) waitingFor.add(null);
+    }
+
+    boolean isWaitlisted(Student s, Course c) {
+        IntSet set = waitingFor.get(s.idx);
+        return set != null && set.contains(c.idx);
+    }
+
+    //puts the student at the back of the course's line, false if the line already has limit students
+    //(or the student is already in it)
+    boolean offer(Student s, Course c, int limit) {
+        Line line = lines.get(c.idx);
+        if (line != null && line.size >= limit) return false;
+        IntSet set = waitingFor.get(s.idx);
+        if (set == null) waitingFor.set(s.idx, set = new IntSet());
+        if (!set.add(c.idx)) return false;
+        if (line == null) lines.set(c.idx, line = new Line());
+        line.add(s.idx);
+        return true;
+    }
+
+    //takes the student at the front of the line, -1 if nobody is waiting
+    int poll(Course c) {
+        Line line = lines.get(c.idx);
+        if (line == null || line.size == 0) return -1;
+        int s = line.poll();
+        waitingFor.get(s).remove(c.idx);
+        return s;
+    }
+
+    //takes the student out of the line wherever they are, false if they weren't in it
+    boolean remove(Student s, Course c) {
+        IntSet set = waitingFor.get(s.idx);
+        if (set == null || !set.remove(c.idx)) return false;
+        Line line = lines.get(c.idx);
+        line.removeAt(line.indexOf(s.idx));
+        return true;
+    }
+
+    //1 = next to get a seat, 0 = not waiting for this course
+    int position(Student s, Course c) {
+        if (!isWaitlisted(s, c)) return 0;
+        return lines.get(c.idx).indexOf(s.idx) + 1;
+    }
+
+    int size(Course c) {
+        Line line = lines.get(c.idx);
+        return line == null ? 0 : line.size;
+    }
+
+    //student numbers in line order
+    int[] line(Course c) {
+        Line line = lines.get(c.idx);
+        if (line == null) return new int[0];
+        int[] out = new int[line.size];
+        for (int i = 0; i < out.length; i++) out[i] = line.at(i);
+        return out;
+    }
+
+    //course numbers the student is waiting for, sorted
+    int[] coursesOf(int student) {
+        IntSet set = waitingFor.get(student);
+        if (set == null) return new int[0];
+        int[] ids = set.toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,104 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//a bundle gets a seat in every one of its courses or in none, and a failed one leaves nothing behind
+class BundleTest {
+
+    private BackendSystem b;
+
+    @BeforeEach
+    void catalog() {
+        b = new BackendSystem(m -> { });
+        setUp(b);
+    }
+
+    //LEC and LAB go together, FULL has one seat taken by X1 already
+    private static void setUp(BackendSystem b) {
+        b.addCourse("LEC1", "Lecture", 3, 2, "MW 09:00-10:15");
+        b.addCourse("LAB1", "Lab", 1, 2, "F 09:00-11:00");
+        b.addCourse("FULL1", "One seat", 3, 1, "TR 09:00-10:15");
+        b.addCourse("CLASH1", "Meets with the lecture", 3, 5, "M 10:00-11:00");
+        for (String id : List.of("X1", "Y1", "Z1")) b.addStudent(id, "Student " + id);
+        b.queueRequest("X1", "FULL1");
+        b.processQueue();
+    }
+
+    @Test
+    void bundleTakesEverySeat() {
+        assertTrue(b.queueBundle("Y1", List.of("LEC1", "LAB1")));
+        b.processQueue();
+        assertEquals(List.of("LAB1", "LEC1"), b.getRegisteredCourses(student("Y1")));
+        assertEquals(4, b.getCreditLoad(student("Y1")));
+    }
+
+    //the full course fails the bundle: the lecture seat it would have taken is still free for Z
+    @Test
+    void fullCourseRollsBackTheRest() {
+        assertTrue(b.queueBundle("Y1", List.of("LEC1", "FULL1")));
+        b.queueRequest("Z1", "LEC1");
+        b.processQueue();
+        assertEquals(List.of(), b.getRegisteredCourses(student("Y1")));
+        assertEquals(List.of(), b.getWaitlistedCourses(student("Y1"))); //bundles never wait
+        assertEquals(0, b.getCreditLoad(student("Y1")));
+        assertEquals("Z1", b.getRoster("LEC1").get(0).id);
+        assertEquals(1, b.getRoster("LEC1").size());
+        assertEquals(List.of(), b.getWaitlist("FULL1"));
+    }
+
+    @Test
+    void clashInsideTheBundleFailsIt() {
+        assertTrue(b.queueBundle("Y1", List.of("LEC1", "CLASH1")));
+        b.processQueueParallel(4);
+        assertEquals(List.of(), b.getRegisteredCourses(student("Y1")));
+        assertEquals(0, b.getRoster("LEC1").size());
+    }
+
+    @Test
+    void creditLimitCountsTheWholeBundle() {
+        b.setCreditLimit(3);
+        assertTrue(b.queueBundle("Y1", List.of("LEC1", "LAB1")));
+        b.processQueue();
+        assertEquals(List.of(), b.getRegisteredCourses(student("Y1")));
+        assertEquals(0, b.getRoster("LAB1").size());
+    }
+
+    @Test
+    void bundleWithSomethingAlreadyHeldIsNotQueued() {
+        assertFalse(b.queueBundle("X1", List.of("LEC1", "FULL1")));
+        assertFalse(b.queueBundle("Y1", List.of("LEC1", "NOPE1")));
+        assertEquals(0, b.getQueueSize());
+    }
+
+    @Test
+    void bundleSurvivesRestart(@TempDir Path dir) {
+        BackendSystem saved = new BackendSystem(m -> { }, dir);
+        setUp(saved);
+        saved.queueBundle("Y1", List.of("LEC1", "LAB1"));
+        saved.queueBundle("Z1", List.of("LEC1", "FULL1"));
+        saved.processQueue();
+        saved.queueBundle("Z1", List.of("LEC1", "LAB1")); //still queued when it closes
+        String before = StateDump.of(saved);
+        saved.close();
+
+        BackendSystem restarted = new BackendSystem(m -> { }, dir);
+        assertEquals(before, StateDump.of(restarted));
+        assertEquals(1, restarted.getQueueSize());
+        restarted.processQueue();
+        assertEquals(2, restarted.getRoster("LAB1").size());
+        restarted.close();
+    }
+
+    private Student student(String id) {
+        for (Student s : b.getAllStudents()) if (s.id.equals(id)) return s;
+        throw new AssertionError("no student " + id);
+    }
+}
@@ -0,0 +1,168 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+//search results in their exact order: the ranking tiers, ties by code, the limit, and everything the
+//index does to skip work (the early cutoff, galloping intersections) leaving the answer unchanged
+class CourseSearchIndexTest {
+
+    private final CourseSearchIndex index = new CourseSearchIndex();
+    private int next; //course numbers are handed out in order, as EnrollmentIndex does
+
+    //"calc" hits every tier: exact code, code prefix, name prefix, word prefix, somewhere in a word.
+    //AAA999 comes last so a later course with a smaller code has to win its tie anyway
+    private void calculus() {
+        add("MTH101", "Calculus I");
+        add("CALC2", "Seminar Two");
+        add("ENG300", "Advanced Calculus Writing");
+        add("CALC", "Seminar");
+        add("ART110", "Precalculus Sketching");
+        add("PHY201", "Calculus-Based Physics");
+        add("HIS220", "History of Calculation");
+        add("CALC10", "Seminar Ten");
+        add("BIO100", "Cell Biology");
+        add("AAA999", "Calculus Extra");
+    }
+
+    @Test
+    void tiersThenCode() {
+        calculus();
+        assertEquals(List.of("CALC", "CALC10", "CALC2", "AAA999", "MTH101", "PHY201", "ENG300", "HIS220", "ART110"),
+                codes(index.search("calc", 20)));
+        assertEquals(List.of("CALC"), codes(index.search("  Calc ", 1)));
+        assertEquals(List.of("AAA999", "MTH101", "PHY201", "ENG300", "ART110"), codes(index.search("calculus", 20)));
+        assertEquals(List.of(), codes(index.search("chemistry", 20)));
+        assertEquals(List.of(), codes(index.search("   ", 20)));
+        assertEquals(List.of(), codes(index.search("calc", 0)));
+    }
+
+    //every smaller limit is the start of the full list, the heap turning candidates away included
+    @Test
+    void limitKeepsTheBest() {
+        calculus();
+        List<String> all = codes(index.search("calc", 20));
+        for (int limit = 1; limit <= all.size(); limit++) {
+            assertEquals(all.subList(0, limit), codes(index.search("calc", limit)), "limit " + limit);
+        }
+    }
+
+    //the whole query together beats its words apart, a word start beats the middle of a word
+    @Test
+    void allWordsIsTheLastTier() {
+        add("M1", "Algebra of Linear Maps");
+        add("M2", "Nonlinear Algebra");
+        add("M3", "Linear Algebra");
+        add("M4", "Applied Linear Algebra");
+        add("M5", "Linear Models");
+        add("M6", "Linear-Algebra Lab");
+        assertEquals(List.of("M3", "M6", "M4", "M2", "M1"), codes(index.search("linear algebra", 10)));
+        assertEquals(List.of("M3", "M6", "M4", "M2", "M1"), codes(index.search("LINEAR, algebra!", 10)));
+        assertEquals(List.of("M1"), codes(index.search("maps linear", 10)));
+    }
+
+    //codes sharing their first 9 chars tie on the packed key and fall back to the whole code
+    @Test
+    void longCodesTieOnTheWholeCode() {
+        add("LONGCODE1B", "Second");
+        add("LONGCODE1A", "First");
+        add("LONGCODE12", "Before both");
+        assertEquals(List.of("LONGCODE12", "LONGCODE1A", "LONGCODE1B"), codes(index.search("longcode1", 5)));
+        assertEquals(List.of("LONGCODE12"), codes(index.search("longcode1", 1)));
+        assertEquals(List.of("LONGCODE1A"), codes(index.search("longcode1a", 5)));
+    }
+
+    //1-2 letters go by word starts only, "ma" inside a word doesn't count
+    @Test
+    void shortQueriesMatchWordStarts() {
+        add("MAT200", "Statistics");
+        add("BIO100", "Marine Biology");
+        add("PHY100", "Thermal Physics");
+        add("CHE100", "Organic Materials");
+        add("MA1", "Zoology");
+        add("XYZ100", "Ma");
+        assertEquals(List.of("MA1", "MAT200", "BIO100", "XYZ100", "CHE100"), codes(index.search("ma", 10)));
+        assertEquals(List.of("MA1", "MAT200", "BIO100", "XYZ100", "CHE100"), codes(index.search("Ma", 10)));
+        assertEquals(List.of("CHE100"), codes(index.search("o", 10)));
+        assertEquals(List.of("BIO100"), codes(index.search("ma bi", 10)));
+        assertEquals(List.of("PHY100"), codes(index.search("th", 10)));
+    }
+
+    //limit code matches already fill the list, and they're the first ones in code order
+    @Test
+    void moreCodeMatchesThanLimit() {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 100; i < 200; i++) order.add(i);
+        Collections.shuffle(order, new Random(3));
+        add("HON100", "CS1 Honors");
+        for (int i : order) add("CS" + i, "Topic " + i);
+        assertEquals(List.of("CS100", "CS101", "CS102", "CS103", "CS104"), codes(index.search("cs1", 5)));
+        assertEquals(List.of("CS150", "CS151", "CS152"), codes(index.search("CS15", 3)));
+        assertEquals(List.of("CS150"), codes(index.search("cs150", 3)));
+        List<String> all = codes(index.search("cs1", 200));
+        assertEquals(101, all.size());
+        assertEquals("CS199", all.get(99));
+        assertEquals("HON100", all.get(100));
+    }
+
+    //long posting lists of very different lengths: the intersection has to find exactly the courses
+    //with every word, the same ones a plain scan over the names finds
+    @Test
+    void intersectionMatchesAScan() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String name = (i % 7 == 0 ? "charlie " : "") + "x" + i + (i % 2 == 0 ? " alpha" : "")
+                    + (i % 3 == 0 ? " bravo" : "") + (i % 250 == 0 ? " delta" : "");
+            names.add(name);
+            add(String.format("G%04d", i), name);
+        }
+        for (String query : List.of("alpha bravo", "bravo charlie", "alpha delta", "charlie alpha bravo delta", "bravo x99")) {
+            List<String> found = codes(index.search(query, 5000));
+            List<String> scanned = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                boolean all = true;
+                for (String w : query.split(" ")) all &= names.get(i).contains(w);
+                if (all) scanned.add(String.format("G%04d", i));
+            }
+            found.sort(null);
+            assertEquals(scanned, found, query);
+        }
+        //together and at a word start, all in one tier: plain code order
+        List<String> both = codes(index.search("alpha bravo", 5000));
+        List<String> sorted = new ArrayList<>(both);
+        sorted.sort(null);
+        assertEquals(sorted, both);
+        assertEquals(500, both.size());
+    }
+
+    //courses added after a search show up in the next one, in their place
+    @Test
+    void addedAfterTheFirstSearch() {
+        calculus();
+        assertEquals(List.of("AAA999", "MTH101", "PHY201"), codes(index.search("calculus", 3)));
+        add("CALC0", "Late");
+        add("AAA000", "Calculus Late");
+        add("ZZZ100", "Late Calculus");
+        assertEquals(List.of("CALC", "CALC0", "CALC10", "CALC2", "AAA000", "AAA999", "MTH101", "PHY201", "ENG300", "HIS220", "ZZZ100", "ART110"),
+                codes(index.search("calc", 20)));
+        assertEquals(List.of("AAA000", "AAA999", "MTH101"), codes(index.search("calculus", 3)));
+        assertEquals(List.of("ZZZ100", "AAA000"), codes(index.search("late calculus", 5)));
+    }
+
+    private void add(String code, String name) {
+        Course c = new Course(code, name, 3, 10);
+        c.idx = next++;
+        index.add(c);
+    }
+
+    private static List<String> codes(List<Course> courses) {
+        List<String> out = new ArrayList<>(courses.size());
+        for (Course c : courses) out.add(c.code);
+        return out;
+    }
+}
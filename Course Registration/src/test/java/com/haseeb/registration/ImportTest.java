@@ -0,0 +1,174 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//CSV imports: quoting, what gets counted as a duplicate or an invalid line, and a catalog merged with
+//an import (rebuilt from sorted, not inserted one by one) still answering lookups, prefixes and ranges
+class ImportTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void quotedFields() throws IOException {
+        Path csv = write("q.csv",
+                "a, \"b, c\" ,\"say \"\"hi\"\"\",d",
+                "",
+                "   ",
+                "\"\",x,",
+                "one");
+        List<String> rows = new ArrayList<>();
+        CsvReader.forEachRow(csv, (lineNo, f) -> rows.add(lineNo + " " + f));
+        assertEquals(List.of("1 [a, b, c, say \"hi\", d]", "4 [, x, ]", "5 [one]"), rows);
+    }
+
+    //the backend starts with the sample catalog (CSC215, MTH204...), so the import is merged into it
+    @Test
+    void courseImportCountsAndMerges() throws IOException {
+        BackendSystem b = new BackendSystem(m -> { });
+        Path csv = write("courses.csv",
+                "code,name,credits,capacity,meets,prerequisites",
+                "MTH301,\"Calculus, Advanced\",4,30,\"MW 09:00-10:15, F 13:00-14:00\",MTH204",
+                "ART100,\"The \"\"Modern\"\" Era\",3,25",
+                "CSC216,Data Structures Lab,1,20,,CSC215",
+                "",
+                "csc217,Lowercase code,3,10",
+                "MTH301,Duplicate in the file,3,10",
+                "CSC215,Already in the catalog,3,10",
+                "BAD1,Bad credits,three,10",
+                "BAD2,Too few fields,3",
+                "BAD3,Bad time,3,10,XX 25:00-26:00",
+                "PHY400,Needs a later line,3,10,,PHY401",
+                "PHY401,Later,3,10");
+        String summary = b.importCourses(csv);
+        assertTrue(summary.startsWith("Imported 5 courses from courses.csv (2 duplicates, 4 invalid lines skipped)"), summary);
+
+        assertEquals(List.of("ART100", "COM202", "CSC211", "CSC215", "CSC216", "CSC217", "MTH204", "MTH301", "PHY401", "REL101"),
+                codes(b.getAllCourses(1)));
+        Course calculus = b.getCoursesByPrefix("MTH3").get(0);
+        assertEquals("Calculus, Advanced", calculus.name);
+        assertEquals(4, calculus.credits);
+        assertEquals("MW 09:00-10:15; F 13:00-14:00", calculus.meets.toString());
+        assertEquals(List.of("MTH204"), calculus.prerequisites);
+        assertEquals("The \"Modern\" Era", b.getCoursesByPrefix("ART").get(0).name);
+        assertEquals(List.of("CSC211", "CSC215", "CSC216", "CSC217"), codes(b.getCoursesByPrefix("csc2")));
+        assertEquals(List.of("CSC216", "CSC217", "MTH204"), codes(b.getCoursesInRange("CSC216", "MTH3")));
+        assertEquals(List.of("ART100", "COM202"), codes(b.getCoursesInRange(null, "CSC")));
+        assertEquals(List.of("PHY401", "REL101"), codes(b.getCoursesInRange("N", null)));
+        assertEquals(List.of("MTH204", "MTH301"), codes(b.searchCourses("MTH", 5)));
+        assertEquals(List.of("MTH301"), codes(b.searchCourses("advanced calculus", 5)));
+        assertEquals(List.of("CSC217"), codes(b.searchCourses("lowercase", 5)));
+
+        //the imported courses take requests like any other, prerequisites included
+        b.addStudent("I1", "Imogen");
+        b.addCompletedCourse("I1", "CSC215");
+        b.queueRequest("I1", "CSC216");
+        b.queueRequest("I1", "MTH301");
+        b.processQueue();
+        assertEquals(List.of("CSC216"), b.getRegisteredCourses(student(b, "I1")));
+    }
+
+    //thousands of courses in random order merged into a catalog already holding every other code, then
+    //more added one at a time on top of the rebuilt tree: everything checked against a sorted map
+    @Test
+    void bigMergeMatchesASortedMap() throws IOException {
+        BackendSystem b = new BackendSystem(m -> { });
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        for (Course c : b.getAllCourses(1)) expected.put(c.code, c.credits);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 6000; i++) {
+            String code = String.format("K%04d", i);
+            if (i % 2 == 0) {
+                b.addCourse(code, "Existing " + i, 3, 10);
+                expected.put(code, 3);
+            } else {
+                lines.add(code + ",Imported " + i + ",4,10");
+                expected.put(code, 4);
+            }
+        }
+        Collections.shuffle(lines, new Random(6));
+        String summary = b.importCourses(write("big.csv", lines.toArray(new String[0])));
+        assertTrue(summary.startsWith("Imported 3000 courses"), summary);
+        for (int i = 0; i < 300; i++) {
+            String code = String.format("J%04d", i * 7);
+            b.addCourse(code, "Added after " + i, 2, 10);
+            expected.put(code, 2);
+        }
+
+        assertEquals(new ArrayList<>(expected.keySet()), codes(b.getAllCourses(1)));
+        for (Course c : b.getAllCourses(1)) assertEquals(expected.get(c.code), c.credits, c.code);
+        assertEquals(new ArrayList<>(expected.subMap("K1", "K2").keySet()), codes(b.getCoursesByPrefix("K1")));
+        assertEquals(new ArrayList<>(expected.subMap("J0350", "K0042").keySet()), codes(b.getCoursesInRange("J0350", "K0042")));
+        assertEquals(new ArrayList<>(expected.subMap("K5990", true, "K5999", true).keySet()), codes(b.getCoursesByPrefix("K599")));
+        assertEquals(List.of("K4321"), codes(b.searchCourses("K4321", 3)));
+        assertEquals(List.of("K4321"), codes(b.searchCourses("imported 4321", 3)));
+    }
+
+    @Test
+    void studentImport() throws IOException {
+        BackendSystem b = new BackendSystem(m -> { });
+        Path csv = write("students.csv",
+                "id,name",
+                "30001-00002,\"Khan, Sara\"",
+                "30001-00001,Ali Raza",
+                "30001-00001,Same id again",
+                "20241-35751,Already a sample student",
+                "30001-00003,",
+                "30001-00004",
+                "s-77,\"Odd \"\"Id\"\" Person\"");
+        String summary = b.importStudents(csv);
+        assertTrue(summary.startsWith("Imported 3 students from students.csv (2 duplicates, 2 invalid lines skipped)"), summary);
+        assertEquals(6, b.getStudentCount());
+        List<String> sorted = new ArrayList<>();
+        for (Student s : b.getStudentsSorted(0, 10)) sorted.add(s.id + " " + s.name());
+        assertEquals(List.of("20241-12345 Abdul Samad", "20241-35751 Muhammad Haseeb Haroon", "20241-54321 Mohammad Arslan",
+                "30001-00001 Ali Raza", "30001-00002 Khan, Sara", "s-77 Odd \"Id\" Person"), sorted);
+    }
+
+    //an imported catalog (out of order, so it's sorted before the tree is built) is journaled like any
+    //other change and comes back after a restart
+    @Test
+    void importSurvivesRestart() throws IOException {
+        Path data = dir.resolve("data");
+        BackendSystem b = new BackendSystem(m -> { }, data);
+        b.importCourses(write("c.csv", "B100,First,3,5,TR 09:00-10:15", "B200,Second,3,5,,B100", "A100,\"Arts, Crafts\",2,5"));
+        b.importStudents(write("s.csv", "70000-00001,\"Doe, Jo\"", "70000-00002,Sam"));
+        String before = StateDump.of(b);
+        b.close();
+
+        BackendSystem restarted = new BackendSystem(m -> { }, data);
+        assertEquals(before, StateDump.of(restarted));
+        assertEquals("Arts, Crafts", restarted.getCoursesByPrefix("A100").get(0).name);
+        assertEquals("Doe, Jo", student(restarted, "70000-00001").name());
+        assertEquals(List.of("B100"), restarted.getCoursesByPrefix("B2").get(0).prerequisites);
+        assertEquals("TR 09:00-10:15", restarted.getCoursesByPrefix("B100").get(0).meets.toString());
+        restarted.close();
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(dir.resolve(name), List.of(lines));
+    }
+
+    private static Student student(BackendSystem b, String id) {
+        for (Student s : b.getAllStudents()) if (s.id.equals(id)) return s;
+        return null;
+    }
+
+    private static List<String> codes(List<Course> courses) {
+        List<String> out = new ArrayList<>(courses.size());
+        for (Course c : courses) out.add(c.code);
+        return out;
+    }
+}
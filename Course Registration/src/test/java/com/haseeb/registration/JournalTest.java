@@ -0,0 +1,164 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//a backend opened on its data directory again has to come back exactly as it was left, from the journal
+//alone, from a snapshot plus the journal after it, and after a crash that never closed anything
+class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restartReplaysTheJournal() {
+        BackendSystem saved = ParallelProcessingTest.fill(new BackendSystem(m -> { }, dir), 11, true, true);
+        BackendSystem memory = ParallelProcessingTest.bundled(11);
+        for (BackendSystem b : List.of(saved, memory)) {
+            for (int i = 0; i < 300; i++) b.queueRequest("S" + (i % 50), "P" + (i % ParallelProcessingTest.COURSES), i % RequestScheduler.PRIORITY_CLASSES);
+        }
+        processHalf(saved);
+        processHalf(memory);
+        saved.dropCourse("S1", "P1");
+        memory.dropCourse("S1", "P1");
+        saved.close();
+
+        BackendSystem restarted = new BackendSystem(m -> { }, dir);
+        assertTrue(restarted.isPersistent());
+        assertEquals(StateDump.of(memory), StateDump.of(restarted));
+        assertEquals(seqs(memory.getQueue()), seqs(restarted.getQueue()));
+        assertEquals(memory.getCreditLimit(), restarted.getCreditLimit());
+
+        //the queued requests came back in their place in line
+        memory.processQueue();
+        restarted.processQueue();
+        assertEquals(StateDump.of(memory), StateDump.of(restarted));
+        restarted.close();
+    }
+
+    //never closed: whatever a processed batch synced is there
+    @Test
+    void crashReplaysWhatWasSynced() {
+        BackendSystem crashed = ParallelProcessingTest.fill(new BackendSystem(m -> { }, dir), 12, true, true);
+        crashed.processQueueParallel(4);
+        String before = StateDump.of(crashed);
+
+        BackendSystem restarted = new BackendSystem(m -> { }, dir);
+        assertEquals(before, StateDump.of(restarted));
+        assertEquals(0, restarted.getQueueSize());
+        restarted.close();
+    }
+
+    //enough records for a snapshot, then more changes on top of it in the next journal
+    @Test
+    void snapshotPlusJournalTail() {
+        BackendSystem saved = new BackendSystem(m -> { }, dir.resolve("data"));
+        BackendSystem memory = new BackendSystem(m -> { });
+        for (BackendSystem b : List.of(saved, memory)) {
+            ParallelProcessingTest.fill(b, 13, true, true);
+            b.processQueue();
+            for (int i = 0; i < 100_000; i++) b.addStudent("B" + i, "Bulk " + i);
+            b.queueRequest("B7", "P0");
+            b.queueRequest("B8", "P2");
+            b.addCompletedCourse("B9", "P1");
+            b.processQueue();
+            b.dropCourse("S0", "P0");
+        }
+        assertTrue(Files.exists(dir.resolve("data").resolve("snapshot.bin")));
+        saved.close();
+
+        BackendSystem restarted = new BackendSystem(m -> { }, dir.resolve("data"));
+        assertEquals(StateDump.of(memory), StateDump.of(restarted));
+        restarted.close();
+    }
+
+    private static List<Long> seqs(List<RegistrationRequest> queue) {
+        List<Long> out = new ArrayList<>(queue.size());
+        for (RegistrationRequest r : queue) out.add(r.seq);
+        return out;
+    }
+
+    //stops between chunks once half the queue is done, the rest stays queued
+    private static void processHalf(BackendSystem b) {
+        int stop = b.getQueueSize() / 2;
+        b.processQueueInChunks(250, 4, () -> b.getQueueSize() <= stop, p -> { });
+    }
+
+    //a record cut off halfway (power lost mid-write) is dropped, everything before it is kept and new
+    //records go after the last good one
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        RegistrationJournal journal = new RegistrationJournal(dir, 10, 1000);
+        Recorder first = new Recorder();
+        assertFalse(journal.recover(first));
+        journal.addStudent("T1", "First");
+        journal.addStudent("T2", "Second");
+        journal.close();
+
+        Path log = dir.resolve("journal-0.log");
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 3);
+        }
+        journal = new RegistrationJournal(dir, 10, 1000);
+        Recorder second = new Recorder();
+        assertTrue(journal.recover(second));
+        assertEquals(List.of("student T1 First"), second.seen);
+        journal.addStudent("T3", "Third");
+        journal.close();
+
+        Recorder third = new Recorder();
+        journal = new RegistrationJournal(dir, 10, 1000);
+        journal.recover(third);
+        journal.close();
+        assertEquals(List.of("student T1 First", "student T3 Third"), third.seen);
+    }
+
+    //closing while the flusher is halfway through a write: the write finishes, close() syncs the rest, and
+    //every record comes back. A flush every millisecond so close() keeps landing in the middle of one
+    @Test
+    void closeKeepsEverythingAppended() throws IOException {
+        for (int run = 0; run < 40; run++) {
+            Path runDir = dir.resolve("run" + run);
+            RegistrationJournal journal = new RegistrationJournal(runDir, 1, Integer.MAX_VALUE);
+            journal.recover(new Recorder());
+            int students = 20_000 + run * 131;
+            for (int i = 0; i < students; i++) journal.addStudent("C" + i, "Closing " + i);
+            journal.close();
+
+            Recorder back = new Recorder();
+            journal = new RegistrationJournal(runDir, 1, Integer.MAX_VALUE);
+            journal.recover(back);
+            journal.close();
+            assertEquals(students, back.seen.size(), "run " + run);
+            assertEquals("student C" + (students - 1) + " Closing " + (students - 1), back.seen.get(students - 1));
+        }
+    }
+
+    //every record replayed, as text
+    static class Recorder implements RegistrationJournal.Replay {
+        final List<String> seen = new ArrayList<>();
+
+        public void course(String code, String name, int credits, int capacity, String meets) { seen.add("course " + code); }
+        public void student(String id, String name) { seen.add("student " + id + " " + name); }
+        public void enrollment(String studentId, String courseCode) { seen.add("enrollment " + studentId + " " + courseCode); }
+        public void request(long seq, String studentId, String courseCode, int priority) { seen.add("request " + seq); }
+        public void bundleRequest(long seq, String studentId, List<String> courseCodes, int priority) { seen.add("bundle " + seq); }
+        public void result(long seq, String studentId, String courseCode, int outcome) { seen.add("result " + seq + " " + outcome); }
+        public void drop(String studentId, String courseCode, String promotedId) { seen.add("drop " + studentId + " " + promotedId); }
+        public void waitlisted(String courseCode, String studentId) { seen.add("waitlisted " + courseCode + " " + studentId); }
+        public void prerequisites(String courseCode, List<String> prerequisiteCodes) { seen.add("prerequisites " + courseCode); }
+        public void completed(String studentId, String courseCode) { seen.add("completed " + studentId + " " + courseCode); }
+        public void creditLimit(int credits) { seen.add("credit limit " + credits); }
+    }
+}
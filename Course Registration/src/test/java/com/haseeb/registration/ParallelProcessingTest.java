@@ -0,0 +1,141 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+//processQueueParallel and processQueueInChunks have to leave every course and student exactly as
+//processQueue would have
+class ParallelProcessingTest {
+
+    static final int COURSES = 40, STUDENTS = 300, REQUESTS = 4000, CREDIT_LIMIT = 7;
+    //few enough that students asking for several courses keep running into clashes, "" never clashes
+    private static final String[] TIMES = {"", "MW 09:00-10:15", "MW 10:00-11:15", "TR 09:00-10:15", "TR 13:00-14:15",
+            "F 09:00-12:00", "M 09:30-10:00", "MWF 14:00-14:50"};
+
+    //the same catalog, students and queue every time for the same seed: small courses so they fill up and
+    //waitlist, a credit limit most students hit, prerequisites some students have and others don't, and
+    //a few popular courses and busy students so requests pile up on them
+    static BackendSystem loaded(long seed) {
+        return fill(new BackendSystem(m -> { }), seed, false, false);
+    }
+
+    //same, every course meeting at one of TIMES
+    static BackendSystem timed(long seed) {
+        return fill(new BackendSystem(m -> { }), seed, true, false);
+    }
+
+    //same, with one request in ten a bundle of two courses (clashing ones, full ones...)
+    static BackendSystem bundled(long seed) {
+        return fill(new BackendSystem(m -> { }), seed, true, true);
+    }
+
+    //the same into a backend made elsewhere (one with a data directory, say)
+    static BackendSystem fill(BackendSystem b, long seed, boolean meets, boolean bundles) {
+        Random r = new Random(seed);
+        b.setCreditLimit(CREDIT_LIMIT);
+        for (int c = 0; c < COURSES; c++) {
+            List<String> needs = c >= COURSES - 8 ? List.of("P" + (c % 8)) : List.of();
+            String time = meets ? TIMES[r.nextInt(TIMES.length)] : "";
+            b.addCourse("P" + c, "Course " + c, 3 + r.nextInt(2), 2 + r.nextInt(10), time, needs);
+        }
+        for (int s = 0; s < STUDENTS; s++) {
+            b.addStudent("S" + s, "Student " + s);
+            if (r.nextInt(3) == 0) b.addCompletedCourse("S" + s, "P" + r.nextInt(8));
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            String student = "S" + r.nextInt(1 + r.nextInt(STUDENTS));
+            String course = "P" + r.nextInt(1 + r.nextInt(COURSES));
+            if (bundles && r.nextInt(10) == 0) b.queueBundle(student, List.of(course, "P" + r.nextInt(COURSES)));
+            else b.queueRequest(student, course);
+        }
+        return b;
+    }
+
+    @Test
+    void parallelMatchesSerial() {
+        for (long seed = 1; seed <= 5; seed++) {
+            BackendSystem serial = loaded(seed);
+            serial.processQueue();
+            String expected = StateDump.of(serial);
+            for (int workers : new int[] {2, 4, 8}) {
+                BackendSystem parallel = loaded(seed);
+                parallel.processQueueParallel(workers);
+                assertEquals(expected, StateDump.of(parallel), "seed " + seed + ", " + workers + " workers");
+                assertEquals(0, parallel.getQueueSize());
+            }
+        }
+    }
+
+    //which of two clashing courses a student gets depends on which request is first in line
+    @Test
+    void parallelMatchesSerialWithClashes() {
+        for (long seed = 1; seed <= 5; seed++) {
+            BackendSystem serial = timed(seed);
+            serial.processQueue();
+            String expected = StateDump.of(serial);
+            for (int workers : new int[] {2, 8}) {
+                BackendSystem parallel = timed(seed);
+                parallel.processQueueParallel(workers);
+                assertEquals(expected, StateDump.of(parallel), "seed " + seed + ", " + workers + " workers");
+            }
+            BackendSystem chunked = timed(seed);
+            chunked.processQueueInChunks(300, 4, () -> false, p -> { });
+            assertEquals(expected, StateDump.of(chunked), "seed " + seed + ", chunked");
+        }
+    }
+
+    //a bundle takes every seat it asks for or none, in the same place in line as serial
+    @Test
+    void parallelMatchesSerialWithBundles() {
+        for (long seed = 1; seed <= 5; seed++) {
+            BackendSystem serial = bundled(seed);
+            serial.processQueue();
+            String expected = StateDump.of(serial);
+            for (int workers : new int[] {2, 8}) {
+                BackendSystem parallel = bundled(seed);
+                parallel.processQueueParallel(workers);
+                assertEquals(expected, StateDump.of(parallel), "seed " + seed + ", " + workers + " workers");
+            }
+            BackendSystem chunked = bundled(seed);
+            chunked.processQueueInChunks(300, 4, () -> false, p -> { });
+            assertEquals(expected, StateDump.of(chunked), "seed " + seed + ", chunked");
+        }
+    }
+
+    @Test
+    void chunkedMatchesSerial() {
+        BackendSystem serial = loaded(7);
+        serial.processQueue();
+        BackendSystem chunked = loaded(7);
+        BackendSystem.BatchProgress done = chunked.processQueueInChunks(500, 4, () -> false, p -> { });
+        assertTrue(done.done());
+        assertEquals(0, chunked.getQueueSize());
+        assertEquals(StateDump.of(serial), StateDump.of(chunked));
+    }
+
+    @Test
+    void creditLimitHoldsUnderParallelProcessing() {
+        BackendSystem b = loaded(3);
+        b.processQueueParallel(8);
+        for (Student s : b.getAllStudents()) assertTrue(b.getCreditLoad(s) <= CREDIT_LIMIT, s.id);
+    }
+
+    //queued twice is processed once, and asking again once enrolled is answered straight away
+    @Test
+    void duplicateRequestsAreCoalesced() {
+        BackendSystem b = new BackendSystem(m -> { });
+        b.addCourse("DUP100", "Duplicates", 3, 5);
+        b.addStudent("D1", "Dee");
+        assertTrue(b.queueRequest("D1", "DUP100"));
+        assertTrue(b.queueRequest("D1", "dup100"));
+        assertEquals(1, b.getQueueSize());
+        b.processQueueParallel(4);
+        assertEquals(1, b.getRoster("DUP100").size());
+        assertFalse(b.queueRequest("D1", "DUP100"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//the order PriorityScheduler hands requests out in: weighted round robin between the classes, turns
+//between students inside a class, who gets shed when it's full, and toList() agreeing with poll()
+class PrioritySchedulerTest {
+
+    private static final int H = RequestScheduler.PRIORITY_HIGH, N = RequestScheduler.PRIORITY_NORMAL, L = RequestScheduler.PRIORITY_LOW;
+
+    private long seq;
+
+    //8 in every class, every request from another student: 4 high, 2 normal, 1 low a round, and a class
+    //that runs out just gives up its turns
+    @Test
+    void weightedRoundRobin() {
+        PriorityScheduler q = new PriorityScheduler(100);
+        for (int i = 0; i < 8; i++) {
+            for (int p : new int[] {L, N, H}) q.offer(req("S" + p + "-" + i, "C", p));
+        }
+        assertEquals("HHHHNNL HHHHNNL NNL NNL LLLL", classes(q, " ", 7, 7, 3, 3, 4));
+        assertNull(q.poll());
+    }
+
+    @Test
+    void equalWeightsTakeTurns() {
+        PriorityScheduler q = new PriorityScheduler(100, 1, 1, 1);
+        for (int i = 0; i < 3; i++) {
+            for (int p : new int[] {H, N, L}) q.offer(req("S" + p + "-" + i, "C", p));
+        }
+        assertEquals("HNL HNL HNL", classes(q, " ", 3, 3, 3));
+    }
+
+    //one request per student per turn, a student queueing five can't push B and C back five places,
+    //and one who shows up later joins the back of the line
+    @Test
+    void studentsTakeTurns() {
+        PriorityScheduler q = new PriorityScheduler(100);
+        for (int i = 1; i <= 5; i++) q.offer(req("A", "A" + i, N));
+        q.offer(req("B", "B1", N));
+        q.offer(req("B", "B2", N));
+        q.offer(req("C", "C1", N));
+        assertEquals("A1", q.poll().courseCode);
+        q.offer(req("D", "D1", N));
+        List<String> rest = new ArrayList<>();
+        for (RegistrationRequest r; (r = q.poll()) != null; ) rest.add(r.courseCode);
+        assertEquals(List.of("B1", "C1", "A2", "D1", "B2", "A3", "A4", "A5"), rest);
+    }
+
+    //the newest request of the student at the back of the lowest busy class goes first, and only a
+    //class lower than the incoming request's can give anything up
+    @Test
+    void shedsFromTheLowestBusyClass() {
+        PriorityScheduler q = new PriorityScheduler(7);
+        RegistrationRequest h1 = req("X", "H1", H), n1 = req("N1", "N1", N), n2 = req("N2", "N2", N);
+        RegistrationRequest l1 = req("L1", "L1a", L), l2 = req("L2", "L2a", L), l1b = req("L1", "L1b", L), l2b = req("L2", "L2b", L);
+        for (RegistrationRequest r : List.of(h1, n1, n2, l1, l2, l1b, l2b)) assertTrue(q.offer(r));
+        assertTrue(q.isFull());
+        assertFalse(q.offer(req("Y", "late", H)));
+        assertEquals(7, q.size());
+
+        assertNull(q.shedFor(L)); //nothing below low
+        assertSame(l2b, q.shedFor(N));
+        assertSame(l2, q.shedFor(N));
+        assertSame(l1b, q.shedFor(H));
+        assertSame(l1, q.shedFor(N));
+        assertNull(q.shedFor(N)); //low is empty, normal can't shed normal
+        assertSame(n2, q.shedFor(H));
+        assertEquals(2, q.size());
+        assertFalse(q.isFull());
+
+        q.restore(req("Z", "Z1", L)); //restore ignores capacity
+        for (int i = 0; i < 6; i++) q.restore(req("Z", "Z" + (i + 2), L));
+        assertEquals(9, q.size());
+        assertFalse(q.offer(req("Y", "late", H)));
+        assertEquals(List.of("H1", "N1", "Z1", "Z2"), codes(q.toList()).subList(0, 4));
+    }
+
+    //wherever the round robin stands (mid-round, a class just emptied, right after a shed), toList() is
+    //exactly what polling would give, and leaves the scheduler as it was
+    @Test
+    void toListMatchesPoll() {
+        Random r = new Random(9);
+        PriorityScheduler q = new PriorityScheduler(200);
+        for (int step = 0; step < 2000; step++) {
+            int op = r.nextInt(10);
+            if (op < 6) q.offer(req("S" + r.nextInt(12), "C" + step, r.nextInt(RequestScheduler.PRIORITY_CLASSES)));
+            else if (op < 9) q.poll();
+            else q.shedFor(r.nextInt(RequestScheduler.PRIORITY_CLASSES));
+            if (step % 50 == 0) {
+                List<RegistrationRequest> listed = q.toList();
+                assertEquals(listed, q.toList());
+                assertEquals(q.size(), listed.size());
+                List<RegistrationRequest> drained = new ArrayList<>();
+                int size = q.size();
+                for (int i = 0; i < size; i++) drained.add(q.poll());
+                assertEquals(listed, drained, "step " + step);
+                assertNull(q.poll());
+                //carry on from a scheduler that is mid-round again
+                for (RegistrationRequest x : listed.subList(0, listed.size() / 2)) q.offer(x);
+            }
+        }
+    }
+
+    //the backend on a queue of 3: a low request is refused, a high one sheds the newest normal one,
+    //which leaves nothing behind (it can be queued again) and stays shed after a restart
+    @Test
+    void fullQueueShedsOrRefuses(@TempDir Path dir) {
+        BackendSystem b = new BackendSystem(m -> { }, dir);
+        b.setScheduler(new PriorityScheduler(3));
+        b.addCourse("Q100", "Queue", 3, 10);
+        b.addCourse("Q200", "Queue Two", 3, 10);
+        for (String id : List.of("A1", "B1", "C1", "D1", "E1")) b.addStudent(id, "Student " + id);
+        assertTrue(b.queueRequest("A1", "Q100"));
+        assertTrue(b.queueRequest("B1", "Q100"));
+        assertTrue(b.queueRequest("C1", "Q100"));
+
+        assertFalse(b.queueRequest("D1", "Q100", L));
+        assertFalse(b.queueRequest("D1", "Q100", N)); //nothing lower than normal either
+        assertEquals(2, b.getMetrics().getRequestsRefused());
+        assertTrue(b.queueRequest("E1", "Q200", H));
+        assertEquals(1, b.getMetrics().getRequestsShed());
+        assertEquals(List.of("E1", "A1", "B1"), students(b.getQueue()));
+        List<Long> queued = seqs(b.getQueue());
+        b.close();
+
+        BackendSystem restarted = new BackendSystem(m -> { }, dir);
+        restarted.setScheduler(new PriorityScheduler(3));
+        assertEquals(queued, seqs(restarted.getQueue()));
+        restarted.processQueue();
+        assertEquals(List.of("A1", "B1"), ids(restarted.getRoster("Q100")));
+        assertTrue(restarted.queueRequest("C1", "Q100")); //shed, so not pending anymore
+        restarted.processQueue();
+        assertEquals(List.of("A1", "B1", "C1"), ids(restarted.getRoster("Q100")));
+        restarted.close();
+    }
+
+    private RegistrationRequest req(String student, String course, int priority) {
+        RegistrationRequest r = new RegistrationRequest(student, course);
+        r.priority = priority;
+        r.seq = ++seq;
+        return r;
+    }
+
+    //the classes of the next polls as H/N/L, groups of the given sizes separated by sep
+    private static String classes(PriorityScheduler q, String sep, int... groups) {
+        StringBuilder out = new StringBuilder();
+        for (int g = 0; g < groups.length; g++) {
+            if (g > 0) out.append(sep);
+            for (int i = 0; i < groups[g]; i++) out.append("HNL".charAt(q.poll().priority));
+        }
+        return out.toString();
+    }
+
+    private static List<String> codes(List<RegistrationRequest> requests) {
+        List<String> out = new ArrayList<>();
+        for (RegistrationRequest r : requests) out.add(r.courseCode);
+        return out;
+    }
+
+    private static List<String> students(List<RegistrationRequest> requests) {
+        List<String> out = new ArrayList<>();
+        for (RegistrationRequest r : requests) out.add(r.studentId);
+        return out;
+    }
+
+    private static List<Long> seqs(List<RegistrationRequest> requests) {
+        List<Long> out = new ArrayList<>();
+        for (RegistrationRequest r : requests) out.add(r.seq);
+        return out;
+    }
+
+    private static List<String> ids(List<Student> students) {
+        List<String> out = new ArrayList<>();
+        for (Student s : students) out.add(s.id);
+        out.sort(null);
+        return out;
+    }
+}
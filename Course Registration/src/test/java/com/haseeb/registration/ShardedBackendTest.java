@@ -0,0 +1,176 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//the shards share one catalog but each saves only its own courses: reopened, every shard and the
+//catalog have to come back the way they were, prerequisites across shards included
+class ShardedBackendTest {
+
+    private static final int SHARDS = 4, COURSES = 24, STUDENTS = 80;
+    private static final String[] TIMES = {"", "MW 09:00-10:15", "TR 09:00-10:15", "MW 10:00-11:15", "F 13:00-15:00"};
+
+    @TempDir
+    Path dir;
+
+    //courses K0..K23, the last four need K0 and K1, and a queue that fills and waitlists most of them
+    private static List<String> fill(ShardedBackend b, long seed) {
+        Random r = new Random(seed);
+        b.setCreditLimit(10);
+        for (int c = 0; c < COURSES; c++) {
+            List<String> needs = c >= COURSES - 4 ? List.of("K0", "K1") : List.of();
+            b.addCourse("K" + c, "Course " + c, 3, 2 + r.nextInt(5), TIMES[r.nextInt(TIMES.length)], needs);
+        }
+        List<String> ids = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            ids.add("S" + s);
+            b.addStudent("S" + s, "Student " + s);
+            if (r.nextInt(2) == 0) {
+                b.addCompletedCourse("S" + s, "K0");
+                b.addCompletedCourse("S" + s, "K1");
+            }
+        }
+        for (int i = 0; i < 1500; i++) {
+            b.queueRequest("S" + r.nextInt(STUDENTS), "K" + r.nextInt(1 + r.nextInt(COURSES)), r.nextInt(RequestScheduler.PRIORITY_CLASSES));
+        }
+        return ids;
+    }
+
+    @Test
+    void restartRestoresEveryShard() {
+        ShardedBackend b = new ShardedBackend(LogSink.of(m -> { }), SHARDS, dir);
+        List<String> ids = fill(b, 21);
+        b.processQueueInChunks(200, 2, () -> false);
+        int promoted = 0;
+        for (String id : ids.subList(0, 20)) {
+            for (String code : b.getRegisteredCourses(id)) {
+                int waiting = b.getWaitlist(code).size();
+                assertTrue(b.dropCourse(id, code));
+                if (waiting > b.getWaitlist(code).size()) promoted++;
+            }
+        }
+        assertTrue(promoted > 0, "no drop promoted anyone, the test isn't testing promotion");
+        for (int i = 0; i < 50; i++) b.queueRequest(ids.get(20 + i), "K" + (i % COURSES));
+        String before = StateDump.of(b, ids);
+        int queued = b.getQueueSize();
+        b.close();
+
+        ShardedBackend restarted = new ShardedBackend(LogSink.of(m -> { }), SHARDS, dir);
+        assertEquals(before, StateDump.of(restarted, ids));
+        assertEquals(queued, restarted.getQueueSize());
+        assertEquals(STUDENTS, restarted.getStudentCount());
+        restarted.close();
+    }
+
+    //ADV lives on one shard and needs courses on the others, before and after a restart
+    @Test
+    void prerequisitesAcrossShards() {
+        ShardedBackend b = new ShardedBackend(LogSink.of(m -> { }), SHARDS, dir);
+        List<String> needs = new ArrayList<>();
+        Set<Integer> shards = new HashSet<>();
+        for (int c = 0; shards.size() < SHARDS; c++) {
+            if (shards.add(b.shardOf("BASE" + c))) needs.add("BASE" + c);
+        }
+        for (String code : needs) b.addCourse(code, "Basics", 3, 10, "");
+        b.addCourse("ADV", "Advanced", 3, 10, "", needs);
+        for (String id : List.of("A1", "B1", "C1")) b.addStudent(id, "Student " + id);
+        for (String code : needs) b.addCompletedCourse("A1", code);
+        b.addCompletedCourse("B1", needs.get(0)); //only part of it
+        b.close();
+
+        ShardedBackend restarted = new ShardedBackend(LogSink.of(m -> { }), SHARDS, dir);
+        for (String code : needs) restarted.addCompletedCourse("C1", code); //after the restart this time
+        for (String id : List.of("A1", "B1", "C1")) restarted.queueRequest(id, "ADV");
+        restarted.processQueueInChunks(10, 1, () -> false);
+        assertEquals(List.of("ADV"), restarted.getRegisteredCourses("A1"));
+        assertEquals(List.of(), restarted.getRegisteredCourses("B1"));
+        assertEquals(List.of("ADV"), restarted.getRegisteredCourses("C1"));
+        assertEquals(needs, restarted.getCourse("ADV").getPrerequisites());
+        restarted.close();
+    }
+
+    //enough records for the catalog and every shard to take a snapshot, then a restart from them
+    @Test
+    void restartFromSnapshots() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("id,name");
+        for (int i = 0; i < 110_000; i++) lines.add("B" + i + ",Bulk " + i);
+        Path csv = Files.createTempFile(dir, "students", ".csv");
+        Files.write(csv, lines);
+        Path data = dir.resolve("data");
+
+        ShardedBackend b = new ShardedBackend(LogSink.of(m -> { }), 2, data);
+        b.addCourse("BIG0", "Big", 3, 200_000, "");
+        b.addCourse("BIG1", "Big", 3, 200_000, "");
+        b.addCourse("SMALL", "Small", 3, 3, "", List.of("BIG0", "BIG1"));
+        assertNotEquals(b.shardOf("BIG0"), b.shardOf("BIG1"));
+        b.importStudents(csv);
+        for (int i = 0; i < 110_000; i++) b.queueRequest("B" + i, "BIG" + (i % 2));
+        for (int i = 0; i < 6; i++) {
+            b.addCompletedCourse("B" + i, "BIG0");
+            b.addCompletedCourse("B" + i, "BIG1");
+            b.queueRequest("B" + i, "SMALL");
+        }
+        b.processQueueInChunks(5000, 2, () -> false);
+        b.dropCourse("B0", "SMALL"); //promotes B3, journaled after the snapshots
+        for (String part : List.of("catalog", "shard-0", "shard-1")) {
+            assertTrue(Files.exists(data.resolve(part).resolve("snapshot.bin")), part);
+        }
+        List<String> sample = List.of("B0", "B1", "B2", "B3", "B4", "B5", "B6", "B109999");
+        String before = StateDump.of(b, sample);
+        b.close();
+
+        ShardedBackend restarted = new ShardedBackend(LogSink.of(m -> { }), 2, data);
+        assertEquals(before, StateDump.of(restarted, sample));
+        assertEquals(110_000, restarted.getStudentCount());
+        assertEquals(55_000, restarted.getCourse("BIG0").getEnrolled());
+        restarted.close();
+    }
+
+    //courses would hash to other shards than the ones holding their rosters, so it doesn't load at all
+    @Test
+    void otherShardCountRunsInMemory() {
+        ShardedBackend b = new ShardedBackend(LogSink.of(m -> { }), SHARDS, dir);
+        List<String> ids = fill(b, 22);
+        b.processQueueInChunks(200, 2, () -> false);
+        String before = StateDump.of(b, ids);
+        b.close();
+
+        List<String> messages = new ArrayList<>();
+        ShardedBackend other = new ShardedBackend(LogSink.of(messages::add), SHARDS - 1, dir);
+        assertEquals(0, other.getStudentCount());
+        assertTrue(messages.stream().anyMatch(m -> m.contains("don't fit together")), messages.toString());
+        assertFalse(Files.exists(dir.resolve("shard-" + SHARDS)));
+        other.close();
+
+        ShardedBackend again = new ShardedBackend(LogSink.of(m -> { }), SHARDS, dir);
+        assertEquals(before, StateDump.of(again, ids));
+        again.close();
+    }
+
+    @Test
+    void bundleAcrossShardsIsRefused() {
+        ShardedBackend b = new ShardedBackend(LogSink.of(m -> { }), SHARDS, null);
+        String first = "X0", other = null;
+        for (int c = 1; other == null; c++) if (b.shardOf("X" + c) != b.shardOf(first)) other = "X" + c;
+        b.addCourse(first, "One", 3, 5, "");
+        b.addCourse(other, "Two", 3, 5, "");
+        b.addStudent("Q1", "Quinn");
+        assertFalse(b.queueBundle("Q1", List.of(first, other), RequestScheduler.PRIORITY_NORMAL));
+        assertEquals(0, b.getQueueSize());
+        b.close();
+    }
+}
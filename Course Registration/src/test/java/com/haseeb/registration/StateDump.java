@@ -0,0 +1,42 @@
+package com.haseeb.registration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//everything a registration run leaves behind, as text: two backends ended up the same if their dumps
+//are equal, and assertEquals shows where they didn't
+final class StateDump {
+    private StateDump() { }
+
+    //every course (seats, roster, waitlist in line order), then every student (courses, waitlists, credits,
+    //completed courses)
+    static String of(BackendSystem b) {
+        StringBuilder out = new StringBuilder();
+        for (Course c : b.getAllCourses(0)) {
+            List<String> roster = new ArrayList<>();
+            for (Student s : b.getRoster(c.code)) roster.add(s.id);
+            roster.sort(null);
+            out.append(c.code).append(' ').append(c.enrolled).append('/').append(c.capacity)
+                    .append(" enrolled ").append(roster).append(" waiting ").append(b.getWaitlist(c.code)).append('\n');
+        }
+        for (Student s : b.getStudentsSorted(0, b.getStudentCount())) {
+            out.append(s.id).append(' ').append(b.getRegisteredCourses(s)).append(" waiting ").append(b.getWaitlistedCourses(s))
+                    .append(' ').append(b.getCreditLoad(s)).append(" credits passed ").append(b.getCompletedCourses(s)).append('\n');
+        }
+        return out.toString();
+    }
+
+    //the same gathered from every shard, a ShardedBackend can't list its students so the caller names them
+    static String of(ShardedBackend b, List<String> studentIds) {
+        StringBuilder out = new StringBuilder();
+        for (RegistrationSnapshot.CourseState c : b.getAllCourses(0)) {
+            out.append(c.getCode()).append(' ').append(c.getEnrolled()).append('/').append(c.getCapacity())
+                    .append(" needs ").append(c.getPrerequisites()).append(" waiting ").append(b.getWaitlist(c.getCode())).append('\n');
+        }
+        for (String id : studentIds) {
+            out.append(id).append(' ').append(b.getRegisteredCourses(id)).append(" waiting ").append(b.getWaitlistedCourses(id))
+                    .append(' ').append(b.getCreditLoad(id)).append(" credits\n");
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+//StudentStore against a TreeMap<String, student number>: the store, and every frozen view of it, has to
+//find and order students exactly as the map does, packed IDs and odd ones mixed
+class StudentStoreTest {
+
+    private static final String PACKABLE = "-0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    //packed longs compare like the IDs do, up to the 12 char limit, and unpack to the same ID
+    @Test
+    void packedIdsSortLikeStrings() {
+        List<String> ids = new ArrayList<>(List.of("", "-", "0", "A", "A-", "A0", "AB", "Z", "ZZZZZZZZZZZZ",
+                "------------", "20241-35751", "20241-3575", "99999-99999"));
+        Random r = new Random(5);
+        for (int i = 0; i < 2000; i++) ids.add(random(r, PACKABLE, 1 + r.nextInt(12)));
+        for (String a : ids) {
+            long pa = StudentStore.pack(a);
+            assertTrue(pa >= 0, a);
+            assertEquals(a, StudentStore.unpack(pa));
+            for (int j = 0; j < 20; j++) {
+                String b = ids.get(r.nextInt(ids.size()));
+                assertEquals(Integer.signum(a.compareTo(b)), Long.signum(Long.compare(pa, StudentStore.pack(b))), a + " vs " + b);
+            }
+        }
+    }
+
+    @Test
+    void oddIdsDontPack() {
+        for (String id : List.of("ABCDEFGHIJKLM", "20241-3575100", "s-12", "Ali 7", "A_1", "\u00e91", "a")) {
+            assertEquals(-1, StudentStore.pack(id), id);
+        }
+    }
+
+    //adds in rounds with lookups, sorted reads and frozen views in between, each checked against the map
+    @Test
+    void matchesTreeMap() {
+        Random r = new Random(11);
+        StudentStore store = new StudentStore();
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        List<StudentStore.Frozen> views = new ArrayList<>();
+        List<TreeMap<String, Integer>> seenByViews = new ArrayList<>();
+        StudentStore.Frozen last = null;
+        for (int round = 0; round < 30; round++) {
+            int adds = r.nextInt(4) == 0 ? 0 : 1 + r.nextInt(round < 5 ? 10 : 400);
+            for (int k = 0; k < adds; k++) {
+                String id = randomId(r);
+                int i = store.add(id, "Name " + id);
+                if (expected.containsKey(id)) {
+                    assertEquals(-1, i, "duplicate " + id);
+                } else {
+                    assertEquals(expected.size(), i);
+                    expected.put(id, i);
+                }
+            }
+            if (r.nextBoolean()) assertSortedLike(expected, store); //the store's own order is caught up sometimes, not always
+            last = store.frozen(r.nextBoolean() ? last : null);
+            views.add(last);
+            seenByViews.add(new TreeMap<>(expected));
+            if (r.nextBoolean()) assertViewLike(expected, last);
+        }
+        assertSortedLike(expected, store);
+        for (int v = 0; v < views.size(); v++) assertViewLike(seenByViews.get(v), views.get(v)); //old views never see later adds
+    }
+
+    //a view taken before clear() keeps the old students, and isn't used to sort the new ones
+    @Test
+    void clearStartsOver() {
+        StudentStore store = new StudentStore();
+        TreeMap<String, Integer> before = new TreeMap<>();
+        for (String id : List.of("B2", "A1", "odd one", "C3")) before.put(id, store.add(id, "Name " + id));
+        StudentStore.Frozen old = store.frozen(null);
+        assertViewLike(before, old);
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(-1, store.find("A1"));
+        TreeMap<String, Integer> after = new TreeMap<>();
+        for (String id : List.of("Z9", "Y8", "lower")) after.put(id, store.add(id, "Name " + id));
+        assertSortedLike(after, store);
+        assertViewLike(after, store.frozen(old));
+        assertViewLike(before, old);
+    }
+
+    private static void assertSortedLike(TreeMap<String, Integer> expected, StudentStore store) {
+        assertEquals(expected.size(), store.size());
+        int pos = 0;
+        for (Map.Entry<String, Integer> e : expected.entrySet()) {
+            int i = e.getValue();
+            assertEquals(i, store.sortedAt(pos), "position " + pos);
+            assertEquals(pos, store.rankOf(i));
+            assertEquals(i, store.find(e.getKey()));
+            assertEquals(e.getKey(), store.id(i));
+            assertEquals("Name " + e.getKey(), store.name(i));
+            pos++;
+        }
+    }
+
+    private static void assertViewLike(TreeMap<String, Integer> expected, StudentStore.Frozen view) {
+        assertEquals(expected.size(), view.size);
+        int pos = 0;
+        for (Map.Entry<String, Integer> e : expected.entrySet()) {
+            int i = e.getValue();
+            assertEquals(i, view.sortedAt(pos), "position " + pos);
+            assertEquals(pos, view.rankOf(i));
+            assertEquals(i, view.find(e.getKey()), e.getKey());
+            assertEquals(e.getKey(), view.id(i));
+            assertEquals("Name " + e.getKey(), view.name(i));
+            pos++;
+        }
+        for (String missing : List.of("NOPE-1", "nobody here", "ZZZZZZZZZZZZ", "")) {
+            if (!expected.containsKey(missing)) assertEquals(-1, view.find(missing), missing);
+        }
+    }
+
+    //mostly packable IDs of every length up to the limit, some odd ones (lowercase, spaces, too long),
+    //and from a small enough space that duplicates come up
+    private static String randomId(Random r) {
+        switch (r.nextInt(10)) {
+            case 0: return random(r, "ab c1", 1 + r.nextInt(4));
+            case 1: return random(r, "AB-1", 13 + r.nextInt(2));
+            case 2: return random(r, "AB-1", 1 + r.nextInt(4));
+            default: return "2024" + r.nextInt(3) + "-" + r.nextInt(3000) + (r.nextInt(4) == 0 ? "X" : "");
+        }
+    }
+
+    private static String random(Random r, String chars, int length) {
+        StringBuilder b = new StringBuilder(length);
+        for (int i = 0; i < length; i++) b.append(chars.charAt(r.nextInt(chars.length())));
+        return b.toString();
+    }
+}
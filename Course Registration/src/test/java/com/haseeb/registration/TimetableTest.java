@@ -0,0 +1,74 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+//a student never ends up in two courses that meet at the same time
+class TimetableTest {
+
+    private BackendSystem b;
+    private Student student;
+
+    @BeforeEach
+    void catalog() {
+        b = new BackendSystem(m -> { });
+        b.addCourse("T100", "Monday morning", 3, 10, "MW 09:00-10:15");
+        b.addCourse("T200", "Overlaps T100", 3, 10, "M 10:00-11:00");
+        b.addCourse("T300", "Right after T100", 3, 10, "MW 10:15-11:30");
+        b.addCourse("T400", "Online", 3, 10, "");
+        b.addStudent("T1", "Tess");
+        student = b.getAllStudents().get(b.getStudentCount() - 1);
+    }
+
+    @Test
+    void clashingCourseIsRefused() {
+        for (String code : List.of("T100", "T200", "T300", "T400")) b.queueRequest("T1", code);
+        b.processQueue();
+        assertEquals(List.of("T100", "T300", "T400"), b.getRegisteredCourses(student));
+        assertEquals(List.of(), b.getWaitlistedCourses(student));
+    }
+
+    //the first one in line wins, whichever it is
+    @Test
+    void firstInLineWins() {
+        b.queueRequest("T1", "T200");
+        b.queueRequest("T1", "T100");
+        b.processQueueParallel(4);
+        assertEquals(List.of("T200"), b.getRegisteredCourses(student));
+    }
+
+    @Test
+    void droppingFreesTheTime() {
+        b.queueRequest("T1", "T100");
+        b.processQueue();
+        b.dropCourse("T1", "T100");
+        b.queueRequest("T1", "T200");
+        b.processQueue();
+        assertEquals(List.of("T200"), b.getRegisteredCourses(student));
+    }
+
+    @Test
+    void malformedMeetingTimesAreRefused() {
+        assertFalse(b.addCourse("T500", "Bad day", 3, 10, "MX 09:00-10:00"));
+        assertFalse(b.addCourse("T501", "Backwards", 3, 10, "M 11:00-10:00"));
+        assertFalse(b.addCourse("T502", "Too late", 3, 10, "M 22:00-23:30"));
+        assertTrue(b.addCourse("T503", "Fine", 3, 10, "mw 09:00-10:15; f 13:00-14:00"));
+    }
+
+    @Test
+    void overlapsOnlyWhenTheyShareTime() {
+        MeetingTimes mw9 = MeetingTimes.parse("MW 09:00-10:15");
+        assertTrue(mw9.overlaps(MeetingTimes.parse("W 10:00-10:30")));
+        assertFalse(mw9.overlaps(MeetingTimes.parse("MW 10:15-11:30"))); //back to back
+        assertFalse(mw9.overlaps(MeetingTimes.parse("TR 09:00-10:15")));
+        assertFalse(mw9.overlaps(MeetingTimes.NONE));
+        assertTrue(MeetingTimes.parse("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> MeetingTimes.parse("M 9"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.haseeb.registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//a full course waitlists, and a drop hands the seat straight to whoever is next in line who can take it
+class WaitlistTest {
+
+    private BackendSystem b;
+
+    @BeforeEach
+    void oneSeat() {
+        b = new BackendSystem(m -> { });
+        setUp(b);
+    }
+
+    //W1 (one seat) asked for by A, B and C in that order
+    private static void setUp(BackendSystem b) {
+        b.addCourse("W1", "One seat", 3, 1, "MW 09:00-10:15");
+        b.addCourse("W2", "Same time", 3, 5, "MW 09:00-10:15");
+        for (String id : List.of("A1", "B1", "C1", "D1")) b.addStudent(id, "Student " + id);
+        for (String id : List.of("A1", "B1", "C1")) b.queueRequest(id, "W1");
+        b.processQueue();
+    }
+
+    @Test
+    void fullCourseWaitlistsInOrder() {
+        assertEquals(1, b.getRoster("W1").size());
+        assertEquals("A1", b.getRoster("W1").get(0).id);
+        assertEquals(List.of("B1", "C1"), b.getWaitlist("W1"));
+        assertEquals(1, b.getWaitlistPosition("B1", "W1"));
+        assertEquals(2, b.getWaitlistPosition("C1", "W1"));
+        assertEquals(0, b.getWaitlistPosition("A1", "W1"));
+        assertFalse(b.queueRequest("B1", "W1")); //already waiting, answered straight away
+    }
+
+    @Test
+    void dropPromotesTheFrontOfTheLine() {
+        assertTrue(b.dropCourse("A1", "W1"));
+        assertEquals("B1", b.getRoster("W1").get(0).id);
+        assertEquals(List.of("C1"), b.getWaitlist("W1"));
+        assertEquals(1, b.getWaitlistPosition("C1", "W1"));
+        assertEquals(1, b.getRoster("W1").size());
+    }
+
+    @Test
+    void leavingTheWaitlistFreesNoSeat() {
+        assertTrue(b.dropCourse("B1", "W1"));
+        assertEquals(List.of("C1"), b.getWaitlist("W1"));
+        assertEquals("A1", b.getRoster("W1").get(0).id);
+        assertFalse(b.dropCourse("B1", "W1")); //neither enrolled nor waiting anymore
+        assertFalse(b.dropCourse("D1", "W1"));
+    }
+
+    //B got a course at the same time while waiting, so the seat goes to C
+    @Test
+    void promotionSkipsWhoCantTakeTheSeat() {
+        b.queueRequest("B1", "W2");
+        b.processQueue();
+        assertTrue(b.dropCourse("A1", "W1"));
+        assertEquals("C1", b.getRoster("W1").get(0).id);
+        assertEquals(List.of(), b.getWaitlist("W1"));
+        assertEquals(List.of("W2"), b.getRegisteredCourses(student("B1")));
+    }
+
+    private Student student(String id) {
+        for (Student s : b.getAllStudents()) if (s.id.equals(id)) return s;
+        throw new AssertionError("no student " + id);
+    }
+
+    @Test
+    void waitlistLimitTurnsAwayLateComers() {
+        b.setWaitlistLimit(2);
+        b.queueRequest("D1", "W1");
+        b.processQueue();
+        assertEquals(List.of("B1", "C1"), b.getWaitlist("W1"));
+        assertEquals(0, b.getWaitlistPosition("D1", "W1"));
+    }
+
+    //the promotion is journaled with the drop, a restart doesn't decide it again
+    @Test
+    void promotionSurvivesRestart(@TempDir Path dir) {
+        BackendSystem saved = new BackendSystem(m -> { }, dir);
+        setUp(saved);
+        saved.queueRequest("B1", "W2");
+        saved.processQueue();
+        saved.dropCourse("A1", "W1");
+        String before = StateDump.of(saved);
+        saved.close();
+
+        BackendSystem restarted = new BackendSystem(m -> { }, dir);
+        assertEquals(before, StateDump.of(restarted));
+        restarted.close();
+    }
+}